@@ -0,0 +1,75 @@
+package benchmark;
+
+import model.Analyzer;
+import model.DocumentAnalysis;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of analyzing documents by many threads at once, as Tomcat
+ * does with concurrent requests. Every call of {@link Analyzer#analyze(List)}
+ * works on its own state, so throughput should grow with the number of
+ * threads up to the number of available cores.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisThroughputBenchmark {
+
+    /**
+     * Number of lines of benchmarked document.
+     */
+    @Param({"100", "10000"})
+    private int lineCount;
+
+    /**
+     * Lines of benchmarked document, shared by all threads.
+     */
+    private List<String> lines;
+
+    /**
+     * Method creating a document with nested tags and some errors.
+     */
+    @Setup
+    public void setup(){
+        lines = new ArrayList<>();
+        for(int i = 0; i < lineCount; i++){
+            switch(i % 5){
+                case 0: lines.add("<div class=\"row\">"); break;
+                case 1: lines.add("<P>paragraph " + i + "</P>"); break;
+                case 2: lines.add("<ul><li>one<li>two</ul>"); break;
+                case 3: lines.add("<img src=\"x.png\"><br>"); break;
+                default: lines.add("</div>");
+            }
+        }
+    }
+
+    /**
+     * Benchmark analyzing the document by a single thread.
+     * @return Result of the analysis.
+     */
+    @Benchmark
+    @Threads(1)
+    public DocumentAnalysis singleThread(){
+        return Analyzer.analyze(lines);
+    }
+
+    /**
+     * Benchmark analyzing the document by as many threads as there are cores.
+     * @return Result of the analysis.
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public DocumentAnalysis allThreads(){
+        return Analyzer.analyze(lines);
+    }
+}
@@ -0,0 +1,32 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Class launching benchmarks of this package. It accepts the same
+ * arguments as JMH command line, e.g. a regular expression selecting
+ * benchmarks to be run. Allocation rate is always measured with
+ * the GC profiler.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Main method.
+     * @param args JMH command line arguments.
+     * @throws Exception When arguments are wrong or benchmarks fail.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
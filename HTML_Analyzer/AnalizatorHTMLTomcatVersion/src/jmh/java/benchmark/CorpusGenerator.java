@@ -0,0 +1,429 @@
+package benchmark;
+
+import model.Analyzer;
+import model.DocumentAnalysis;
+import model.MappedDocument;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of HTML documents with known numbers of errors.
+ * A document is a random walk over nested elements which drifts towards
+ * given nesting depth and stays around it, mixed with paragraphs, void
+ * elements, comments and text containing brackets which do not begin tags.
+ * Every opened element carries an error with given probability - a tag
+ * name which is not in lowercase, a tag without its ending bracket or
+ * an element which is never closed. Since every generated ending tag
+ * closes an element which is still open, each injected error is reported
+ * by the analyzer exactly once, so the generator knows how many errors of
+ * every type the document contains and may serve as a correctness oracle.
+ * The same seed and settings always give the same document. Documents are
+ * written as they are generated, so their size is limited only by disk.
+ * <p>
+ * Run as a program it writes a corpus of documents - well formed, with
+ * errors, minified to a single line and deeply nested, optionally a huge
+ * one - together with file expected.tsv listing expected numbers of
+ * errors, and with --verify checks the analyzer against them.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class CorpusGenerator {
+
+    /**
+     * Seed of documents used by benchmarks.
+     */
+    public static final long SEED = 20201017L;
+
+    /**
+     * Names of generated elements.
+     */
+    private static final String[] NAMES = {"div", "section", "article", "ul", "li", "table", "tr", "td", "span", "p"};
+
+    /**
+     * Public constructor.
+     * @param seed Seed of the document.
+     * @param depth Nesting depth the document drifts towards.
+     * @param errorDensity Probability that an opened element carries an error.
+     * @param minified True if the document should be written as a single line.
+     */
+    public CorpusGenerator(long seed, int depth, double errorDensity, boolean minified){
+        this.seed = seed;
+        this.depth = depth;
+        this.errorDensity = errorDensity;
+        this.minified = minified;
+    }
+
+    /**
+     * Seed of the document.
+     */
+    private final long seed;
+
+    /**
+     * Nesting depth the document drifts towards.
+     */
+    private final int depth;
+
+    /**
+     * Probability that an opened element carries an error.
+     */
+    private final double errorDensity;
+
+    /**
+     * Flag telling whether the document is written as a single line.
+     */
+    private final boolean minified;
+
+    /**
+     * Interface of receiver of consecutive fragments of a document.
+     */
+    private interface Sink {
+
+        /**
+         * Method receiving a fragment - a single line of not minified document.
+         * @param fragment Text of the fragment.
+         * @return True if more fragments are wanted, false otherwise.
+         * @throws IOException if the fragment cannot be written.
+         */
+        boolean accept(String fragment) throws IOException;
+    }
+
+    /**
+     * Method generating a document as a list of lines.
+     * @param fragmentCount Number of fragments of the document, without
+     *                      ending tags closing elements left open at the end.
+     * @return Lines of the document.
+     */
+    public List<String> generate(int fragmentCount){
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        try {
+            generate(new Sink() {
+                private int count = 0;
+
+                @Override
+                public boolean accept(String fragment){
+                    if(minified){
+                        line.append(fragment);
+                    }else{
+                        lines.add(fragment);
+                    }
+                    return ++count < fragmentCount;
+                }
+            });
+        }catch(IOException exception){
+            throw new IllegalStateException(exception);
+        }
+        if(minified){
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Method writing a document of about given size.
+     * @param out Writer the document is written to.
+     * @param targetCharacters Number of characters after which no new elements are opened.
+     * @return Expected numbers of errors in the document.
+     * @throws IOException if the document cannot be written.
+     */
+    public ExpectedErrors write(Writer out, long targetCharacters) throws IOException{
+        long[] written = {0};
+        ExpectedErrors expected = generate(fragment -> {
+            if(!minified && written[0] > 0){
+                out.write('\n');
+                written[0]++;
+            }
+            out.write(fragment);
+            written[0] += fragment.length();
+            return written[0] < targetCharacters;
+        });
+        expected.characters = written[0];
+        return expected;
+    }
+
+    /**
+     * Method generating consecutive fragments of the document.
+     * @param sink Receiver of the fragments.
+     * @return Expected numbers of errors in the document.
+     * @throws IOException if a fragment cannot be written.
+     */
+    private ExpectedErrors generate(Sink sink) throws IOException{
+        Random random = new Random(seed);
+        ExpectedErrors expected = new ExpectedErrors();
+        Deque<String> endingTags = new ArrayDeque<>();
+        boolean wanted = emit(sink, expected, "<!DOCTYPE html>");
+        for(int i = 0; wanted; i++){
+            boolean open = endingTags.isEmpty() || (endingTags.size() < depth && random.nextInt(10) < 6);
+            if(open){
+                wanted = emit(sink, expected, openElement(random, expected, endingTags));
+            }else{
+                switch(random.nextInt(8)){
+                    case 0:
+                        wanted = emit(sink, expected, "<!-- <DIV> commented out <p -->");
+                        break;
+                    case 1:
+                        wanted = emit(sink, expected, "<p>1 < 2 and x<-y, see <a href=\"#s" + i + "\">section</a><br></p>");
+                        break;
+                    case 2:
+                    case 3:
+                        wanted = emit(sink, expected, "<p>Paragraph " + i + " with <b>bold</b> &amp; <img src=\"i"
+                                + i + ".png\"> text</p>");
+                        break;
+                    default:
+                        wanted = emit(sink, expected, endingTags.pop());
+                }
+            }
+        }
+        while(!endingTags.isEmpty()){
+            emit(sink, expected, endingTags.pop());
+        }
+        return expected;
+    }
+
+    /**
+     * Method generating an opening tag, possibly with an error, and
+     * remembering the ending tag which will close it.
+     * @param random Source of randomness.
+     * @param expected Expected numbers of errors, updated with injected error.
+     * @param endingTags Ending tags of open elements.
+     * @return Generated opening tag.
+     */
+    private String openElement(Random random, ExpectedErrors expected, Deque<String> endingTags){
+        String name = NAMES[random.nextInt(NAMES.length)];
+        String attributes = " class=\"c" + random.nextInt(100) + "\"";
+        if(random.nextDouble() >= errorDensity){
+            endingTags.push("</" + name + ">");
+            return "<" + name + attributes + ">";
+        }
+        switch(random.nextInt(5)){
+            case 0:
+                expected.noLowercaseTag++;
+                endingTags.push("</" + name + ">");
+                return "<" + name.toUpperCase() + attributes + ">";
+            case 1:
+                expected.noLowercaseTag += 2;
+                endingTags.push("</" + name.toUpperCase() + ">");
+                return "<" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + attributes + ">";
+            case 2:
+                expected.noEndingBracket++;
+                endingTags.push("</" + name + ">");
+                return "<" + name + attributes;
+            case 3:
+                expected.noEndingBracket++;
+                endingTags.push("</" + name);
+                return "<" + name + attributes + ">";
+            default:
+                expected.noEndingTag++;
+                return "<" + name + attributes + ">";
+        }
+    }
+
+    /**
+     * Method passing a fragment to the sink and counting lines.
+     * @param sink Receiver of the fragment.
+     * @param expected Expected numbers of errors, updated with number of lines.
+     * @param fragment Text of the fragment.
+     * @return True if more fragments are wanted, false otherwise.
+     * @throws IOException if the fragment cannot be written.
+     */
+    private boolean emit(Sink sink, ExpectedErrors expected, String fragment) throws IOException{
+        if(!minified || expected.lines == 0){
+            expected.lines++;
+        }
+        return sink.accept(fragment);
+    }
+
+    /**
+     * Class describing numbers of errors a generated document contains.
+     */
+    public static final class ExpectedErrors {
+
+        /**
+         * Number of lines of the document.
+         */
+        private long lines = 0;
+
+        /**
+         * Number of characters of the document, known only for written documents.
+         */
+        private long characters = 0;
+
+        /**
+         * Number of elements which are never closed.
+         */
+        private int noEndingTag = 0;
+
+        /**
+         * Number of tags without ending bracket.
+         */
+        private int noEndingBracket = 0;
+
+        /**
+         * Number of tags whose names are not in lowercase.
+         */
+        private int noLowercaseTag = 0;
+
+        /**
+         * Getter for number of lines of the document.
+         * @return Number of lines.
+         */
+        public long getLines(){return this.lines;}
+
+        /**
+         * Getter for number of characters of written document.
+         * @return Number of characters.
+         */
+        public long getCharacters(){return this.characters;}
+
+        /**
+         * Getter for number of elements which are never closed.
+         * @return Number of errors.
+         */
+        public int getNoEndingTag(){return this.noEndingTag;}
+
+        /**
+         * Getter for number of tags without ending bracket.
+         * @return Number of errors.
+         */
+        public int getNoEndingBracket(){return this.noEndingBracket;}
+
+        /**
+         * Getter for number of tags whose names are not in lowercase.
+         * @return Number of errors.
+         */
+        public int getNoLowercaseTag(){return this.noLowercaseTag;}
+
+        /**
+         * Method checking whether an analysis found exactly the expected errors.
+         * @param analysis Result of analysis of the document.
+         * @return True if numbers of errors of every type are as expected, false otherwise.
+         */
+        public boolean matches(DocumentAnalysis analysis){
+            return analysis.getNoMatchingTagErrors() == noEndingTag
+                    && analysis.getNoMatchingBracketErrors() == noEndingBracket
+                    && analysis.getNoLowercaseTagErrors() == noLowercaseTag
+                    && analysis.getErrorCount() == noEndingTag + noEndingBracket + noLowercaseTag;
+        }
+
+        /**
+         * Method describing expected errors.
+         * @return Description of expected errors.
+         */
+        @Override
+        public String toString(){
+            return lines + "\t" + characters + "\t" + noEndingTag + "\t" + noEndingBracket + "\t" + noLowercaseTag;
+        }
+    }
+
+    /**
+     * Main method writing a corpus. Arguments are the output directory followed
+     * by options: --seed N, --size CHARACTERS (size of every document, 1 MB by
+     * default), --huge CHARACTERS (adds huge.html of given size) and --verify
+     * (analyzes every written document and compares found errors with expected).
+     * @param args Command line arguments.
+     * @throws IOException if a document cannot be written or read.
+     */
+    public static void main(String[] args) throws IOException{
+        if(args.length == 0){
+            System.err.println("Usage: CorpusGenerator <directory> [--seed N] [--size CHARACTERS] "
+                    + "[--huge CHARACTERS] [--verify]");
+            System.exit(2);
+        }
+        File directory = new File(args[0]);
+        long seed = SEED;
+        long size = 1L << 20;
+        long hugeSize = 0;
+        boolean verify = false;
+        for(int i = 1; i < args.length; i++){
+            switch(args[i]){
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--size": size = Long.parseLong(args[++i]); break;
+                case "--huge": hugeSize = Long.parseLong(args[++i]); break;
+                case "--verify": verify = true; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        Files.createDirectories(directory.toPath());
+        List<String> names = new ArrayList<>();
+        List<CorpusGenerator> generators = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        addDocument(names, generators, sizes, "wellformed", new CorpusGenerator(seed, 8, 0, false), size);
+        addDocument(names, generators, sizes, "errors", new CorpusGenerator(seed + 1, 8, 0.05, false), size);
+        addDocument(names, generators, sizes, "minified", new CorpusGenerator(seed + 2, 8, 0.05, true), size);
+        addDocument(names, generators, sizes, "deep", new CorpusGenerator(seed + 3, 5000, 0.01, false), size);
+        if(hugeSize > 0){
+            addDocument(names, generators, sizes, "huge", new CorpusGenerator(seed + 4, 16, 0.01, false), hugeSize);
+        }
+
+        boolean correct = true;
+        try (PrintStream summary = new PrintStream(new File(directory, "expected.tsv"), "UTF-8")) {
+            summary.println("file\tlines\tcharacters\tnoEndingTag\tnoEndingBracket\tnoLowercaseTag");
+            for(int i = 0; i < names.size(); i++){
+                File file = new File(directory, names.get(i) + ".html");
+                ExpectedErrors expected;
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8), 1 << 16)) {
+                    expected = generators.get(i).write(out, sizes.get(i));
+                }
+                summary.println(file.getName() + "\t" + expected);
+                System.out.println(file + "\t" + expected);
+                if(verify){
+                    correct &= verify(file, expected);
+                }
+            }
+        }
+        if(!correct){
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Method adding a document to the corpus.
+     * @param names Names of documents.
+     * @param generators Generators of documents.
+     * @param sizes Sizes of documents.
+     * @param name Name of added document.
+     * @param generator Generator of added document.
+     * @param size Size of added document.
+     */
+    private static void addDocument(List<String> names, List<CorpusGenerator> generators, List<Long> sizes,
+                                    String name, CorpusGenerator generator, long size){
+        names.add(name);
+        generators.add(generator);
+        sizes.add(size);
+    }
+
+    /**
+     * Method analyzing a written document and comparing found errors with expected.
+     * Documents too large to be mapped into memory are skipped.
+     * @param file Written document.
+     * @param expected Expected errors.
+     * @return False if found errors differ from expected, true otherwise.
+     * @throws IOException if the document cannot be read.
+     */
+    private static boolean verify(File file, ExpectedErrors expected) throws IOException{
+        if(file.length() >= Integer.MAX_VALUE){
+            System.out.println("  skipped verification of " + file + ", too large to be mapped");
+            return true;
+        }
+        DocumentAnalysis analysis = Analyzer.analyze(MappedDocument.read(file));
+        boolean matches = expected.matches(analysis) && analysis.getLineCount() == expected.getLines();
+        System.out.println("  " + (matches ? "OK" : "MISMATCH") + " found " + analysis.getNoMatchingTagErrors() + "\t"
+                + analysis.getNoMatchingBracketErrors() + "\t" + analysis.getNoLowercaseTagErrors()
+                + " in " + analysis.getLineCount() + " lines");
+        return matches;
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import java.io.Writer;
+
+/**
+ * Writer counting written characters, standing in for a response
+ * writer which flushes its buffer to the client.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class CountingWriter extends Writer {
+
+    /**
+     * Number of written characters.
+     */
+    private int count = 0;
+
+    /**
+     * Getter for number of written characters.
+     * @return Number of characters.
+     */
+    public int getCount(){return this.count;}
+
+    @Override
+    public void write(char[] buffer, int offset, int length){
+        count += length;
+    }
+
+    @Override
+    public void write(String text, int offset, int length){
+        count += length;
+    }
+
+    @Override
+    public void write(int character){
+        count++;
+    }
+
+    @Override
+    public void flush(){}
+
+    @Override
+    public void close(){}
+}
@@ -0,0 +1,150 @@
+package benchmark;
+
+import controller.HtmlEscaper;
+import controller.Receiver;
+import model.Analyzer;
+import model.DocumentAnalysis;
+import model.EmptyFileException;
+import model.FileManager;
+import model.LineReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of every stage a document goes through - reading a local file,
+ * splitting an uploaded stream into lines and escaping it for the response,
+ * analyzing tags and the whole path of an upload through {@link Receiver}.
+ * Documents differ in size, nesting depth and density of errors, see
+ * {@link CorpusGenerator}. Run through {@link BenchmarkRunner}, which
+ * adds the GC profiler, so allocation rate is reported next to throughput.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class DocumentPipelineBenchmark {
+
+    /**
+     * Number of lines of benchmarked document.
+     */
+    @Param({"1000", "100000"})
+    private int lineCount;
+
+    /**
+     * Nesting depth of benchmarked document.
+     */
+    @Param({"4", "64"})
+    private int depth;
+
+    /**
+     * Probability that an element of benchmarked document carries an error.
+     */
+    @Param({"0", "0.05"})
+    private double errorDensity;
+
+    /**
+     * Lines of benchmarked document.
+     */
+    private List<String> lines;
+
+    /**
+     * Benchmarked document encoded as uploaded by a client.
+     */
+    private byte[] bytes;
+
+    /**
+     * Benchmarked document saved as a local file.
+     */
+    private File file;
+
+    /**
+     * Method creating the document and saving it to a temporary file.
+     * @throws IOException if the file cannot be written.
+     */
+    @Setup
+    public void setup() throws IOException{
+        lines = new CorpusGenerator(CorpusGenerator.SEED, depth, errorDensity, false).generate(lineCount);
+        bytes = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        file = File.createTempFile("pipeline", ".html");
+        Files.write(file.toPath(), bytes);
+    }
+
+    /**
+     * Method removing the temporary file.
+     */
+    @TearDown
+    public void tearDown(){
+        file.delete();
+    }
+
+    /**
+     * Benchmark analyzing tags of the whole document.
+     * @return Result of the analysis.
+     */
+    @Benchmark
+    public DocumentAnalysis analyze(){
+        return Analyzer.analyze(lines);
+    }
+
+    /**
+     * Benchmark reading the document from a local file.
+     * @return Number of read lines.
+     * @throws IOException if the file cannot be read.
+     */
+    @Benchmark
+    public int readDocument() throws IOException{
+        FileManager fileManager = new FileManager();
+        fileManager.setFilePath(file.getPath());
+        fileManager.readDocument();
+        return fileManager.getDocumentLines().size();
+    }
+
+    /**
+     * Benchmark splitting an uploaded document into lines and escaping
+     * them to the response, without analysis.
+     * @return Number of written characters.
+     * @throws IOException Never thrown for a document in memory.
+     */
+    @Benchmark
+    public int splitAndEscape() throws IOException{
+        CountingWriter out = new CountingWriter();
+        LineReader reader = new LineReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+        while(reader.hasNext()){
+            HtmlEscaper.escape(reader.next(), out);
+        }
+        return out.getCount();
+    }
+
+    /**
+     * Benchmark of an upload - detecting encoding, analyzing the document
+     * while it is read and escaping it with notified errors to the response.
+     * @return Number of written characters.
+     * @throws IOException Never thrown for a document in memory.
+     * @throws EmptyFileException Never thrown for generated documents.
+     */
+    @Benchmark
+    public int receiveUpload() throws IOException, EmptyFileException{
+        Receiver receiver = new Receiver(new FileManager());
+        receiver.proceedDocumentGivenAsStream(new ByteArrayInputStream(bytes), "text/html", "benchmark.html");
+        CountingWriter out = new CountingWriter();
+        Iterator<String> output = receiver.getDocumentWithErrorsNotification().iterator();
+        while(output.hasNext()){
+            HtmlEscaper.escape(output.next(), out);
+        }
+        return out.getCount();
+    }
+}
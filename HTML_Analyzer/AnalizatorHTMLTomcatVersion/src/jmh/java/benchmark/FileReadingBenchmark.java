@@ -0,0 +1,130 @@
+package benchmark;
+
+import model.MappedDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of reading a local file line by line. It compares Scanner,
+ * which FileManager used to read documents with, BufferedReader and
+ * the memory-mapped reader. Every method visits all characters of every
+ * line, counting opening brackets, as the analysis does.
+ * Sizes of the file may be chosen with -p fileSize=...
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileReadingBenchmark {
+
+    /**
+     * Size of benchmarked file in bytes.
+     */
+    @Param({"1024", "1048576", "104857600", "1073741824"})
+    private long fileSize;
+
+    /**
+     * Benchmarked file.
+     */
+    private File file;
+
+    /**
+     * Method writing a file of HTML lines of requested size.
+     * @throws IOException Thrown when the file cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException{
+        file = File.createTempFile("benchmark", ".html");
+        String line = "<div class=\"row\"><p>Some text of a paragraph</p><img src=\"a.png\"></div>";
+        try(BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)){
+            for(long written = 0; written < fileSize; written += line.length() + 1){
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Method removing benchmarked file.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        file.delete();
+    }
+
+    /**
+     * Method counting opening brackets in a line.
+     * @param line Checked line.
+     * @return Number of opening brackets.
+     */
+    private static int countBrackets(CharSequence line){
+        int count = 0;
+        for(int i = 0; i < line.length(); i++){
+            if(line.charAt(i) == '<'){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Benchmark reading the file with Scanner.
+     * @return Number of opening brackets.
+     * @throws FileNotFoundException Thrown when the file is missing.
+     */
+    @Benchmark
+    public int scanner() throws FileNotFoundException{
+        int count = 0;
+        try(Scanner scanner = new Scanner(file, StandardCharsets.UTF_8.name())){
+            while(scanner.hasNextLine()){
+                count += countBrackets(scanner.nextLine());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Benchmark reading the file with BufferedReader.
+     * @return Number of opening brackets.
+     * @throws IOException Thrown when the file cannot be read.
+     */
+    @Benchmark
+    public int bufferedReader() throws IOException{
+        int count = 0;
+        try(BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)){
+            String line;
+            while((line = reader.readLine()) != null){
+                count += countBrackets(line);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Benchmark reading the file mapped into memory.
+     * @return Number of opening brackets.
+     * @throws IOException Thrown when the file cannot be read.
+     */
+    @Benchmark
+    public int mapped() throws IOException{
+        int count = 0;
+        for(CharSequence line : MappedDocument.read(file, StandardCharsets.UTF_8)){
+            count += countBrackets(line);
+        }
+        return count;
+    }
+}
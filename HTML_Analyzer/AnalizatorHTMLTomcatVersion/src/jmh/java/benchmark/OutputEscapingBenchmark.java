@@ -0,0 +1,79 @@
+package benchmark;
+
+import controller.HtmlEscaper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of writing a document escaped for HTML to the response.
+ * It compares building the whole output with regular expressions and
+ * String concatenation, as the servlet used to do, with escaping every
+ * line straight to a writer. The writer only counts characters, like
+ * a response writer flushing its buffer to the client.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputEscapingBenchmark {
+
+    /**
+     * Number of lines of benchmarked document.
+     */
+    @Param({"1000", "10000"})
+    private int lineCount;
+
+    /**
+     * Lines of benchmarked document.
+     */
+    private List<String> lines;
+
+    /**
+     * Method creating a document of lines about 100 characters long.
+     */
+    @Setup
+    public void setup(){
+        lines = new ArrayList<>();
+        for(int i = 0; i < lineCount; i++){
+            lines.add("<div class=\"row\"><p>Paragraph " + i + " & 'quoted' text</p><img src=\"a.png\"></div>\n");
+        }
+    }
+
+    /**
+     * Benchmark building the output with regular expressions and concatenation.
+     * @return Number of written characters.
+     */
+    @Benchmark
+    public int concatenatedOutput(){
+        String outputString = "";
+        for(String line : lines){
+            outputString += line.replaceAll("<", "&lt;").replaceAll(">", "&gt;");
+        }
+        CountingWriter out = new CountingWriter();
+        out.write(outputString.toCharArray(), 0, outputString.length());
+        return out.getCount();
+    }
+
+    /**
+     * Benchmark escaping lines straight to the writer.
+     * @return Number of written characters.
+     * @throws IOException Never thrown by the counting writer.
+     */
+    @Benchmark
+    public int streamedOutput() throws IOException{
+        CountingWriter out = new CountingWriter();
+        for(String line : lines){
+            HtmlEscaper.escape(line, out);
+        }
+        return out.getCount();
+    }
+}
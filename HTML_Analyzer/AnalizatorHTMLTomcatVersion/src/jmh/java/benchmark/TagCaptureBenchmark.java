@@ -0,0 +1,106 @@
+package benchmark;
+
+import model.TagNameTable;
+import model.Token;
+import model.Tokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of reading long, attribute-heavy tags. It compares capturing
+ * a tag by appending every character to a String, as Analyzer used to do,
+ * with the tokenizer describing tags as slices of the document.
+ * Run with the GC profiler, gc.alloc.rate.norm shows bytes allocated
+ * per analyzed document.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagCaptureBenchmark {
+
+    /**
+     * Length of attribute value of every tag.
+     */
+    @Param({"100", "1000", "10000"})
+    private int attributeLength;
+
+    /**
+     * Lines of benchmarked document.
+     */
+    private List<String> lines;
+
+    /**
+     * Table of tag names shared by iterations, so that interning
+     * of already known names is measured.
+     */
+    private final TagNameTable tagNames = new TagNameTable();
+
+    /**
+     * Method creating a document of inline images with long data URIs.
+     */
+    @Setup
+    public void setup(){
+        StringBuilder value = new StringBuilder();
+        for(int i = 0; i < attributeLength; i++){
+            value.append((char) ('a' + i % 26));
+        }
+        lines = new ArrayList<>();
+        for(int i = 0; i < 10; i++){
+            lines.add("<svg><image href=\"data:image/png;base64," + value + "\"/></svg>");
+        }
+    }
+
+    /**
+     * Benchmark capturing tags character by character into a String.
+     * @return Total length of captured tags.
+     */
+    @Benchmark
+    public int concatenatedCapture(){
+        int total = 0;
+        for(String line : lines){
+            String currentOpeningTag = "";
+            boolean opened = false;
+            for(int i = 0; i < line.length(); i++){
+                char currentCharacter = line.charAt(i);
+                if(currentCharacter == '<'){
+                    opened = true;
+                    currentOpeningTag = "";
+                }
+                if(opened){
+                    currentOpeningTag = currentOpeningTag + currentCharacter;
+                }
+                if(currentCharacter == '>'){
+                    opened = false;
+                    total += currentOpeningTag.length();
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Benchmark reading tags with the tokenizer.
+     * @return Total length of tags.
+     */
+    @Benchmark
+    public int tokenizerSlices(){
+        int total = 0;
+        Tokenizer tokenizer = new Tokenizer(lines, tagNames);
+        Token.Type type;
+        while((type = tokenizer.advance()) != null){
+            if(type != Token.Type.TEXT){
+                total += tokenizer.getEndColumn() - tokenizer.getColumn();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark;
+
+import model.TagClassifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark comparing ways of checking whether a string is an opening
+ * or an ending tag: compiling the pattern on every call, as Analyzer
+ * used to do, reusing precompiled patterns and scanning characters
+ * with {@link TagClassifier}.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagClassifierBenchmark {
+
+    /**
+     * Precompiled pattern of opening tag.
+     */
+    private static final Pattern OPENING_TAG = Pattern.compile("<[a-z].+>");
+
+    /**
+     * Precompiled pattern of ending tag.
+     */
+    private static final Pattern ENDING_TAG = Pattern.compile("</[a-z].+>");
+
+    /**
+     * Checked strings.
+     */
+    private final String[] tags = {"<html>", "<div class=\"content\">", "</div>", "<P>", "</Table>",
+            "<a href=\"index.html\">", "</a>", "plain text", "<>", "</span>"};
+
+    /**
+     * Benchmark compiling patterns on every check.
+     * @return Number of strings recognized as tags.
+     */
+    @Benchmark
+    public int patternCompiledOnEveryCall(){
+        int count = 0;
+        for(String tag : tags){
+            if(Pattern.compile("<[a-z].+>").matcher(tag).matches()){
+                count++;
+            }
+            if(Pattern.compile("</[a-z].+>").matcher(tag).matches()){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Benchmark reusing precompiled patterns.
+     * @return Number of strings recognized as tags.
+     */
+    @Benchmark
+    public int precompiledPattern(){
+        int count = 0;
+        for(String tag : tags){
+            if(OPENING_TAG.matcher(tag).matches()){
+                count++;
+            }
+            if(ENDING_TAG.matcher(tag).matches()){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Benchmark scanning characters without regular expressions.
+     * @return Number of strings recognized as tags.
+     */
+    @Benchmark
+    public int tagClassifier(){
+        int count = 0;
+        for(String tag : tags){
+            if(TagClassifier.isOpeningTag(tag)){
+                count++;
+            }
+            if(TagClassifier.isEndingTag(tag)){
+                count++;
+            }
+        }
+        return count;
+    }
+}
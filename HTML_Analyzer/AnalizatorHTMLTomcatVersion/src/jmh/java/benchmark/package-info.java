@@ -0,0 +1,7 @@
+/**
+ * Package containing JMH benchmarks of program hot paths.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+package benchmark;
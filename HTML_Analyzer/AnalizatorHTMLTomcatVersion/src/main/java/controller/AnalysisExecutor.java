@@ -0,0 +1,185 @@
+package controller;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class running analyses of documents outside of connector threads.
+ * At most given number of tasks run at once and at most given number
+ * of tasks wait for their turn; any further task is rejected, so that
+ * a burst of large documents cannot make the waiting time of every
+ * request grow without limit. On JDKs supporting virtual threads every
+ * task gets its own virtual thread and the limits are kept by semaphores,
+ * otherwise tasks are run by a bounded pool of platform threads.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class AnalysisExecutor {
+
+    /**
+     * Public constructor.
+     * @param threads Maximal number of tasks running at once.
+     * @param queueCapacity Maximal number of tasks waiting for their turn.
+     */
+    public AnalysisExecutor(int threads, int queueCapacity){
+        this(threads, queueCapacity, true);
+    }
+
+    /**
+     * Constructor which may keep to platform threads, as on JDKs without
+     * virtual threads.
+     * @param threads Maximal number of tasks running at once.
+     * @param queueCapacity Maximal number of tasks waiting for their turn.
+     * @param virtualThreadsAllowed False to use a pool of platform threads even if virtual threads are supported.
+     */
+    AnalysisExecutor(int threads, int queueCapacity, boolean virtualThreadsAllowed){
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        ExecutorService virtualThreads = virtualThreadsAllowed ? createVirtualThreadExecutor() : null;
+        if(virtualThreads != null){
+            this.executor = virtualThreads;
+            this.admitted = new Semaphore(threads + queueCapacity);
+            this.running = new Semaphore(threads);
+        }else{
+            this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), new AnalysisThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            ((ThreadPoolExecutor) this.executor).allowCoreThreadTimeOut(true);
+            this.admitted = null;
+            this.running = null;
+        }
+    }
+
+    /**
+     * Maximal number of tasks running at once.
+     */
+    private final int threads;
+
+    /**
+     * Getter for maximal number of tasks running at once.
+     * @return Number of tasks.
+     */
+    public int getThreads(){return this.threads;}
+
+    /**
+     * Maximal number of tasks waiting for their turn.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Getter for maximal number of tasks waiting for their turn.
+     * @return Number of tasks.
+     */
+    public int getQueueCapacity(){return this.queueCapacity;}
+
+    /**
+     * Executor running the tasks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Permits for tasks running or waiting, used with virtual threads only.
+     */
+    private final Semaphore admitted;
+
+    /**
+     * Permits for running tasks, used with virtual threads only.
+     */
+    private final Semaphore running;
+
+    /**
+     * Getter telling whether tasks are run by virtual threads.
+     * @return True for virtual threads, false for a pool of platform threads.
+     */
+    public boolean isUsingVirtualThreads(){return this.admitted != null;}
+
+    /**
+     * Method submitting a task, unless too many tasks are already waiting.
+     * @param task Task to be run.
+     * @return True if the task has been accepted, false if it has been rejected.
+     */
+    public boolean submit(Runnable task){
+        if(admitted == null){
+            try{
+                executor.execute(task);
+                return true;
+            }catch(RejectedExecutionException exception){
+                return false;
+            }
+        }
+        if(!admitted.tryAcquire()){
+            return false;
+        }
+        try{
+            executor.execute(() -> {
+                running.acquireUninterruptibly();
+                try{
+                    task.run();
+                }finally{
+                    running.release();
+                    admitted.release();
+                }
+            });
+            return true;
+        }catch(RejectedExecutionException exception){
+            admitted.release();
+            return false;
+        }
+    }
+
+    /**
+     * Method stopping the executor. Tasks already accepted are finished.
+     * @param timeout Maximal time of waiting for the tasks, in seconds.
+     * @return True if all tasks have finished, false otherwise.
+     */
+    public boolean shutdown(long timeout){
+        executor.shutdown();
+        try{
+            return executor.awaitTermination(timeout, TimeUnit.SECONDS);
+        }catch(InterruptedException exception){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Method creating executor starting a virtual thread for every task.
+     * It is looked up by reflection, so that the class works on JDKs
+     * without virtual threads.
+     * @return Executor or null if virtual threads are not supported.
+     */
+    private static ExecutorService createVirtualThreadExecutor(){
+        try{
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }catch(ReflectiveOperationException | UnsupportedOperationException exception){
+            return null;
+        }
+    }
+
+    /**
+     * Factory of daemon platform threads with recognizable names.
+     */
+    private static class AnalysisThreadFactory implements ThreadFactory {
+
+        /**
+         * Number of the next created thread.
+         */
+        private final AtomicInteger number = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable task){
+            Thread thread = new Thread(task, "document-analysis-" + number.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package controller;
+
+import model.DocumentAnalysis;
+import model.ErrorType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Class describing result of analysis of a single document of many analyzed
+ * at once - numbers of errors of every type and, optionally, their positions,
+ * but not the document itself. A summary is written as a single line of JSON,
+ * so summaries of many documents form a stream of newline delimited JSON
+ * which may be written while the documents are still being analyzed.
+ * Lines of errors are numbered from 1.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class AnalysisSummary {
+
+    /**
+     * Public constructor of summary of analyzed document.
+     * @param name Name of the document.
+     * @param analysis Result of the analysis.
+     * @param withPositions Flag set when positions of errors should be kept.
+     * @param nanos Time of the analysis in nanoseconds.
+     */
+    public AnalysisSummary(String name, DocumentAnalysis analysis, boolean withPositions, long nanos){
+        this.name = name;
+        this.failure = null;
+        this.lineCount = analysis.getLineCount();
+        this.noEndingTagErrors = analysis.getNoMatchingTagErrors();
+        this.noEndingBracketErrors = analysis.getNoMatchingBracketErrors();
+        this.noLowercaseTagErrors = analysis.getNoLowercaseTagErrors();
+        this.nanos = nanos;
+        if(withPositions){
+            this.errorLines = new int[analysis.getErrorCount()];
+            this.errorTypes = new ErrorType[analysis.getErrorCount()];
+            for(int i = 0; i < errorLines.length; i++){
+                errorLines[i] = analysis.getErrorLine(i);
+                errorTypes[i] = analysis.getErrorType(i);
+            }
+        }else{
+            this.errorLines = null;
+            this.errorTypes = null;
+        }
+    }
+
+    /**
+     * Private constructor of summary of document which could not be analyzed.
+     * @param name Name of the document.
+     * @param failure Description of the failure.
+     * @param nanos Time spent on the document in nanoseconds.
+     */
+    private AnalysisSummary(String name, String failure, long nanos){
+        this.name = name;
+        this.failure = failure;
+        this.lineCount = 0;
+        this.noEndingTagErrors = 0;
+        this.noEndingBracketErrors = 0;
+        this.noLowercaseTagErrors = 0;
+        this.nanos = nanos;
+        this.errorLines = null;
+        this.errorTypes = null;
+    }
+
+    /**
+     * Method creating summary of document which could not be analyzed.
+     * @param name Name of the document.
+     * @param failure Description of the failure.
+     * @param nanos Time spent on the document in nanoseconds.
+     * @return Summary of the failure.
+     */
+    public static AnalysisSummary failed(String name, String failure, long nanos){
+        return new AnalysisSummary(name, String.valueOf(failure), nanos);
+    }
+
+    /**
+     * Name of the document.
+     */
+    private final String name;
+
+    /**
+     * Getter for name of the document.
+     * @return Document name.
+     */
+    public String getName(){return this.name;}
+
+    /**
+     * Description of the failure or null if the document has been analyzed.
+     */
+    private final String failure;
+
+    /**
+     * Getter for description of the failure.
+     * @return Description or null if the document has been analyzed.
+     */
+    public String getFailure(){return this.failure;}
+
+    /**
+     * Number of lines of the document.
+     */
+    private final int lineCount;
+
+    /**
+     * Getter for number of lines of the document.
+     * @return Number of lines.
+     */
+    public int getLineCount(){return this.lineCount;}
+
+    /**
+     * Number of opening tags without ending tag.
+     */
+    private final int noEndingTagErrors;
+
+    /**
+     * Getter for number of opening tags without ending tag.
+     * @return Number of errors.
+     */
+    public int getNoMatchingTagErrors(){return this.noEndingTagErrors;}
+
+    /**
+     * Number of tags without ending bracket.
+     */
+    private final int noEndingBracketErrors;
+
+    /**
+     * Getter for number of tags without ending bracket.
+     * @return Number of errors.
+     */
+    public int getNoMatchingBracketErrors(){return this.noEndingBracketErrors;}
+
+    /**
+     * Number of tags not in lowercase.
+     */
+    private final int noLowercaseTagErrors;
+
+    /**
+     * Getter for number of tags not in lowercase.
+     * @return Number of errors.
+     */
+    public int getNoLowercaseTagErrors(){return this.noLowercaseTagErrors;}
+
+    /**
+     * Getter for number of errors of all types.
+     * @return Number of errors.
+     */
+    public int getErrorCount(){
+        return this.noEndingTagErrors + this.noEndingBracketErrors + this.noLowercaseTagErrors;
+    }
+
+    /**
+     * Time of the analysis in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * Getter for time of the analysis.
+     * @return Time in nanoseconds.
+     */
+    public long getNanos(){return this.nanos;}
+
+    /**
+     * Lines of errors in order they were found, null if positions are not kept.
+     */
+    private final int[] errorLines;
+
+    /**
+     * Types of errors in order they were found, null if positions are not kept.
+     */
+    private final ErrorType[] errorTypes;
+
+    /**
+     * Method writing the summary as a single line of JSON, ended with a new line.
+     * @param out Writer the summary is written to.
+     * @throws IOException Thrown when writing fails.
+     */
+    public void writeJson(Writer out) throws IOException{
+        out.write("{\"file\":");
+        writeJsonString(name, out);
+        if(failure != null){
+            out.write(",\"error\":");
+            writeJsonString(failure, out);
+        }else{
+            out.write(",\"lines\":" + lineCount
+                    + ",\"noEndingTag\":" + noEndingTagErrors
+                    + ",\"noEndingBracket\":" + noEndingBracketErrors
+                    + ",\"noLowercaseTag\":" + noLowercaseTagErrors);
+            if(errorLines != null){
+                out.write(",\"errors\":[");
+                for(int i = 0; i < errorLines.length; i++){
+                    if(i > 0){
+                        out.write(',');
+                    }
+                    out.write("{\"line\":" + (errorLines[i] + 1) + ",\"type\":\"" + errorTypes[i].name() + "\"}");
+                }
+                out.write(']');
+            }
+        }
+        out.write(",\"millis\":" + formatMillis(nanos) + "}\n");
+    }
+
+    /**
+     * Method writing totals of many analyzed documents as a single line of JSON,
+     * ended with a new line.
+     * @param files Number of documents.
+     * @param failed Number of documents which could not be analyzed.
+     * @param errors Number of errors in all documents.
+     * @param nanos Time of analysis of all documents in nanoseconds.
+     * @param out Writer the totals are written to.
+     * @throws IOException Thrown when writing fails.
+     */
+    public static void writeTotalsJson(long files, long failed, long errors, long nanos, Writer out) throws IOException{
+        out.write("{\"files\":" + files + ",\"failed\":" + failed + ",\"errors\":" + errors
+                + ",\"millis\":" + formatMillis(nanos) + "}\n");
+    }
+
+    /**
+     * Method formatting time in milliseconds with fixed precision.
+     * @param nanos Time in nanoseconds.
+     * @return Formatted time in milliseconds.
+     */
+    private static String formatMillis(long nanos){
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    /**
+     * Method writing text as a JSON string, with quotes.
+     * @param text Text to be written.
+     * @param out Writer the text is written to.
+     * @throws IOException Thrown when writing fails.
+     */
+    public static void writeJsonString(CharSequence text, Writer out) throws IOException{
+        out.write('"');
+        for(int i = 0; i < text.length(); i++){
+            char character = text.charAt(i);
+            switch(character){
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if(character < 0x20){
+                        out.write(String.format("\\u%04x", (int) character));
+                    }else{
+                        out.write(character);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,462 @@
+package controller;
+
+import model.EmptyFileException;
+import model.FileManager;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Servlet analyzing many documents in a single request. Documents are
+ * sent as parts of a multipart request, as ZIP archives among the parts,
+ * or as a ZIP archive making up the whole body of the request. Entries of
+ * archives are decompressed one by one while the request is read and
+ * analyzed concurrently by a pool of threads shared by all requests. Every
+ * request has a limited number of documents waiting for the pool, so
+ * reading of the request waits for the analyses instead of buffering it.
+ * A summary of every document - numbers of errors of every type and their
+ * positions, see {@link AnalysisSummary} - is written as a line of
+ * newline delimited JSON as soon as the document has been analyzed, and
+ * totals of the whole batch are written as the last line. A body or an
+ * archive part which is not a ZIP archive is reported as a failed line
+ * instead of being read as an archive without entries.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+@WebServlet(value = "/batchAnalysisServlet", asyncSupported = true)
+@MultipartConfig
+public class BatchAnalysisServlet extends HttpServlet {
+
+    /**
+     * Executor running batch requests, so that connector threads are not occupied.
+     */
+    private AnalysisExecutor requestExecutor;
+
+    /**
+     * Pool of threads analyzing documents of all batches.
+     */
+    private ExecutorService analysisPool;
+
+    /**
+     * Number of threads analyzing documents.
+     */
+    private int analysisThreads;
+
+    /**
+     * Maximal size of a decompressed entry of an archive, in bytes.
+     */
+    private int maxEntryBytes;
+
+    /**
+     * Default number of batch requests processed at once.
+     */
+    private static final int DEFAULT_BATCH_REQUESTS = 2;
+
+    /**
+     * Default maximal size of a decompressed entry of an archive, in bytes.
+     */
+    private static final int DEFAULT_MAX_ENTRY_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * Number of documents of a request waiting for the pool for every thread of the pool.
+     */
+    private static final int DOCUMENTS_PER_THREAD = 2;
+
+    /**
+     * Number of seconds after which a client should retry
+     * a request rejected because of too many waiting requests.
+     */
+    private static final int RETRY_AFTER_SECONDS = 5;
+
+    /**
+     * Signature of local file header, with which an archive with entries begins.
+     */
+    private static final byte[] ZIP_ENTRY_SIGNATURE = {'P', 'K', 3, 4};
+
+    /**
+     * Signature of end of central directory, with which an archive without entries begins.
+     */
+    private static final byte[] EMPTY_ZIP_SIGNATURE = {'P', 'K', 5, 6};
+
+    /**
+     * Number of seconds given to accepted requests to finish
+     * when the servlet is destroyed.
+     */
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Initializer of executors. Number of threads analyzing documents may be
+     * set with init parameter batchAnalysisThreads, number of batch requests
+     * processed at once and waiting with batchRequests and batchQueueCapacity,
+     * maximal size of a decompressed entry of an archive with maxEntryBytes.
+     */
+    @Override
+    public void init() {
+        analysisThreads = getIntInitParameter("batchAnalysisThreads", Runtime.getRuntime().availableProcessors());
+        int requests = getIntInitParameter("batchRequests", DEFAULT_BATCH_REQUESTS);
+        requestExecutor = new AnalysisExecutor(requests, getIntInitParameter("batchQueueCapacity", 2 * requests));
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        analysisPool = Executors.newFixedThreadPool(analysisThreads, task -> {
+            Thread thread = new Thread(task, "batch-analysis-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        maxEntryBytes = getIntInitParameter("maxEntryBytes", DEFAULT_MAX_ENTRY_BYTES);
+    }
+
+    /**
+     * Method stopping executors when the servlet is taken out of service.
+     * Batches already accepted are finished.
+     */
+    @Override
+    public void destroy() {
+        requestExecutor.shutdown(SHUTDOWN_TIMEOUT_SECONDS);
+        analysisPool.shutdown();
+        try {
+            analysisPool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }catch(InterruptedException exception){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method for reading a numeric init parameter.
+     * @param name Name of the parameter.
+     * @param defaultValue Value used when the parameter is missing.
+     * @return Value of the parameter.
+     */
+    private int getIntInitParameter(String name, int defaultValue){
+        String value = getInitParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Handles the HTTP <code>POST</code> method.
+     *
+     * @param request servlet request
+     * @param response servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if(!request.isAsyncSupported()){
+            processBatch(request, response);
+            return;
+        }
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0L);
+        boolean accepted = requestExecutor.submit(() -> {
+            try {
+                processBatch((HttpServletRequest) asyncContext.getRequest(),
+                        (HttpServletResponse) asyncContext.getResponse());
+            }catch(ServletException | IOException exception){
+                log("Processing of batch failed", exception);
+            }finally{
+                asyncContext.complete();
+            }
+        });
+        if(!accepted){
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            PrintWriter out = response.getWriter();
+            out.write("{\"error\":");
+            AnalysisSummary.writeJsonString("Too many batches are being analyzed, try again later.", out);
+            out.write("}\n");
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * Method analyzing all documents of a request and writing their summaries.
+     * @param request servlet request
+     * @param response servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    private void processBatch(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        Batch batch = new Batch(response.getWriter(), analysisThreads * DOCUMENTS_PER_THREAD);
+        try {
+            String contentType = request.getContentType();
+            if(contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")){
+                for(Part part : request.getParts()){
+                    String filename = part.getSubmittedFileName();
+                    if(filename == null || batch.isAborted()){
+                        continue;
+                    }
+                    if(isArchive(part.getContentType(), filename)){
+                        try(InputStream stream = part.getInputStream()){
+                            readArchive(stream, filename, batch);
+                        }
+                    }else{
+                        batch.submit(filename, part.getContentType(), part::getInputStream);
+                    }
+                }
+            }else{
+                readArchive(request.getInputStream(), "", batch);
+            }
+        }catch(IOException exception){
+            batch.write(AnalysisSummary.failed("", "Reading of request failed: " + exception.getMessage(), 0));
+        }finally{
+            batch.finish();
+        }
+    }
+
+    /**
+     * Method checking whether a part of request is a ZIP archive.
+     * @param contentType Content type of the part, may be null.
+     * @param filename Name of the file sent as the part.
+     * @return True if the part is an archive, false otherwise.
+     */
+    static boolean isArchive(String contentType, String filename){
+        return (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("zip"))
+                || filename.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    /**
+     * Method checking whether a stream begins with signature of a ZIP archive.
+     * The stream is reset to its beginning afterwards.
+     * @param stream Checked stream.
+     * @return True if the stream begins with signature of an archive, false otherwise.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    static boolean isZipArchive(BufferedInputStream stream) throws IOException{
+        byte[] signature = new byte[ZIP_ENTRY_SIGNATURE.length];
+        stream.mark(signature.length);
+        int read = stream.readNBytes(signature, 0, signature.length);
+        stream.reset();
+        return read == signature.length
+                && (Arrays.equals(signature, ZIP_ENTRY_SIGNATURE) || Arrays.equals(signature, EMPTY_ZIP_SIGNATURE));
+    }
+
+    /**
+     * Method decompressing entries of a ZIP archive one by one and submitting
+     * them for analysis. An entry larger than the limit is reported as failed,
+     * so is the whole stream when it is not an archive.
+     * @param stream Stream of the archive.
+     * @param name Name of the archive reported when it is not an archive, empty for body of the request.
+     * @param batch Batch the entries belong to.
+     * @throws IOException Thrown when the archive cannot be read.
+     */
+    private void readArchive(InputStream stream, String name, Batch batch) throws IOException{
+        BufferedInputStream buffered = new BufferedInputStream(stream);
+        if(!isZipArchive(buffered)){
+            batch.write(AnalysisSummary.failed(name, "Not a ZIP archive - send documents as parts "
+                    + "of a multipart request or as a ZIP archive", 0));
+            return;
+        }
+        ZipInputStream archive = new ZipInputStream(buffered);
+        ZipEntry entry;
+        while((entry = archive.getNextEntry()) != null && !batch.isAborted()){
+            if(entry.isDirectory()){
+                continue;
+            }
+            byte[] contents = readEntry(archive, maxEntryBytes);
+            if(contents == null){
+                batch.write(AnalysisSummary.failed(entry.getName(), "Entry larger than " + maxEntryBytes + " bytes", 0));
+            }else{
+                batch.submit(entry.getName(), null, () -> new ByteArrayInputStream(contents));
+            }
+        }
+    }
+
+    /**
+     * Method reading decompressed contents of current entry of an archive.
+     * @param archive Archive positioned at the entry.
+     * @param maxBytes Maximal size of the entry in bytes.
+     * @return Contents of the entry or null if it is larger than the limit.
+     * @throws IOException Thrown when the archive cannot be read.
+     */
+    static byte[] readEntry(ZipInputStream archive, int maxBytes) throws IOException{
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while((read = archive.read(buffer)) > 0){
+            if(contents.size() + read > maxBytes){
+                return null;
+            }
+            contents.write(buffer, 0, read);
+        }
+        return contents.toByteArray();
+    }
+
+    /**
+     * Class keeping state of a single batch request.
+     */
+    private final class Batch {
+
+        /**
+         * Constructor.
+         * @param out Writer of the response.
+         * @param maxWaiting Maximal number of documents submitted but not analyzed yet.
+         */
+        private Batch(PrintWriter out, int maxWaiting){
+            this.out = out;
+            this.maxWaiting = maxWaiting;
+            this.waiting = new Semaphore(maxWaiting);
+        }
+
+        /**
+         * Writer of the response.
+         */
+        private final PrintWriter out;
+
+        /**
+         * Maximal number of documents submitted but not analyzed yet.
+         */
+        private final int maxWaiting;
+
+        /**
+         * Permits for documents submitted but not analyzed yet.
+         */
+        private final Semaphore waiting;
+
+        /**
+         * Time of beginning of the batch in nanoseconds.
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * Number of documents.
+         */
+        private long files = 0;
+
+        /**
+         * Number of documents which could not be analyzed.
+         */
+        private long failed = 0;
+
+        /**
+         * Number of errors in all documents.
+         */
+        private long errors = 0;
+
+        /**
+         * Flag set when the response cannot be written, e.g. the client disconnected.
+         */
+        private volatile boolean aborted = false;
+
+        /**
+         * Getter telling whether the batch has been aborted.
+         * @return True if the response cannot be written, false otherwise.
+         */
+        private boolean isAborted(){return this.aborted;}
+
+        /**
+         * Method submitting a document for analysis. It waits while too many
+         * documents of the batch are waiting for the pool.
+         * @param name Name of the document.
+         * @param contentType Content type of the document, may be null.
+         * @param source Source of stream of document contents.
+         */
+        private void submit(String name, String contentType, Receiver.StreamSource source){
+            try {
+                waiting.acquire();
+            }catch(InterruptedException exception){
+                Thread.currentThread().interrupt();
+                aborted = true;
+                return;
+            }
+            try {
+                analysisPool.execute(() -> {
+                    try {
+                        write(analyze(name, contentType, source));
+                    }finally{
+                        waiting.release();
+                    }
+                });
+            }catch(RejectedExecutionException exception){
+                waiting.release();
+                write(AnalysisSummary.failed(name, "Server is shutting down", 0));
+            }
+        }
+
+        /**
+         * Method analyzing a document.
+         * @param name Name of the document.
+         * @param contentType Content type of the document, may be null.
+         * @param source Source of stream of document contents.
+         * @return Summary of the document.
+         */
+        private AnalysisSummary analyze(String name, String contentType, Receiver.StreamSource source){
+            long begin = System.nanoTime();
+            try(InputStream stream = source.open()){
+                Receiver receiver = new Receiver(new FileManager());
+                receiver.proceedDocumentGivenAsStream(stream, contentType, name);
+                return new AnalysisSummary(name, receiver.getAnalysis(), true, System.nanoTime() - begin);
+            }catch(EmptyFileException | IOException | RuntimeException exception){
+                String message = exception.getMessage() != null ? exception.getMessage() : exception.toString();
+                return AnalysisSummary.failed(name, message, System.nanoTime() - begin);
+            }
+        }
+
+        /**
+         * Method writing summary of a document and sending it to the client at once.
+         * @param summary Summary of the document.
+         */
+        private void write(AnalysisSummary summary){
+            synchronized(this){
+                files++;
+                if(summary.getFailure() != null){
+                    failed++;
+                }
+                errors += summary.getErrorCount();
+                if(aborted){
+                    return;
+                }
+                try {
+                    summary.writeJson(out);
+                }catch(IOException exception){
+                    aborted = true;
+                }
+                out.flush();
+                aborted |= out.checkError();
+            }
+        }
+
+        /**
+         * Method waiting for all submitted documents and writing totals of the batch.
+         */
+        private void finish(){
+            waiting.acquireUninterruptibly(maxWaiting);
+            synchronized(this){
+                if(aborted){
+                    return;
+                }
+                try {
+                    AnalysisSummary.writeTotalsJson(files, failed, errors, System.nanoTime() - start, out);
+                }catch(IOException exception){
+                    aborted = true;
+                }
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package controller;
+
+import model.EmptyFileException;
+import model.FileManager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class analyzing documents from the command line, without a servlet
+ * container and database, e.g. in build pipelines. Documents are given as
+ * paths of files or directories, glob patterns or "-" for standard input,
+ * which is also read when no document is given. Directories and patterns
+ * are expanded to HTML documents sorted by path. Documents are analyzed on
+ * a fixed number of threads and a summary of every document is written to
+ * standard output as a line of JSON as soon as it is analyzed, followed by
+ * a line with totals. Only classes of the model and summaries of analyses
+ * are loaded, so the start is fast.
+ * <p>
+ * Exit status is 0 when no errors were found, 1 when some document has
+ * errors and 2 when some document could not be analyzed or arguments
+ * are invalid.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class CommandLineAnalyzer {
+
+    /**
+     * Private constructor.
+     * @param threads Number of threads analyzing documents.
+     * @param writeCorrected Flag set when corrected documents should be written next to the originals.
+     * @param withPositions Flag set when positions of errors should be written.
+     * @param out Writer summaries are written to.
+     */
+    private CommandLineAnalyzer(int threads, boolean writeCorrected, boolean withPositions, Writer out){
+        this.threads = threads;
+        this.writeCorrected = writeCorrected;
+        this.withPositions = withPositions;
+        this.out = out;
+    }
+
+    /**
+     * Name standing for standard input.
+     */
+    private static final String STANDARD_INPUT = "-";
+
+    /**
+     * Infix inserted before extension of corrected documents.
+     */
+    static final String CORRECTED_INFIX = ".corrected";
+
+    /**
+     * Characters which make an argument a glob pattern.
+     */
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    /**
+     * Exit status when no errors were found.
+     */
+    static final int EXIT_CLEAN = 0;
+
+    /**
+     * Exit status when some document has errors.
+     */
+    static final int EXIT_ERRORS = 1;
+
+    /**
+     * Exit status when some document could not be analyzed or arguments are invalid.
+     */
+    static final int EXIT_FAILURE = 2;
+
+    /**
+     * Usage written for invalid arguments and option --help.
+     */
+    private static final String USAGE = "Usage: java controller.CommandLineAnalyzer [options] [file|directory|glob|-]...\n"
+            + "  -t, --threads N        number of threads analyzing documents\n"
+            + "  -c, --write-corrected  write corrected documents next to the originals as NAME"
+            + CORRECTED_INFIX + ".EXT\n"
+            + "  -p, --positions        write lines and types of errors\n"
+            + "  -h, --help             write this usage\n";
+
+    /**
+     * Number of threads analyzing documents.
+     */
+    private final int threads;
+
+    /**
+     * Flag set when corrected documents should be written next to the originals.
+     */
+    private final boolean writeCorrected;
+
+    /**
+     * Flag set when positions of errors should be written.
+     */
+    private final boolean withPositions;
+
+    /**
+     * Writer summaries are written to.
+     */
+    private final Writer out;
+
+    /**
+     * Number of analyzed documents.
+     */
+    private long files;
+
+    /**
+     * Number of documents which could not be analyzed.
+     */
+    private long failed;
+
+    /**
+     * Number of errors in all documents.
+     */
+    private long errors;
+
+    /**
+     * Entry point of the command line.
+     * @param args Options followed by documents.
+     */
+    public static void main(String[] args){
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        System.exit(run(args, System.in, out, System.err));
+    }
+
+    /**
+     * Method analyzing documents given by arguments of the command line.
+     * @param args Options followed by documents.
+     * @param in Standard input.
+     * @param out Writer summaries are written to.
+     * @param err Stream usage and errors of arguments are written to.
+     * @return Exit status.
+     */
+    static int run(String[] args, InputStream in, Writer out, PrintStream err){
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean writeCorrected = false;
+        boolean withPositions = false;
+        List<String> documents = new ArrayList<>();
+        boolean options = true;
+        for(int i = 0; i < args.length; i++){
+            String arg = args[i];
+            if(options && (arg.equals("-t") || arg.equals("--threads"))){
+                try{
+                    threads = Integer.parseInt(args[++i].trim());
+                }catch(ArrayIndexOutOfBoundsException | NumberFormatException exception){
+                    threads = 0;
+                }
+                if(threads < 1){
+                    err.print("Option " + arg + " requires a positive number.\n" + USAGE);
+                    return EXIT_FAILURE;
+                }
+            }else if(options && (arg.equals("-c") || arg.equals("--write-corrected"))){
+                writeCorrected = true;
+            }else if(options && (arg.equals("-p") || arg.equals("--positions"))){
+                withPositions = true;
+            }else if(options && (arg.equals("-h") || arg.equals("--help"))){
+                err.print(USAGE);
+                return EXIT_CLEAN;
+            }else if(options && arg.equals("--")){
+                options = false;
+            }else if(options && arg.startsWith("-") && !arg.equals(STANDARD_INPUT)){
+                err.print("Unknown option " + arg + "\n" + USAGE);
+                return EXIT_FAILURE;
+            }else{
+                documents.add(arg);
+            }
+        }
+        if(documents.isEmpty()){
+            documents.add(STANDARD_INPUT);
+        }
+        CommandLineAnalyzer analyzer = new CommandLineAnalyzer(threads, writeCorrected, withPositions, out);
+        try{
+            return analyzer.analyze(documents, in);
+        }catch(IOException exception){
+            err.println(exception.getMessage() != null ? exception.getMessage() : exception.toString());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * Method analyzing documents and writing their summaries followed by totals.
+     * @param documents Paths, patterns or "-" for standard input.
+     * @param in Standard input.
+     * @return Exit status.
+     * @throws IOException Thrown when writing summaries fails.
+     */
+    private int analyze(List<String> documents, InputStream in) throws IOException{
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "command-line-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try{
+            List<Future<?>> tasks = new ArrayList<>();
+            for(String document : documents){
+                if(document.equals(STANDARD_INPUT)){
+                    tasks.add(executor.submit(() -> write(analyzeStream(in))));
+                    continue;
+                }
+                List<Path> paths;
+                try{
+                    paths = expand(document);
+                }catch(IOException | UncheckedIOException exception){
+                    write(AnalysisSummary.failed(document, describe(exception), 0));
+                    continue;
+                }
+                if(paths.isEmpty()){
+                    write(AnalysisSummary.failed(document, "No documents match " + document, 0));
+                }
+                for(Path path : paths){
+                    tasks.add(executor.submit(() -> write(analyzeFile(path))));
+                }
+            }
+            for(Future<?> task : tasks){
+                task.get();
+            }
+        }catch(InterruptedException exception){
+            Thread.currentThread().interrupt();
+            throw new IOException("Analysis interrupted", exception);
+        }catch(ExecutionException exception){
+            Throwable cause = exception.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }finally{
+            executor.shutdownNow();
+        }
+        AnalysisSummary.writeTotalsJson(files, failed, errors, System.nanoTime() - start, out);
+        out.flush();
+        return failed > 0 ? EXIT_FAILURE : errors > 0 ? EXIT_ERRORS : EXIT_CLEAN;
+    }
+
+    /**
+     * Method expanding a document argument to paths of files. A directory is
+     * expanded to HTML documents of its tree and a glob pattern to matching
+     * files. Corrected documents written by previous runs are skipped.
+     * @param document Path or glob pattern.
+     * @return Paths of files sorted by path.
+     * @throws IOException Thrown when a directory cannot be read.
+     */
+    static List<Path> expand(String document) throws IOException{
+        int glob = indexOfGlob(document);
+        if(glob < 0){
+            Path path = Paths.get(document);
+            if(!Files.isDirectory(path)){
+                List<Path> paths = new ArrayList<>();
+                paths.add(path);
+                return paths;
+            }
+            try(Stream<Path> tree = Files.walk(path)){
+                return tree.filter(file -> Files.isRegularFile(file) && DirectoryAnalyzer.isHtmlFile(file)
+                                && !isCorrected(file))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+        int separator = Math.max(document.lastIndexOf('/', glob), document.lastIndexOf(File.separatorChar, glob));
+        Path base = separator < 0 ? Paths.get(".") : Paths.get(document.substring(0, separator + 1));
+        int depth = Integer.MAX_VALUE;
+        if(!document.contains("**")){
+            depth = 1;
+            for(int i = separator + 1; i < document.length(); i++){
+                char character = document.charAt(i);
+                if(character == '/' || character == File.separatorChar){
+                    depth++;
+                }
+            }
+        }
+        if(!Files.isDirectory(base)){
+            return new ArrayList<>();
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + document);
+        try(Stream<Path> tree = Files.walk(base, depth)){
+            return tree.map(file -> separator < 0 ? base.relativize(file) : file)
+                    .filter(file -> matcher.matches(file) && Files.isRegularFile(file) && !isCorrected(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Method finding the first glob character of an argument.
+     * @param document Path or glob pattern.
+     * @return Index of the character or -1 when the argument is a plain path.
+     */
+    private static int indexOfGlob(String document){
+        for(int i = 0; i < document.length(); i++){
+            if(GLOB_CHARACTERS.indexOf(document.charAt(i)) >= 0){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method checking whether a file is a corrected document written by this class.
+     * @param file Path of the file.
+     * @return True if name of the file contains the infix of corrected documents.
+     */
+    private static boolean isCorrected(Path file){
+        return String.valueOf(file.getFileName()).contains(CORRECTED_INFIX + ".");
+    }
+
+    /**
+     * Method creating path of corrected document next to the original,
+     * with infix inserted before the extension.
+     * @param file Path of the original document.
+     * @return Path of corrected document.
+     */
+    static Path correctedPath(Path file){
+        String name = String.valueOf(file.getFileName());
+        int extension = name.lastIndexOf('.');
+        String corrected = extension > 0
+                ? name.substring(0, extension) + CORRECTED_INFIX + name.substring(extension)
+                : name + CORRECTED_INFIX;
+        return file.resolveSibling(corrected);
+    }
+
+    /**
+     * Method analyzing a file and, if requested, writing the corrected document.
+     * @param file Path of the file.
+     * @return Summary of the document.
+     */
+    private AnalysisSummary analyzeFile(Path file){
+        long begin = System.nanoTime();
+        try{
+            Receiver receiver = new Receiver(new FileManager());
+            receiver.setFilePath(file.toString());
+            receiver.proceedDocument();
+            if(writeCorrected){
+                writeLines(receiver.getDocumentWithErrorsCorrected(), correctedPath(file));
+            }
+            return new AnalysisSummary(file.toString(), receiver.getAnalysis(), withPositions,
+                    System.nanoTime() - begin);
+        }catch(EmptyFileException | IOException | RuntimeException exception){
+            return AnalysisSummary.failed(file.toString(), describe(exception), System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Method analyzing standard input. Corrected document is not written,
+     * as there is no original to write it next to.
+     * @param in Standard input.
+     * @return Summary of the document.
+     */
+    private AnalysisSummary analyzeStream(InputStream in){
+        long begin = System.nanoTime();
+        try{
+            Receiver receiver = new Receiver(new FileManager());
+            receiver.proceedDocumentGivenAsStream(in, null, STANDARD_INPUT);
+            return new AnalysisSummary(STANDARD_INPUT, receiver.getAnalysis(), withPositions,
+                    System.nanoTime() - begin);
+        }catch(EmptyFileException | IOException | RuntimeException exception){
+            return AnalysisSummary.failed(STANDARD_INPUT, describe(exception), System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Method writing lines of a document to a file, in the encoding documents are read with.
+     * @param lines Lines of the document.
+     * @param file Path of the file.
+     * @throws IOException Thrown when the file cannot be written.
+     */
+    private static void writeLines(Stream<String> lines, Path file) throws IOException{
+        try(Writer writer = Files.newBufferedWriter(file, Charset.defaultCharset())){
+            Iterator<String> iterator = lines.iterator();
+            while(iterator.hasNext()){
+                writer.write(iterator.next());
+                writer.write('\n');
+            }
+        }catch(UncheckedIOException exception){
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Method describing a failure of analysis.
+     * @param exception Failure.
+     * @return Message of the failure or its description when it has no message.
+     */
+    private static String describe(Exception exception){
+        return exception.getMessage() != null ? exception.getMessage() : exception.toString();
+    }
+
+    /**
+     * Method writing a summary and counting it into totals. Summaries
+     * are written one at a time and flushed, so every line is complete.
+     * @param summary Summary of a document.
+     * @return Null, so the method may be submitted as a task returning a result.
+     * @throws IOException Thrown when writing fails.
+     */
+    private synchronized Void write(AnalysisSummary summary) throws IOException{
+        files++;
+        if(summary.getFailure() != null){
+            failed++;
+        }
+        errors += summary.getErrorCount();
+        summary.writeJson(out);
+        out.flush();
+        return null;
+    }
+}
@@ -0,0 +1,332 @@
+package controller;
+
+import model.EmptyFileException;
+import model.FileManager;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class analyzing all HTML documents of a directory tree, e.g. a whole
+ * build of a site. Every directory is listed by its own task of a
+ * {@link ForkJoinPool}, which forks tasks for its subdirectories and
+ * documents, so idle threads steal work wherever the tree is deep or
+ * documents are large. Documents are analyzed by {@link Receiver} one
+ * per task; only their summaries without positions of errors are kept,
+ * so memory does not grow with size of the documents. Symbolic links
+ * are not followed, neither to directories nor to documents. Only trees inside a given root
+ * directory are analyzed, and at most a given number of their files and
+ * directories is visited; the rest of a larger tree is neither listed nor analyzed.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class DirectoryAnalyzer {
+
+    /**
+     * Public constructor.
+     * @param pool Pool running the tasks.
+     * @param root Directory containing all analyzed trees.
+     * @param maxFiles Maximal number of files and directories visited in a tree.
+     */
+    public DirectoryAnalyzer(ForkJoinPool pool, Path root, int maxFiles){
+        this.pool = pool;
+        this.root = root.toAbsolutePath().normalize();
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Pool running the tasks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Directory containing all analyzed trees.
+     */
+    private final Path root;
+
+    /**
+     * Maximal number of files and directories visited in a tree.
+     */
+    private final int maxFiles;
+
+    /**
+     * Method checking whether a file is an HTML document, judging by its name.
+     * @param file Path of the file.
+     * @return True for names ending with .html or .htm, false otherwise.
+     */
+    public static boolean isHtmlFile(Path file){
+        String name = String.valueOf(file.getFileName()).toLowerCase(Locale.ROOT);
+        return name.endsWith(".html") || name.endsWith(".htm");
+    }
+
+    /**
+     * Method analyzing HTML documents of a directory tree, visiting at most
+     * the maximal number of its files and directories.
+     * @param directory Root directory of the tree.
+     * @return Report of the analysis.
+     * @throws AccessDeniedException Thrown when the directory is not inside the root directory.
+     * @throws IOException Thrown when the directory does not exist.
+     */
+    public Report analyze(Path directory) throws IOException{
+        Path tree = directory.toRealPath();
+        if(!tree.startsWith(root.toRealPath())){
+            throw new AccessDeniedException(directory.toString(), null, "not inside " + root);
+        }
+        long start = System.nanoTime();
+        ConcurrentLinkedQueue<AnalysisSummary> summaries = new ConcurrentLinkedQueue<>();
+        AtomicInteger files = new AtomicInteger();
+        pool.invoke(new DirectoryTask(tree, tree, summaries, files, maxFiles));
+        return new Report(new ArrayList<>(summaries), System.nanoTime() - start, files.get() > maxFiles);
+    }
+
+    /**
+     * Method analyzing a single document.
+     * @param file Path of the document.
+     * @param name Name under which the document is reported.
+     * @return Summary of the document.
+     */
+    static AnalysisSummary analyzeFile(Path file, String name){
+        long begin = System.nanoTime();
+        try {
+            Receiver receiver = new Receiver(new FileManager());
+            receiver.setFilePath(file.toString());
+            receiver.proceedDocument();
+            return new AnalysisSummary(name, receiver.getAnalysis(), false, System.nanoTime() - begin);
+        }catch(EmptyFileException | IOException | RuntimeException exception){
+            String message = exception.getMessage() != null ? exception.getMessage() : exception.toString();
+            return AnalysisSummary.failed(name, message, System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Task listing a directory and forking tasks for its contents.
+     */
+    private static final class DirectoryTask extends RecursiveAction {
+
+        /**
+         * Constructor.
+         * @param root Root directory of the tree.
+         * @param directory Listed directory.
+         * @param summaries Collected summaries of documents.
+         * @param files Number of files and directories visited in the tree so far.
+         * @param maxFiles Maximal number of files and directories visited in the tree.
+         */
+        private DirectoryTask(Path root, Path directory, ConcurrentLinkedQueue<AnalysisSummary> summaries,
+                              AtomicInteger files, int maxFiles){
+            this.root = root;
+            this.directory = directory;
+            this.summaries = summaries;
+            this.files = files;
+            this.maxFiles = maxFiles;
+        }
+
+        /**
+         * Root directory of the tree.
+         */
+        private final Path root;
+
+        /**
+         * Listed directory.
+         */
+        private final Path directory;
+
+        /**
+         * Collected summaries of documents.
+         */
+        private final ConcurrentLinkedQueue<AnalysisSummary> summaries;
+
+        /**
+         * Number of files and directories visited in the tree so far,
+         * exceeding the maximal number when some of them are not visited.
+         */
+        private final AtomicInteger files;
+
+        /**
+         * Maximal number of files and directories visited in the tree.
+         */
+        private final int maxFiles;
+
+        /**
+         * Method listing the directory, analyzing its documents and subdirectories,
+         * until the maximal number of visited files and directories is exceeded.
+         */
+        @Override
+        protected void compute(){
+            List<RecursiveAction> tasks = new ArrayList<>();
+            try(DirectoryStream<Path> entries = Files.newDirectoryStream(directory)){
+                for(Path entry : entries){
+                    if(files.incrementAndGet() > maxFiles){
+                        break;
+                    }
+                    if(Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)){
+                        tasks.add(new DirectoryTask(root, entry, summaries, files, maxFiles));
+                    }else if(isHtmlFile(entry) && Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)){
+                        tasks.add(new RecursiveAction(){
+                            @Override
+                            protected void compute(){
+                                summaries.add(analyzeFile(entry, root.relativize(entry).toString()));
+                            }
+                        });
+                    }
+                }
+            }catch(IOException | RuntimeException exception){
+                String message = exception.getMessage() != null ? exception.getMessage() : exception.toString();
+                summaries.add(AnalysisSummary.failed(root.relativize(directory).toString(), message, 0));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Class describing result of analysis of a directory tree.
+     */
+    public static final class Report {
+
+        /**
+         * Constructor sorting summaries of documents, the one with most errors
+         * first and documents which could not be analyzed last.
+         * @param summaries Summaries of documents.
+         * @param nanos Time of the analysis in nanoseconds.
+         * @param truncated Flag set when not all files and directories of the tree were visited.
+         */
+        Report(List<AnalysisSummary> summaries, long nanos, boolean truncated){
+            summaries.sort(Comparator.comparing((AnalysisSummary summary) -> summary.getFailure() != null)
+                    .thenComparing(Comparator.comparingInt(AnalysisSummary::getErrorCount).reversed())
+                    .thenComparing(AnalysisSummary::getName));
+            this.summaries = Collections.unmodifiableList(summaries);
+            this.nanos = nanos;
+            this.truncated = truncated;
+            int failedCount = 0;
+            long lineCount = 0;
+            long tagErrors = 0;
+            long bracketErrors = 0;
+            long lowercaseErrors = 0;
+            for(AnalysisSummary summary : summaries){
+                if(summary.getFailure() != null){
+                    failedCount++;
+                }
+                lineCount += summary.getLineCount();
+                tagErrors += summary.getNoMatchingTagErrors();
+                bracketErrors += summary.getNoMatchingBracketErrors();
+                lowercaseErrors += summary.getNoLowercaseTagErrors();
+            }
+            this.failed = failedCount;
+            this.lines = lineCount;
+            this.noEndingTagErrors = tagErrors;
+            this.noEndingBracketErrors = bracketErrors;
+            this.noLowercaseTagErrors = lowercaseErrors;
+        }
+
+        /**
+         * Summaries of documents, the one with most errors first.
+         */
+        private final List<AnalysisSummary> summaries;
+
+        /**
+         * Getter for summaries of documents, the one with most errors first
+         * and documents which could not be analyzed last.
+         * @return Unmodifiable list of summaries.
+         */
+        public List<AnalysisSummary> getSummaries(){return this.summaries;}
+
+        /**
+         * Time of the analysis in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Getter for time of the analysis.
+         * @return Time in nanoseconds.
+         */
+        public long getNanos(){return this.nanos;}
+
+        /**
+         * Flag set when not all files and directories of the tree were visited.
+         */
+        private final boolean truncated;
+
+        /**
+         * Getter for flag set when the tree has more files and directories
+         * than the maximal number of visited ones, so some documents may not be analyzed.
+         * @return True if not all of the tree was visited.
+         */
+        public boolean isTruncated(){return this.truncated;}
+
+        /**
+         * Number of documents which could not be analyzed.
+         */
+        private final int failed;
+
+        /**
+         * Getter for number of documents which could not be analyzed.
+         * @return Number of documents.
+         */
+        public int getFailed(){return this.failed;}
+
+        /**
+         * Number of lines of all documents.
+         */
+        private final long lines;
+
+        /**
+         * Getter for number of lines of all documents.
+         * @return Number of lines.
+         */
+        public long getLines(){return this.lines;}
+
+        /**
+         * Number of opening tags without ending tag in all documents.
+         */
+        private final long noEndingTagErrors;
+
+        /**
+         * Getter for number of opening tags without ending tag in all documents.
+         * @return Number of errors.
+         */
+        public long getNoMatchingTagErrors(){return this.noEndingTagErrors;}
+
+        /**
+         * Number of tags without ending bracket in all documents.
+         */
+        private final long noEndingBracketErrors;
+
+        /**
+         * Getter for number of tags without ending bracket in all documents.
+         * @return Number of errors.
+         */
+        public long getNoMatchingBracketErrors(){return this.noEndingBracketErrors;}
+
+        /**
+         * Number of tags not in lowercase in all documents.
+         */
+        private final long noLowercaseTagErrors;
+
+        /**
+         * Getter for number of tags not in lowercase in all documents.
+         * @return Number of errors.
+         */
+        public long getNoLowercaseTagErrors(){return this.noLowercaseTagErrors;}
+
+        /**
+         * Getter for number of errors of all types in all documents.
+         * @return Number of errors.
+         */
+        public long getErrorCount(){
+            return this.noEndingTagErrors + this.noEndingBracketErrors + this.noLowercaseTagErrors;
+        }
+    }
+}
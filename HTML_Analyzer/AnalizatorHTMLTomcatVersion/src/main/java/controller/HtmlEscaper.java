@@ -0,0 +1,76 @@
+package controller;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Class writing text escaped for HTML straight to a writer. It replaces
+ * characters &amp;, &lt;, &gt;, &quot; and &#39; with entities in a single
+ * pass, writing runs of characters that need no escaping at once, so no
+ * intermediate strings are created however long the text is.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class HtmlEscaper {
+
+    /**
+     * Private constructor - class contains only static methods.
+     */
+    private HtmlEscaper(){}
+
+    /**
+     * Method writing escaped text.
+     * @param text Text to be escaped.
+     * @param out Writer the escaped text is written to.
+     * @throws IOException Thrown when writing fails.
+     */
+    public static void escape(CharSequence text, Writer out) throws IOException{
+        int length = text.length();
+        int written = 0;
+        for(int i = 0; i < length; i++){
+            String entity = getEntity(text.charAt(i));
+            if(entity != null){
+                write(text, written, i, out);
+                out.write(entity);
+                written = i + 1;
+            }
+        }
+        write(text, written, length, out);
+    }
+
+    /**
+     * Method finding entity replacing a character.
+     * @param character Escaped character.
+     * @return Entity or null if the character needs no escaping.
+     */
+    private static String getEntity(char character){
+        switch(character){
+            case '&': return "&amp;";
+            case '<': return "&lt;";
+            case '>': return "&gt;";
+            case '"': return "&quot;";
+            case '\'': return "&#39;";
+            default: return null;
+        }
+    }
+
+    /**
+     * Method writing a part of text without escaping.
+     * @param text Written text.
+     * @param begin Index of first written character.
+     * @param end Index of character after the last written one.
+     * @param out Writer the text is written to.
+     * @throws IOException Thrown when writing fails.
+     */
+    private static void write(CharSequence text, int begin, int end, Writer out) throws IOException{
+        if(begin == end){
+            return;
+        }
+        if(text instanceof String){
+            out.write((String) text, begin, end - begin);
+        }else{
+            out.append(text, begin, end);
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package controller;
 
 import database.DatabaseManager;
+import database.OperationLog;
 import model.EmptyFileException;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.MultipartConfig;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.*;
 import java.io.*;
-import java.util.ArrayList;
+import java.net.URLEncoder;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * Main class of the servlet displaying current time, date and image. Site
@@ -18,28 +30,96 @@ import java.util.ArrayList;
  * @version 1.0
  * @since 4.0
  */
-@WebServlet("/myProcessDocumentServlet")
+@WebServlet(value = "/myProcessDocumentServlet", asyncSupported = true)
 @MultipartConfig
 public class ProcessDocumentServlet extends HttpServlet {
 
     /**
-     * Field for Receiver object - communication between servlets and logic.
+     * Object for managing database connection
+     * and CRUD operations.
      */
-    private controller.Receiver myReceiver;
+    private DatabaseManager databaseManager;
+
     /**
-     * Field for Analyzer object - main processing logic.
+     * Log writing history of operations in the background.
      */
-    private model.Analyzer myAnalyzer;
+    private OperationLog operationLog;
+
     /**
-     * Field for FileManager object - file reading.
+     * Default maximal number of history records waiting to be written.
      */
-    private model.FileManager myFileManager;
+    private static final int DEFAULT_LOG_CAPACITY = 10_000;
 
     /**
-     * Object for managing database connection
-     * and CRUD operations.
+     * Default maximal number of history records written in one batch.
      */
-    private DatabaseManager databaseManager;
+    private static final int DEFAULT_LOG_BATCH_SIZE = 100;
+
+    /**
+     * Default maximal time a history record waits to be written, in milliseconds.
+     */
+    private static final int DEFAULT_LOG_DELAY_MILLIS = 200;
+
+    /**
+     * Executor running analyses of documents, so that connector
+     * threads are not occupied by large documents.
+     */
+    private AnalysisExecutor analysisExecutor;
+
+    /**
+     * Cache of results of analyses of uploaded documents, shared by all requests.
+     */
+    private model.AnalysisCache analysisCache;
+
+    /**
+     * Analyzer keeping previous versions of uploaded documents, shared by all
+     * requests, but keyed by session and file name, so that a document is only
+     * compared with documents of the same name uploaded in the same session.
+     */
+    private model.IncrementalAnalyzer incrementalAnalyzer;
+
+    /**
+     * Analyzer of directory trees given as path, running on its own work-stealing pool,
+     * or null when analysis of directories is disabled.
+     */
+    private DirectoryAnalyzer directoryAnalyzer;
+
+    /**
+     * Pool of threads of the analyzer of directory trees, or null when analysis of directories is disabled.
+     */
+    private ForkJoinPool directoryPool;
+
+    /**
+     * Default limit of estimated total size of cached results, in bytes.
+     */
+    private static final int DEFAULT_CACHE_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Default maximal number of files and directories visited in an analyzed directory tree.
+     */
+    private static final int DEFAULT_MAX_DIRECTORY_FILES = 10_000;
+
+    /**
+     * Default number of rows of history written on one page.
+     */
+    private static final int HISTORY_PAGE_SIZE = 500;
+
+    /**
+     * Maximal number of rows of history written on one page.
+     */
+    private static final int MAX_HISTORY_PAGE_SIZE = 5000;
+
+    /**
+     * Number of seconds after which a client should retry
+     * a request rejected because of too many waiting requests.
+     */
+    private static final int RETRY_AFTER_SECONDS = 5;
+
+    /**
+     * Number of seconds given to accepted requests to finish
+     * when the servlet is destroyed.
+     */
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
 
     /**
      * Constant for operation name - showing raw document.
@@ -58,16 +138,93 @@ public class ProcessDocumentServlet extends HttpServlet {
 
     /**
      * Initializer for private fields, crucial for correct program working.
+     * Number of analyses running at once and number of waiting requests
+     * may be set with init parameters analysisThreads and analysisQueueCapacity,
+     * size of cache of results with analysisCacheBytes. The cache is available
+     * to other components as servlet context attribute "analysisCache".
+     * Total size of kept previous versions of uploaded documents, analyzed again
+     * only around changed lines, may be set with incrementalAnalysisBytes;
+     * versions used least recently are dropped first when it is exceeded.
+     * Directory trees given as path are analyzed only inside the directory set
+     * with init parameter directoryAnalysisRoot, visiting at most maxDirectoryFiles
+     * files and directories of a tree, with directoryAnalysisThreads threads;
+     * without the root, analysis of directories is disabled.
+     * Url of the database may be set with init parameter databaseUrl, embedded
+     * database is used by default. Databases of the embedded engine are kept in
+     * the directory set with init parameter databaseHome, by default in the
+     * temporary directory of the application. Size of pool of database connections may be
+     * set with init parameters minDatabaseConnections and maxDatabaseConnections.
+     * History of operations
+     * is written in batches of at most operationLogBatchSize records, at most
+     * operationLogDelayMillis after the operation, with at most operationLogCapacity
+     * records waiting. The log is available as servlet context attribute "operationLog".
+     * @throws ServletException if the database cannot be opened or brought up to date.
      */
     @Override
-    public void init() {
-        myAnalyzer = new model.Analyzer();
-        myFileManager = new model.FileManager();
-        myReceiver = new controller.Receiver(myAnalyzer, myFileManager);
+    public void init() throws ServletException {
         databaseManager = new DatabaseManager();
-        databaseManager.setupDriver();
-        databaseManager.setupConnection();
-        databaseManager.createDatabase();
+        String databaseUrl = getInitParameter("databaseUrl");
+        if(databaseUrl == null){
+            databaseUrl = DatabaseManager.DEFAULT_URL;
+        }
+        String databaseHome = getInitParameter("databaseHome");
+        if(databaseHome == null){
+            Object tempDir = getServletContext().getAttribute(ServletContext.TEMPDIR);
+            databaseHome = tempDir == null ? null : tempDir.toString();
+        }
+        try {
+            databaseManager.setupDriver(databaseUrl, databaseHome);
+            databaseManager.setupConnection(
+                    getIntInitParameter("minDatabaseConnections", DatabaseManager.DEFAULT_MIN_CONNECTIONS),
+                    getIntInitParameter("maxDatabaseConnections", DatabaseManager.DEFAULT_MAX_CONNECTIONS));
+            databaseManager.createDatabase();
+        }catch(SQLException exception){
+            databaseManager.close();
+            throw new ServletException("Database " + databaseUrl + " cannot be opened: " + exception.getMessage(),
+                    exception);
+        }
+        operationLog = new OperationLog(databaseManager,
+                getIntInitParameter("operationLogCapacity", DEFAULT_LOG_CAPACITY),
+                getIntInitParameter("operationLogBatchSize", DEFAULT_LOG_BATCH_SIZE),
+                getIntInitParameter("operationLogDelayMillis", DEFAULT_LOG_DELAY_MILLIS));
+        getServletContext().setAttribute("operationLog", operationLog);
+        int threads = getIntInitParameter("analysisThreads", Runtime.getRuntime().availableProcessors());
+        analysisExecutor = new AnalysisExecutor(threads, getIntInitParameter("analysisQueueCapacity", 4 * threads));
+        analysisCache = new model.AnalysisCache(getIntInitParameter("analysisCacheBytes", DEFAULT_CACHE_BYTES));
+        getServletContext().setAttribute("analysisCache", analysisCache);
+        incrementalAnalyzer = new model.IncrementalAnalyzer(
+                getIntInitParameter("incrementalAnalysisBytes", DEFAULT_CACHE_BYTES));
+        String directoryRoot = getInitParameter("directoryAnalysisRoot");
+        if(directoryRoot != null){
+            directoryPool = new ForkJoinPool(getIntInitParameter("directoryAnalysisThreads", threads));
+            directoryAnalyzer = new DirectoryAnalyzer(directoryPool, Paths.get(directoryRoot.trim()),
+                    getIntInitParameter("maxDirectoryFiles", DEFAULT_MAX_DIRECTORY_FILES));
+        }
+    }
+
+    /**
+     * Method stopping the executor of analyses, writing waiting history records
+     * and closing database connections when the servlet is taken out of service.
+     */
+    @Override
+    public void destroy() {
+        analysisExecutor.shutdown(SHUTDOWN_TIMEOUT_SECONDS);
+        if(directoryPool != null){
+            directoryPool.shutdownNow();
+        }
+        operationLog.close(SHUTDOWN_TIMEOUT_SECONDS);
+        databaseManager.close();
+    }
+
+    /**
+     * Method for reading a numeric init parameter.
+     * @param name Name of the parameter.
+     * @param defaultValue Value used when the parameter is missing.
+     * @return Value of the parameter.
+     */
+    private int getIntInitParameter(String name, int defaultValue){
+        String value = getInitParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
     }
 
     /**
@@ -81,7 +238,7 @@ public class ProcessDocumentServlet extends HttpServlet {
     @Override
     public void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        processRequest(request, response);
+        processAsynchronously(request, response);
     }
 
     /**
@@ -94,13 +251,53 @@ public class ProcessDocumentServlet extends HttpServlet {
      */
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        processRequest(req, resp);
+        processAsynchronously(req, resp);
+    }
+
+    /**
+     * Method handing request over to the executor of analyses and releasing
+     * the connector thread. When too many requests are already waiting,
+     * the request is rejected with status 503 and Retry-After header.
+     * Requests which cannot be processed asynchronously are processed at once.
+     * @param request servlet request
+     * @param response servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    private void processAsynchronously(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if(!request.isAsyncSupported()){
+            processRequest(request, response);
+            return;
+        }
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0L);
+        boolean accepted = analysisExecutor.submit(() -> {
+            try {
+                processRequest((HttpServletRequest) asyncContext.getRequest(),
+                        (HttpServletResponse) asyncContext.getResponse());
+            }catch(ServletException | IOException exception){
+                log("Processing of document failed", exception);
+            }finally{
+                asyncContext.complete();
+            }
+        });
+        if(!accepted){
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().println("<html>\n<body>\nToo many documents are being analyzed, try again later.\n</body>\n</html>");
+            asyncContext.complete();
+        }
     }
 
     /**
      * Method for processing request for analyzing HTML document.
      * It chooses the right way of obtaining input data depending on
-     * method used to send request.
+     * method used to send request. Every request is analyzed by its
+     * own receiver, so requests may be processed concurrently.
+     * The document is written to the response while it is rendered,
+     * so nothing but the analysis is kept in memory.
      * @param request servlet request
      * @param response servlet response
      * @throws ServletException if a servlet-specific error occurs
@@ -110,45 +307,89 @@ public class ProcessDocumentServlet extends HttpServlet {
                                 HttpServletResponse response)
             throws ServletException, IOException{
 
-        String documentOutput = "";
+        response.setContentType("text/html;charset=UTF-8");
         PrintWriter out = response.getWriter();
+        controller.Receiver myReceiver = new controller.Receiver(new model.FileManager());
+        out.print("<html>\n<body>\n<pre>\n<code>\n");
         try {
             if (request.getMethod().equals("POST")) {
-                documentOutput = processInputWhenStream(request, response);
+                processInputWhenStream(request, response, myReceiver, out);
             } else if (request.getMethod().equals("GET")) {
                 String pressedButton = request.getParameter("databaseButton");
                 if(pressedButton != null){
-                    ArrayList<String> files = databaseManager.executeSelectStatement("SELECT * FROM Files");
-                    documentOutput = "Performed operations: " + "\n" + "\n" +
-                            getDocumentOperationsHistory(files);
+                    out.print("Performed operations: " + "\n" + "\n");
+                    writeDocumentOperationsHistory(request, out);
                 }else {
-                    documentOutput = processInputWhenFilename(request, response);
+                    processInputWhenFilename(request, response, myReceiver, out);
                 }
             }
 
         }catch(Exception exception){
-            documentOutput = exception.getMessage();
+            HtmlEscaper.escape(String.valueOf(exception.getMessage()), out);
         }
-        out.print("<html>\n<body>\n<pre>\n<code>\n");
-        out.println(documentOutput);
+        out.println();
         out.println("</pre>\n</code>\n");
         out.println("</body>\n</html>");
     }
 
     /**
-     * Method for creating string with file names connected with
-     * names of operations performed on them.
-     * @param documents List of filenames.
-     * @return Formatted string.
+     * Method for writing a page of file names connected with
+     * names of operations performed on them. The page is read with
+     * a single query and written row by row as it is read. Parameter
+     * "after" holds the cursor of the page, that is ids of file and operation
+     * of the last row of previous page, and parameter "limit" its size.
+     * A link to the next page is written after a full page.
+     * @param request servlet request
+     * @param out Writer of the response.
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeDocumentOperationsHistory(HttpServletRequest request, Writer out) throws IOException{
+        long[] cursor = parseHistoryCursor(request.getParameter("after"));
+        int limit = HISTORY_PAGE_SIZE;
+        String limitParameter = request.getParameter("limit");
+        if(limitParameter != null){
+            limit = Math.max(1, Math.min(MAX_HISTORY_PAGE_SIZE, Integer.parseInt(limitParameter.trim())));
+        }
+        long[] writtenFileId = {0};
+        int rows = databaseManager.readOperationsHistory(cursor[0], cursor[1], limit, row -> {
+            long fileId = row.getLong("FileID");
+            if(fileId != writtenFileId[0]){
+                if(writtenFileId[0] != 0){
+                    out.write("\n" + "\n");
+                }
+                HtmlEscaper.escape(row.getString("FileName"), out);
+                out.write(" -> " + "\n");
+                writtenFileId[0] = fileId;
+            }
+            cursor[0] = fileId;
+            cursor[1] = row.getLong("OperationID");
+            String operation = row.getString("OperationName");
+            if(operation != null){
+                HtmlEscaper.escape(operation, out);
+                out.write('\n');
+            }
+        });
+        out.write("\n" + "\n");
+        if(rows == limit){
+            out.write("<a href=\"myProcessDocumentServlet?databaseButton=");
+            HtmlEscaper.escape(URLEncoder.encode(request.getParameter("databaseButton"), "UTF-8"), out);
+            out.write("&amp;limit=" + limit + "&amp;after=" + cursor[0] + "-" + cursor[1] + "\">Next page</a>\n");
+        }
+    }
+
+    /**
+     * Method for reading cursor of a page of history.
+     * @param after Ids of file and operation separated with a dash, or null for the first page.
+     * @return Array holding id of file and id of operation.
      */
-    private String getDocumentOperationsHistory(ArrayList<String> documents){
-        String toReturn = "";
-        for(String doc : documents){
-            toReturn += doc + " -> " + "\n"
-            + createDocumentOutputWithNewline(databaseManager.executeSelectStatement("SELECT Name FROM Operations "+
-                    "WHERE FileID IN (SELECT ID FROM FILES WHERE Name = '" + doc + "' )")) + "\n" + "\n";
+    private static long[] parseHistoryCursor(String after){
+        long[] cursor = new long[2];
+        if(after != null){
+            int separator = after.indexOf('-');
+            cursor[0] = Long.parseLong(after.substring(0, separator).trim());
+            cursor[1] = Long.parseLong(after.substring(separator + 1).trim());
         }
-        return toReturn;
+        return cursor;
     }
     /**
      * Method for reading document contents from stream provided by
@@ -157,59 +398,45 @@ public class ProcessDocumentServlet extends HttpServlet {
      * processing.
      * @param request servlet request
      * @param resp servlet response
+     * @param myReceiver Receiver processing the request.
+     * @param out Writer the processed HTML document is written to.
      * @throws ServletException if a servlet-specific error occurs
      * @throws IOException if an I/O error occurs
-     * @return String containing processed HTML document.
      */
-    private String processInputWhenStream(HttpServletRequest request, HttpServletResponse resp) throws IOException, ServletException, EmptyFileException {
+    private void processInputWhenStream(HttpServletRequest request, HttpServletResponse resp,
+                                        controller.Receiver myReceiver, Writer out)
+            throws IOException, ServletException, EmptyFileException {
+
+        Part filePart = request.getParts().iterator().next();
+        String filename = filePart.getSubmittedFileName();
+        myReceiver.proceedDocumentGivenAsStream(filePart::getInputStream, filePart.getContentType(),
+                filename, analysisCache, incrementalAnalyzer, request.getSession(true).getId() + '/' + filename);
+        manageCookies(request, resp, filename);
 
-        Object[] myParts = request.getParts().toArray();
-        InputStream fileStream = ((Part) myParts[0]).getInputStream();
-        String filename = ((Part) myParts[0]).getSubmittedFileName();
-        myReceiver.proceedDocumentGivenAsList(readFromRequest(fileStream), filename);
-        String documentOutput = "";
         String pressedButton = request.getParameter("processButton_1");
         if(pressedButton.equals("showRawDocumentButton")){
-            documentOutput = createDocumentOutput(myReceiver.getRawDocument());
+            writeDocumentOutput(myReceiver.getRawDocument(), out);
             insertFileAndOperation(filename,showRawDocument);
         }
         else if(pressedButton.equals("showWithErrorsNotifiedButton")){
-            documentOutput = createDocumentOutput(myReceiver.getDocumentWithErrorsNotification());
+            writeDocumentOutput(myReceiver.getDocumentWithErrorsNotification(), out);
             insertFileAndOperation(filename,showWithErrorsNotified);
         }
         else if(pressedButton.equals("showWithErrorsCorrectedButton")){
-            documentOutput = createDocumentOutput(myReceiver.getDocumentWithErrorsCorrected());
+            writeDocumentOutput(myReceiver.getDocumentWithErrorsCorrected(), out);
             insertFileAndOperation(filename,showWithErrorsCorrected);
         }
-
-        manageCookies(request, resp, filename);
-
-        return documentOutput;
     }
 
     /**
      * Method responsible for inserting file name
-     * and connected operation into database.
+     * and connected operation into database. The record is
+     * written in the background, so the request does not wait for it.
      * @param filename Name of file to be inserted.
      * @param operation Name of operation connected with file.
      */
     private void insertFileAndOperation(String filename, String operation){
-        ArrayList<String> filenames = databaseManager.executeSelectStatement("SELECT Name FROM Files");
-        long foreignKey = 0L;
-        boolean found = false;
-        for(String existingFilename : filenames){
-            if(existingFilename.equals(filename)){
-                found = true;
-                foreignKey =
-        Long.parseLong(databaseManager.executeSelectStatement("SELECT ID FROM Files WHERE Name = "+existingFilename).get(0));
-            }
-        }
-        if(!found){
-            foreignKey =
-                databaseManager.executeInsertStatement("INSERT INTO Files (Name) VALUES ('"+filename+"')");
-        }
-
-        databaseManager.executeInsertStatement("INSERT INTO Operations (Name, FileID) VALUES ('"+operation+"',"+foreignKey+")");
+        operationLog.record(filename, operation);
     }
 
     /**
@@ -217,14 +444,18 @@ public class ProcessDocumentServlet extends HttpServlet {
      * GET method. It enables processing file from client computer
      * to which absolute path has been given. It checks
      * which decision button has been pressed and performs appropriate
-     * processing.
+     * processing. When the path is a directory inside the configured root,
+     * HTML documents of its tree are analyzed in parallel and only a report
+     * of their errors is written.
      * @param request servlet request
      * @param resp servlet response
-     * @throws ServletException if a servlet-specific error occurs
+     * @param myReceiver Receiver processing the request.
+     * @param out Writer the processed HTML document is written to.
      * @throws IOException if an I/O error occurs
-     * @return String containing processed HTML document.
      */
-    private String processInputWhenFilename(HttpServletRequest request, HttpServletResponse resp) throws FileNotFoundException, EmptyFileException {
+    private void processInputWhenFilename(HttpServletRequest request, HttpServletResponse resp,
+                                          controller.Receiver myReceiver, Writer out)
+            throws IOException, EmptyFileException {
 
         HttpSession session = request.getSession(true);
         Object obj = session.getAttribute("absoluteValue");
@@ -243,21 +474,61 @@ public class ProcessDocumentServlet extends HttpServlet {
         }
         session.setAttribute("absoluteValue", filename);
 
+        Path path = Paths.get(filename);
+        if(Files.isDirectory(path)){
+            if(directoryAnalyzer == null){
+                throw new AccessDeniedException(filename, null, "analysis of directories is disabled");
+            }
+            writeDirectoryReport(directoryAnalyzer.analyze(path), out);
+            return;
+        }
         myReceiver.setFilePath(filename);
         myReceiver.proceedDocument();
-        String documentOutput = "";
         String pressedButton = request.getParameter("processButton_2");
         if(pressedButton.equals("showRawDocumentButton")){
-            documentOutput = createDocumentOutputWithNewline(myReceiver.getRawDocument());
+            writeDocumentOutputWithNewline(myReceiver.getRawDocument(), out);
         }
         else if(pressedButton.equals("showWithErrorsNotifiedButton")){
-            documentOutput = createDocumentOutputWithNewline(myReceiver.getDocumentWithErrorsNotification());
+            writeDocumentOutputWithNewline(myReceiver.getDocumentWithErrorsNotification(), out);
         }
         else if(pressedButton.equals("showWithErrorsCorrectedButton")){
-            documentOutput = createDocumentOutputWithNewline(myReceiver.getDocumentWithErrorsCorrected());
+            writeDocumentOutputWithNewline(myReceiver.getDocumentWithErrorsCorrected(), out);
         }
+    }
 
-        return documentOutput;
+    /**
+     * Method for writing report of analysis of a directory tree - totals
+     * followed by a line for every document, the one with most errors first.
+     * @param report Report of the analysis.
+     * @param out Writer of the response.
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeDirectoryReport(DirectoryAnalyzer.Report report, Writer out) throws IOException{
+        out.write("Analyzed " + report.getSummaries().size() + " documents ("
+                + report.getFailed() + " failed, " + report.getLines() + " lines) in "
+                + String.format(Locale.ROOT, "%.3f", report.getNanos() / 1e9) + " s\n");
+        out.write("Errors: " + report.getErrorCount() + " ("
+                + report.getNoMatchingTagErrors() + " without ending tag, "
+                + report.getNoMatchingBracketErrors() + " without ending bracket, "
+                + report.getNoLowercaseTagErrors() + " not in lowercase)\n");
+        if(report.isTruncated()){
+            out.write("The tree is too large, only part of it was analyzed\n");
+        }
+        out.write('\n');
+        for(AnalysisSummary summary : report.getSummaries()){
+            if(summary.getFailure() != null){
+                out.write("failed: ");
+                HtmlEscaper.escape(summary.getFailure(), out);
+            }else{
+                out.write(summary.getErrorCount() + " errors ("
+                        + summary.getNoMatchingTagErrors() + " tag, "
+                        + summary.getNoMatchingBracketErrors() + " bracket, "
+                        + summary.getNoLowercaseTagErrors() + " lowercase)");
+            }
+            out.write('\t');
+            HtmlEscaper.escape(summary.getName(), out);
+            out.write('\n');
+        }
     }
 
     /**
@@ -283,61 +554,33 @@ public class ProcessDocumentServlet extends HttpServlet {
     }
 
     /**
-     * Method for obtaining strings from input stream.
-     * @param stream Input stream from which contents are to be extracted.
-     * @return List of strings created from input stream.
-     * @throws ServletException if a servlet-specific error occurs
+     * Method for writing stream of strings so that it can be displayed
+     * in a HTML form. It assumes the strings already have appropriate
+     * newline character.
+     * @param myDocument Stream of strings to be written.
+     * @param out Writer the strings are written to.
      * @throws IOException if an I/O error occurs
      */
-    private ArrayList<String> readFromRequest(InputStream stream) throws ServletException, IOException{
-        byte[] insides = new byte[stream.available()];
-        stream.read(insides);
-        String inputString = new String(insides);
-        char[] inputCharacters = inputString.toCharArray();
-        ArrayList<String> myLines = new ArrayList<>();
-        String toAdd="";
-        for (char inputCharacter : inputCharacters) {
-            toAdd += inputCharacter;
-            if (inputCharacter == '\n') {
-                myLines.add(toAdd);
-                toAdd = "";
-            }
-        }
-        myLines.add(toAdd);
-        return myLines;
-    }
-
-    /**
-     * Method for converting list of strings into a single string
-     * which can be displayed in a HTML form. It assumes the strings
-     * already have appropriate newline character.
-     * @param myDocument List of strings to be merged.
-     * @return Created string.
-     */
-    private String createDocumentOutput(ArrayList<String> myDocument){
-        String outputString = "";
-
-        for(String line : myDocument){
-            outputString += line.replaceAll("<", "&lt;").replaceAll(">", "&gt;");
+    private void writeDocumentOutput(Stream<String> myDocument, Writer out) throws IOException{
+        Iterator<String> lines = myDocument.iterator();
+        while(lines.hasNext()){
+            HtmlEscaper.escape(lines.next(), out);
         }
-
-        return outputString;
     }
 
     /**
-     * Method for converting list of strings into a single string
-     * which can be displayed in a HTML form. It assumes the strings
-     * don't have appropriate newline character.
-     * @param myDocument List of strings to be merged.
-     * @return Created string.
+     * Method for writing stream of strings so that it can be displayed
+     * in a HTML form. It assumes the strings don't have appropriate
+     * newline character.
+     * @param myDocument Stream of strings to be written.
+     * @param out Writer the strings are written to.
+     * @throws IOException if an I/O error occurs
      */
-    private String createDocumentOutputWithNewline(ArrayList<String> myDocument){
-        String outputString = "";
-
-        for(String line : myDocument){
-            outputString += line.replaceAll("<", "&lt;").replaceAll(">", "&gt;") + "\n";
+    private void writeDocumentOutputWithNewline(Stream<String> myDocument, Writer out) throws IOException{
+        Iterator<String> lines = myDocument.iterator();
+        while(lines.hasNext()){
+            HtmlEscaper.escape(lines.next(), out);
+            out.write('\n');
         }
-
-        return outputString;
     }
 }
@@ -1,15 +1,31 @@
 package controller;
 
+import model.AnalysisCache;
 import model.Analyzer;
+import model.ContentKey;
+import model.DocumentAnalysis;
 import model.EmptyFileException;
+import model.EncodingDetector;
 import model.FileManager;
+import model.IncrementalAnalyzer;
+import model.LineReader;
+import model.ParallelAnalyzer;
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 /**
  * Class that realizes communication between user interface
- * and program logic.
+ * and program logic. A receiver serves a single request - it keeps
+ * result of analysis of one document, so it must not be shared
+ * between concurrently processed requests.
  * @author Piotr Gazda
  * @version 1.0
  * @since 4.0
@@ -18,19 +34,22 @@ public class Receiver {
 
     /**
      * Public constructor.
-     * @param myAnalyzer Analyzer object - program logic.
      * @param myFileManager FileManger object - file management system.
      */
-    public Receiver(Analyzer myAnalyzer, FileManager myFileManager){
-        this.analyzer = myAnalyzer;
+    public Receiver(FileManager myFileManager){
         this.fileManager = myFileManager;
     }
 
     /**
-     * Field containing object of class Analyzer which realizes main logic -
-     * - HTML processing.
+     * Field containing result of analysis of processed document.
      */
-    private final Analyzer analyzer;
+    private DocumentAnalysis analysis;
+
+    /**
+     * Getter for result of analysis of processed document.
+     * @return Result of the analysis or null if no document has been processed.
+     */
+    public DocumentAnalysis getAnalysis(){return this.analysis;}
 
     /**
      * Field containing object of class FileManager which realizes
@@ -43,7 +62,7 @@ public class Receiver {
      * @return Number of cases when there wasn't a matching bracket for a tag.
      */
     public int getNoMatchingBracketErrors() {
-        return analyzer.getNoMatchingBracketErrors();
+        return analysis.getNoMatchingBracketErrors();
     }
 
     /**
@@ -51,7 +70,7 @@ public class Receiver {
      * @return Number of cases when there wasn't a matching ending tag for an opening tag.
      */
     public int getNoMatchingTagErrors(){
-        return analyzer.getNoMatchingTagErrors();
+        return analysis.getNoMatchingTagErrors();
     }
 
     /**
@@ -59,7 +78,7 @@ public class Receiver {
      * @return Number of cases when the tag was not in lowercase.
      */
     public int getNoLowercaseTagErrors(){
-        return analyzer.getNoLowercaseTagErrors();
+        return analysis.getNoLowercaseTagErrors();
     }
 
     /**
@@ -72,20 +91,18 @@ public class Receiver {
 
     /**
      * Method that launches methods responsible for file
-     * reading as well as for analyzing it.
+     * reading as well as for analyzing it. Large documents
+     * are analyzed in chunks on many threads.
      * @throws EmptyFileException Thrown when input file is empty.
      * @throws FileNotFoundException Thrown when input file not found.
+     * @throws IOException Thrown when input file cannot be read.
      */
-    public void proceedDocument() throws EmptyFileException, FileNotFoundException {
+    public void proceedDocument() throws EmptyFileException, IOException {
         fileManager.readDocument();
         if(!fileManager.getDocumentLines().isEmpty()
                 && fileManager.isHTMLDocument()) {
 
-            this.analyzer.setAnalyzedLines(fileManager.getDocumentLines());
-
-            while(this.analyzer.getCurrentLineIndex() < this.analyzer.getAnalyzedLines().size()) {
-                this.analyzer.checkTagPair("", false);
-            }
+            this.analysis = ParallelAnalyzer.analyze(fileManager.getDocumentLines());
 
         }else{
             throw new EmptyFileException(this.fileManager.getFilePath());
@@ -103,33 +120,144 @@ public class Receiver {
             throw new EmptyFileException(filename);
         }
         else {
-            this.analyzer.setAnalyzedLines(myDocument);
+            this.analysis = Analyzer.analyze(myDocument);
+        }
+
+    }
+
+    /**
+     * Method for launching document processing given as a stream of bytes,
+     * e.g. an uploaded file. The document is decoded using its declared or
+     * detected encoding and analyzed line by line while it is being read,
+     * with a read buffer of constant size.
+     * @param stream Stream of document contents.
+     * @param contentType Content type of the document, may be null.
+     * @param filename Name of the document.
+     * @throws EmptyFileException Thrown when the document contains no characters.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    public void proceedDocumentGivenAsStream(InputStream stream, String contentType, String filename)
+            throws EmptyFileException, IOException {
+        try{
+            this.analysis = Analyzer.analyze(readLines(stream, contentType));
+        }catch(UncheckedIOException exception){
+            throw exception.getCause();
+        }
+        checkNotEmpty(filename);
+    }
+
+    /**
+     * Source of a stream of bytes which may be opened many times.
+     */
+    public interface StreamSource {
+
+        /**
+         * Method opening a new stream.
+         * @return Stream of bytes from the beginning.
+         * @throws IOException Thrown when the stream cannot be opened.
+         */
+        InputStream open() throws IOException;
+    }
 
-            while (this.analyzer.getCurrentLineIndex() < this.analyzer.getAnalyzedLines().size()) {
-                this.analyzer.checkTagPair("", false);
+    /**
+     * Method for launching document processing given as a stream of bytes,
+     * reusing result of analysis of the same contents if it is cached.
+     * The stream is read twice: first to compute the key of its contents,
+     * then to read its lines - and, if the result was not cached, to analyze
+     * them and cache the result. Empty documents are not cached. A document
+     * not cached is analyzed incrementally against the previous version kept
+     * under the same key.
+     * If there is no such version, the document is analyzed line by line
+     * while it is being read, with a read buffer of constant size; otherwise
+     * its lines are read first, to be compared with the previous version.
+     * @param source Source of stream of document contents.
+     * @param contentType Content type of the document, may be null.
+     * @param filename Name of the document.
+     * @param cache Cache of results of analyses.
+     * @param incrementalAnalyzer Analyzer keeping previous versions of documents.
+     * @param documentKey Key of previous version of the document kept by the
+     *                    incremental analyzer, e.g. its name within a session.
+     * @throws EmptyFileException Thrown when the document contains no characters.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    public void proceedDocumentGivenAsStream(StreamSource source, String contentType, String filename,
+                                             AnalysisCache cache, IncrementalAnalyzer incrementalAnalyzer,
+                                             String documentKey)
+            throws EmptyFileException, IOException {
+        ContentKey key;
+        try(InputStream stream = new BufferedInputStream(source.open())){
+            key = ContentKey.of(EncodingDetector.detect(contentType, stream), stream);
+        }
+        DocumentAnalysis cached = cache.get(key);
+        if(cached != null){
+            ArrayList<String> lines = new ArrayList<>();
+            try(InputStream stream = source.open()){
+                readLines(stream, contentType).forEachRemaining(lines::add);
+            }catch(UncheckedIOException exception){
+                throw exception.getCause();
+            }
+            this.analysis = cached.attach(lines);
+            if(this.analysis == null){
+                this.analysis = Analyzer.analyze(lines);
             }
+            checkNotEmpty(filename);
+        }else{
+            try(InputStream stream = source.open()){
+                this.analysis = incrementalAnalyzer.analyze(documentKey, readLines(stream, contentType));
+            }catch(UncheckedIOException exception){
+                throw exception.getCause();
+            }
+            checkNotEmpty(filename);
+            cache.put(key, this.analysis.detach());
         }
+    }
 
+    /**
+     * Method checking whether processed document contains any characters.
+     * @param filename Name of the document.
+     * @throws EmptyFileException Thrown when the document contains no characters.
+     */
+    private void checkNotEmpty(String filename) throws EmptyFileException {
+        if(this.analysis.getSource().size() == 1 && this.analysis.getSource().get(0).length() == 0){
+            throw new EmptyFileException(filename);
+        }
+    }
+
+    /**
+     * Method creating reader of lines of a stream, decoded using its
+     * declared or detected encoding.
+     * @param stream Stream of document contents.
+     * @param contentType Content type of the document, may be null.
+     * @return Reader of lines.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    private LineReader readLines(InputStream stream, String contentType) throws IOException {
+        InputStream bufferedStream = new BufferedInputStream(stream);
+        Charset charset = EncodingDetector.detect(contentType, bufferedStream);
+        return new LineReader(new InputStreamReader(bufferedStream, charset));
     }
+
     /**
      * Getter for document lines containing error notifications.
-     * @return List of strings containing error notifications.
+     * Lines are rendered from the original document when the stream is consumed.
+     * @return Stream of strings containing error notifications.
      */
-    public ArrayList<String> getDocumentWithErrorsNotification(){
-        return analyzer.getLinesWithErrorInfo();
+    public Stream<String> getDocumentWithErrorsNotification(){
+        return analysis.streamLinesWithErrorInfo();
     }
 
     /**
      * Getter for document lines with corrected errors.
-     * @return List of strings containing corrected errors.
+     * Lines are rendered from the original document when the stream is consumed.
+     * @return Stream of strings containing corrected errors.
      */
-    public ArrayList<String> getDocumentWithErrorsCorrected(){
-        return analyzer.getCorrectedLines();
+    public Stream<String> getDocumentWithErrorsCorrected(){
+        return analysis.streamCorrectedLines();
     }
 
     /**
      * Getter for document lines without any modification.
-     * @return List of strings containing raw document lines.
+     * @return Stream of strings containing raw document lines.
      */
-    public ArrayList<String> getRawDocument(){return analyzer.getAnalyzedLines();}
+    public Stream<String> getRawDocument(){return analysis.streamSource();}
 }
@@ -0,0 +1,494 @@
+package database;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight pool of database connections. At most maxSize connections
+ * are open at once and at least minSize of them are opened up front.
+ * A connection obtained from the pool is a handle whose close() method
+ * gives the underlying connection back instead of closing it, so callers
+ * may simply use try-with-resources. Uncommitted work is rolled back when
+ * a connection is given back. Idle connections are validated before being
+ * lent again and replaced when they are no longer usable. A connection
+ * kept longer than the leak threshold is reported once, together with
+ * the stack trace of the code which borrowed it.
+ * Every physical connection has its own {@link StatementCache}, so
+ * statements prepared through a handle are compiled once per connection
+ * and reused by later borrowers.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    /**
+     * Logger used for reporting leaked and broken connections.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Number of seconds given to a connection to prove it is still valid.
+     */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Maximal number of statements cached for a single connection.
+     */
+    private static final int STATEMENT_CACHE_CAPACITY = 32;
+
+    /**
+     * Public constructor opening the minimal number of connections.
+     * @param url JDBC url of the database.
+     * @param minSize Number of connections opened up front.
+     * @param maxSize Maximal number of connections open at once.
+     * @param borrowTimeoutMillis Time a caller waits for a free connection.
+     * @param leakThresholdMillis Time after which a borrowed connection is reported as leaked.
+     * @throws SQLException if a connection cannot be opened.
+     */
+    public ConnectionPool(String url, int minSize, int maxSize, long borrowTimeoutMillis,
+                          long leakThresholdMillis) throws SQLException{
+        if(minSize < 0 || maxSize < 1 || minSize > maxSize){
+            throw new IllegalArgumentException("Invalid pool size: " + minSize + ".." + maxSize);
+        }
+        this.url = url;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+        for(int i = 0; i < minSize; i++){
+            idle.push(DriverManager.getConnection(url));
+        }
+    }
+
+    /**
+     * JDBC url of the database.
+     */
+    private final String url;
+
+    /**
+     * Number of connections opened up front.
+     */
+    private final int minSize;
+
+    /**
+     * Maximal number of connections open at once.
+     */
+    private final int maxSize;
+
+    /**
+     * Time a caller waits for a free connection, in milliseconds.
+     */
+    private volatile long borrowTimeoutMillis;
+
+    /**
+     * Time after which a borrowed connection is reported as leaked, in milliseconds.
+     */
+    private final long leakThresholdMillis;
+
+    /**
+     * Permits for connections, one for every connection which may still be lent.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Open connections not lent at the moment, most recently used first.
+     */
+    private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Connections lent at the moment.
+     */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Caches of prepared statements of open physical connections,
+     * by identity of the connections.
+     */
+    private final Map<Connection, StatementCache> statementCaches =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Counter of statements compiled by the database.
+     */
+    private final AtomicLong statementsPrepared = new AtomicLong();
+
+    /**
+     * Counter of statements taken from statement caches.
+     */
+    private final AtomicLong statementsReused = new AtomicLong();
+
+    /**
+     * Flag set when the pool has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Writer set by {@link #setLogWriter(PrintWriter)}.
+     */
+    private volatile PrintWriter logWriter;
+
+    /**
+     * Getter for number of connections opened up front.
+     * @return Minimal size of the pool.
+     */
+    public int getMinSize(){return this.minSize;}
+
+    /**
+     * Getter for maximal number of connections open at once.
+     * @return Maximal size of the pool.
+     */
+    public int getMaxSize(){return this.maxSize;}
+
+    /**
+     * Getter for number of connections lent at the moment.
+     * @return Number of active connections.
+     */
+    public int getActiveCount(){return this.leases.size();}
+
+    /**
+     * Getter for number of open connections waiting to be lent.
+     * @return Number of idle connections.
+     */
+    public int getIdleCount(){return this.idle.size();}
+
+    /**
+     * Getter for number of statements compiled by the database.
+     * @return Number of prepared statements.
+     */
+    public long getStatementsPrepared(){return this.statementsPrepared.get();}
+
+    /**
+     * Getter for number of statements taken from statement caches
+     * instead of being compiled again.
+     * @return Number of reused statements.
+     */
+    public long getStatementsReused(){return this.statementsReused.get();}
+
+    /**
+     * Method lending a connection, waiting for a free one if all
+     * connections are lent. The connection should be closed as soon
+     * as the operation using it is finished.
+     * @return Handle of a pooled connection.
+     * @throws SQLException if the pool is closed, no connection has been
+     * given back in time or a new connection cannot be opened.
+     */
+    @Override
+    public Connection getConnection() throws SQLException{
+        if(closed){
+            throw new SQLException("Connection pool is closed");
+        }
+        reportLeaks();
+        try {
+            if(!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)){
+                throw new SQLTimeoutException("No connection available within " + borrowTimeoutMillis + " ms, "
+                        + leases.size() + " of " + maxSize + " in use");
+            }
+        }catch(InterruptedException exception){
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", exception);
+        }
+        try {
+            Lease lease = new Lease(obtainValidConnection());
+            leases.add(lease);
+            return lease.handle;
+        }catch(SQLException | RuntimeException exception){
+            permits.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Method taking a valid idle connection or opening a new one.
+     * @return Physical connection.
+     * @throws SQLException if a new connection cannot be opened.
+     */
+    private Connection obtainValidConnection() throws SQLException{
+        Connection connection;
+        while((connection = idle.poll()) != null){
+            if(isUsable(connection)){
+                return connection;
+            }
+            discard(connection);
+        }
+        return DriverManager.getConnection(url);
+    }
+
+    /**
+     * Method checking whether an idle connection may be lent again.
+     * @param connection Checked connection.
+     * @return True if the connection is valid, false otherwise.
+     */
+    private static boolean isUsable(Connection connection){
+        try {
+            return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        }catch(SQLException exception){
+            return false;
+        }
+    }
+
+    /**
+     * Method taking back a connection whose handle has been closed.
+     * @param lease Lease of the connection.
+     */
+    private void giveBack(Lease lease){
+        leases.remove(lease);
+        Connection connection = lease.connection;
+        try {
+            if(!connection.getAutoCommit()){
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if(closed){
+                discard(connection);
+            }else{
+                idle.push(connection);
+            }
+        }catch(SQLException exception){
+            LOGGER.log(Level.FINE, "Discarding broken connection", exception);
+            discard(connection);
+        }finally{
+            permits.release();
+        }
+    }
+
+    /**
+     * Method reporting connections kept longer than the leak threshold.
+     * Every lease is reported at most once.
+     */
+    private void reportLeaks(){
+        long now = System.currentTimeMillis();
+        for(Lease lease : leases){
+            if(!lease.reported && now - lease.borrowedAt > leakThresholdMillis){
+                lease.reported = true;
+                LOGGER.log(Level.WARNING, "Connection borrowed " + (now - lease.borrowedAt)
+                        + " ms ago has not been closed", lease.borrowedBy);
+            }
+        }
+    }
+
+    /**
+     * Method closing a connection together with its cached statements, ignoring errors.
+     * @param connection Connection to be closed.
+     */
+    private void discard(Connection connection){
+        StatementCache statements = statementCaches.remove(connection);
+        if(statements != null){
+            statements.close();
+        }
+        try {
+            connection.close();
+        }catch(SQLException exception){
+            LOGGER.log(Level.FINE, "Closing connection failed", exception);
+        }
+    }
+
+    /**
+     * Method closing the pool together with its idle connections.
+     * Connections lent at the moment are closed when they are given back.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        Connection connection;
+        while((connection = idle.poll()) != null){
+            discard(connection);
+        }
+    }
+
+    /**
+     * Method not supported - all connections use credentials given in the url.
+     * @param username Ignored.
+     * @param password Ignored.
+     * @return Never returns.
+     * @throws SQLException always.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException{
+        throw new SQLFeatureNotSupportedException("Credentials are given in the url of the pool");
+    }
+
+    /**
+     * Getter for log writer of the data source.
+     * @return Log writer or null.
+     */
+    @Override
+    public PrintWriter getLogWriter(){return this.logWriter;}
+
+    /**
+     * Setter for log writer of the data source. The pool itself
+     * reports through java.util.logging.
+     * @param out Log writer.
+     */
+    @Override
+    public void setLogWriter(PrintWriter out){this.logWriter = out;}
+
+    /**
+     * Method setting time a caller waits for a free connection.
+     * @param seconds Time in seconds.
+     */
+    @Override
+    public void setLoginTimeout(int seconds){this.borrowTimeoutMillis = seconds * 1000L;}
+
+    /**
+     * Getter for time a caller waits for a free connection.
+     * @return Time in seconds.
+     */
+    @Override
+    public int getLoginTimeout(){return (int) (this.borrowTimeoutMillis / 1000);}
+
+    /**
+     * Getter for logger used by the pool.
+     * @return Logger of the pool.
+     */
+    @Override
+    public Logger getParentLogger(){return LOGGER;}
+
+    /**
+     * Method returning the pool if it implements given interface.
+     * @param iface Requested interface.
+     * @param <T> Type of the interface.
+     * @return The pool.
+     * @throws SQLException if the pool does not implement the interface.
+     */
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException{
+        if(iface.isInstance(this)){
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    /**
+     * Method checking whether the pool implements given interface.
+     * @param iface Checked interface.
+     * @return True if the pool implements the interface, false otherwise.
+     */
+    @Override
+    public boolean isWrapperFor(Class<?> iface){return iface.isInstance(this);}
+
+    /**
+     * Class describing a connection lent by the pool. Its handle delegates
+     * all calls to the physical connection, except for close(), which gives
+     * the connection back to the pool. Calls made through a closed handle fail.
+     */
+    private final class Lease implements InvocationHandler {
+
+        /**
+         * Constructor creating handle of a connection.
+         * @param connection Physical connection being lent.
+         */
+        private Lease(Connection connection){
+            this.connection = connection;
+            this.statements = statementCaches.computeIfAbsent(connection, physical ->
+                    new StatementCache(physical, STATEMENT_CACHE_CAPACITY, statementsPrepared, statementsReused));
+            this.handle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        /**
+         * Physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Cache of statements prepared on the connection.
+         */
+        private final StatementCache statements;
+
+        /**
+         * Handle given to the borrower.
+         */
+        private final Connection handle;
+
+        /**
+         * Time the connection was lent at.
+         */
+        private final long borrowedAt = System.currentTimeMillis();
+
+        /**
+         * Stack trace of the borrower, reported if the connection leaks.
+         */
+        private final Throwable borrowedBy = new Throwable("Connection borrowed here");
+
+        /**
+         * Flag set when the lease has been reported as leaked.
+         */
+        private volatile boolean reported = false;
+
+        /**
+         * Flag set when the handle has been closed.
+         */
+        private boolean returned = false;
+
+        /**
+         * Method handling a call made through the handle.
+         * @param proxy Handle of the connection.
+         * @param method Called method.
+         * @param args Arguments of the call.
+         * @return Result of the call.
+         * @throws Throwable Exception thrown by the physical connection.
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable{
+            switch(method.getName()){
+                case "close":
+                    synchronized(this){
+                        if(!returned){
+                            returned = true;
+                            giveBack(this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    synchronized(this){
+                        return returned || connection.isClosed();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + connection;
+                default:
+                    synchronized(this){
+                        if(returned){
+                            throw new SQLException("Connection has been given back to the pool");
+                        }
+                    }
+                    if(method.getName().equals("prepareStatement")
+                            && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer))){
+                        return statements.prepare((String) args[0],
+                                args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1], handle);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    }catch(InvocationTargetException exception){
+                        throw exception.getCause();
+                    }
+            }
+        }
+    }
+}
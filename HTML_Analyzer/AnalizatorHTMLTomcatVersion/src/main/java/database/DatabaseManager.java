@@ -1,7 +1,13 @@
 package database;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Class responsible for dealing with database connection
@@ -13,85 +19,402 @@ import java.util.ArrayList;
 public class DatabaseManager {
 
     /**
-     * Field for database connection object.
+     * Default JDBC url of the database, run by the embedded engine
+     * inside the application and created on first use, in the system
+     * directory of the engine.
      */
-    private Connection connection;
+    public static final String DEFAULT_URL = "jdbc:derby:hpjp;create=true";
 
     /**
-     * String constant for SQL query responsible for creating
-     * table for persisting file names.
+     * System property holding the directory databases of the embedded engine
+     * with relative names are kept in.
      */
-    private final String createFilesTable = "CREATE TABLE Files " +
-                                            "(ID int NOT NULL GENERATED ALWAYS AS IDENTITY, " +
-                                            "Name varchar(255), " +
-                                            "PRIMARY KEY (ID))";
+    public static final String SYSTEM_HOME_PROPERTY = "derby.system.home";
 
     /**
-     * String constant for SQL query responsible for creating
-     * table for persisting operations names.
+     * Class name of driver of the embedded Derby engine.
      */
-    private final String createOperationsTable = "CREATE TABLE Operations " +
-            "(ID int NOT NULL GENERATED ALWAYS AS IDENTITY, " +
-            "Name varchar(255)," +
-            "FileID int, " +
-            "PRIMARY KEY (ID))";
+    private static final String EMBEDDED_DRIVER = "org.apache.derby.jdbc.EmbeddedDriver";
 
     /**
-     * Field for prepared statement object.
+     * Class name of driver connecting to Derby network server.
      */
-    private PreparedStatement preparedStatement;
+    private static final String CLIENT_DRIVER = "org.apache.derby.jdbc.ClientDriver";
 
     /**
-     * Method for setting up database driver.
+     * Prefix of urls of databases run by Derby network server.
      */
-    public void setupDriver(){
+    private static final String CLIENT_URL_PREFIX = "jdbc:derby://";
+
+    /**
+     * SQL state reported by embedded Derby when a database has been shut down.
+     */
+    private static final String DATABASE_SHUT_DOWN = "08006";
+
+    /**
+     * JDBC url of the database.
+     */
+    private String url = DEFAULT_URL;
+
+    /**
+     * Default number of connections opened up front.
+     */
+    public static final int DEFAULT_MIN_CONNECTIONS = 1;
+
+    /**
+     * Default maximal number of connections open at once.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 8;
+
+    /**
+     * Number of milliseconds an operation waits for a free connection.
+     */
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000L;
+
+    /**
+     * Number of milliseconds after which a borrowed connection is reported as leaked.
+     */
+    private static final long LEAK_THRESHOLD_MILLIS = 60_000L;
+
+    /**
+     * Pool lending a connection to every operation. Operations
+     * performed by concurrent requests use separate connections.
+     */
+    private ConnectionPool connectionPool;
+
+    /**
+     * SQL state reported when a unique index would contain duplicates.
+     */
+    private static final String DUPLICATE_KEY = "23505";
+
+    /**
+     * Parameterized query looking for id of file with given name.
+     */
+    private static final String selectFileId = "SELECT ID FROM Files WHERE Name = ?";
+
+    /**
+     * Parameterized statement inserting file with given name.
+     */
+    private static final String insertFile = "INSERT INTO Files (Name) VALUES (?)";
+
+    /**
+     * Parameterized statement inserting operation performed on file with given id.
+     */
+    private static final String insertOperation = "INSERT INTO Operations (Name, FileID) VALUES (?, ?)";
+
+    /**
+     * Parameterized query reading the rest of operations performed on a file,
+     * ordered by their ids. The rows are read straight from index on
+     * Operations (FileID, ID), starting right after given operation,
+     * so no rows of earlier pages are read and nothing is sorted.
+     */
+    private static final String selectFileHistoryPage = "SELECT o.FileID AS FileID, f.Name AS FileName, " +
+            "o.ID AS OperationID, o.Name AS OperationName " +
+            "FROM --DERBY-PROPERTIES joinOrder=FIXED\n" +
+            "Operations o --DERBY-PROPERTIES index=OperationsFileIndex\n" +
+            "JOIN Files f --DERBY-PROPERTIES joinStrategy=NESTEDLOOP\n" +
+            "ON f.ID = o.FileID " +
+            "WHERE o.FileID = ? AND o.ID > ? " +
+            "ORDER BY o.FileID, o.ID FETCH FIRST ? ROWS ONLY";
+
+    /**
+     * Parameterized query reading a page of history of files following given
+     * file, ordered by ids of files and operations. The rows are read straight
+     * from index on Operations (FileID, ID); the optimizer is told so, as it
+     * does not take the size of the page into account and would rather scan
+     * and sort both tables.
+     */
+    private static final String selectHistoryPage = "SELECT o.FileID AS FileID, f.Name AS FileName, " +
+            "o.ID AS OperationID, o.Name AS OperationName " +
+            "FROM --DERBY-PROPERTIES joinOrder=FIXED\n" +
+            "Operations o --DERBY-PROPERTIES index=OperationsFileIndex\n" +
+            "JOIN Files f --DERBY-PROPERTIES joinStrategy=NESTEDLOOP\n" +
+            "ON f.ID = o.FileID " +
+            "WHERE o.FileID > ? " +
+            "ORDER BY o.FileID, o.ID FETCH FIRST ? ROWS ONLY";
+
+    /**
+     * Interface of callback receiving rows of a query one by one.
+     */
+    public interface RowHandler {
+
+        /**
+         * Method handling current row of result set.
+         * @param row Result set positioned on the row.
+         * @throws SQLException if a column cannot be read.
+         * @throws IOException if the row cannot be written.
+         */
+        void handle(ResultSet row) throws SQLException, IOException;
+    }
+
+    /**
+     * Method for setting up the embedded database driver.
+     * @throws SQLException if the driver is not on the classpath.
+     */
+    public void setupDriver() throws SQLException{
+        setupDriver(DEFAULT_URL, null);
+    }
+
+    /**
+     * Method for setting up database driver matching given url - driver
+     * of Derby network server for urls beginning with "jdbc:derby://",
+     * driver of the embedded engine otherwise. Size of page cache of
+     * the embedded engine is set before the engine boots, unless it has
+     * been given as system property derby.storage.pageCacheSize. So is
+     * the directory databases with relative names are kept in, unless it
+     * has been given as system property derby.system.home; otherwise it
+     * would depend on the working directory of the server.
+     * @param databaseUrl JDBC url of the database.
+     * @param systemHome Directory of databases of the embedded engine, or null
+     * to keep the working directory.
+     * @throws SQLException if the driver is not on the classpath.
+     */
+    public void setupDriver(String databaseUrl, String systemHome) throws SQLException{
+        this.url = databaseUrl;
+        boolean embedded = !databaseUrl.startsWith(CLIENT_URL_PREFIX);
+        if(embedded && System.getProperty("derby.storage.pageCacheSize") == null){
+            System.setProperty("derby.storage.pageCacheSize", String.valueOf(SchemaMigration.PAGE_CACHE_SIZE));
+        }
+        if(embedded && systemHome != null && System.getProperty(SYSTEM_HOME_PROPERTY) == null){
+            System.setProperty(SYSTEM_HOME_PROPERTY, systemHome);
+        }
+        String driver = embedded ? EMBEDDED_DRIVER : CLIENT_DRIVER;
         try {
-            Class.forName("org.apache.derby.jdbc.ClientDriver");
+            Class.forName(driver);
         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
+            throw new SQLException("Database driver " + driver + " is not on the classpath", e);
         }
     }
 
     /**
-     * Method for setting up database connection.
+     * Method for setting up pool of database connections with default size.
+     * @throws SQLException if the connections cannot be opened.
+     */
+    public void setupConnection() throws SQLException{
+        setupConnection(DEFAULT_MIN_CONNECTIONS, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Method for setting up pool of database connections.
+     * @param minConnections Number of connections opened up front.
+     * @param maxConnections Maximal number of connections open at once.
+     * @throws SQLException if the connections cannot be opened.
      */
-    public void setupConnection(){
-        if(connection == null){
+    public void setupConnection(int minConnections, int maxConnections) throws SQLException{
+        if(connectionPool == null){
+            connectionPool = new ConnectionPool(url, minConnections, maxConnections,
+                    BORROW_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS);
+        }
+    }
+
+    /**
+     * Getter for pool of database connections.
+     * @return Connection pool or null if it has not been set up.
+     */
+    public ConnectionPool getConnectionPool(){return this.connectionPool;}
+
+    /**
+     * Method closing pool of database connections. An embedded database
+     * is shut down as well, so that it boots without recovery next time.
+     */
+    public void close(){
+        if(connectionPool != null){
+            connectionPool.close();
+        }
+        if(!url.startsWith(CLIENT_URL_PREFIX)){
+            int parameters = url.indexOf(';');
+            String databaseUrl = parameters < 0 ? url : url.substring(0, parameters);
             try {
-                connection = DriverManager.getConnection(
-                        "jdbc:derby:target/tmp/derby/hpjp");
+                DriverManager.getConnection(databaseUrl + ";shutdown=true").close();
             } catch (SQLException throwables) {
-                throwables.printStackTrace();
+                if(!DATABASE_SHUT_DOWN.equals(throwables.getSQLState())){
+                    throwables.printStackTrace();
+                }
             }
         }
     }
 
     /**
-     * Method for creating database tables.
+     * Method for bringing database schema up to date. Versions of
+     * the schema already applied are skipped, see {@link SchemaMigration}.
+     * @throws SQLException if the schema cannot be brought up to date.
      */
-    public void createDatabase(){
-       // dropTables();
-        Statement stmt = null;
-        try {
+    public void createDatabase() throws SQLException{
+        try (Connection connection = connectionPool.getConnection()) {
+            SchemaMigration.migrate(connection);
+        }
+    }
+
+    /**
+     * Method looking for id of file with given name and inserting
+     * the file if it has not been recorded yet. The file is looked up
+     * through the unique index on its name, so the cost does not depend
+     * on number of recorded files. When a concurrent request inserts
+     * the same name first, the unique index rejects the second insert
+     * and the id inserted by the other request is returned. Statements
+     * used by the method are prepared once per pooled connection.
+     * @param name Name of the file.
+     * @return Id of the file or 0 if the database could not be accessed.
+     */
+    public long findOrCreateFile(String name){
+        long fileId = 0;
+        try (Connection connection = connectionPool.getConnection()) {
+            fileId = findOrCreateFile(connection, name);
+        }catch(SQLException se){
+            se.printStackTrace();
+        }
+        return fileId;
+    }
+
+    /**
+     * Method looking for id of file with given name and inserting
+     * the file if it has not been recorded yet.
+     * @param connection Connection used for the statements.
+     * @param name Name of the file.
+     * @return Id of the file.
+     * @throws SQLException if a statement fails.
+     */
+    private long findOrCreateFile(Connection connection, String name) throws SQLException{
+        long fileId = selectFileId(connection, name);
+        if (fileId == 0) {
+            try (PreparedStatement insert = connection.prepareStatement(insertFile, Statement.RETURN_GENERATED_KEYS)) {
+                insert.setString(1, name);
+                insert.executeUpdate();
+                try (ResultSet resultSet = insert.getGeneratedKeys()) {
+                    if (resultSet.next()) {
+                        fileId = resultSet.getLong(1);
+                    }
+                }
+            } catch (SQLException se) {
+                if(!DUPLICATE_KEY.equals(se.getSQLState())){
+                    throw se;
+                }
+                fileId = selectFileId(connection, name);
+            }
+        }
+        return fileId;
+    }
+
+    /**
+     * Method looking for id of file with given name.
+     * @param connection Connection used for the query.
+     * @param name Name of the file.
+     * @return Id of the file or 0 if it has not been recorded.
+     * @throws SQLException if the query fails.
+     */
+    private long selectFileId(Connection connection, String name) throws SQLException{
+        try (PreparedStatement select = connection.prepareStatement(selectFileId)) {
+            select.setString(1, name);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Method recording operation performed on file.
+     * @param fileId Id of the file returned by {@link #findOrCreateFile(String)}.
+     * @param operation Name of the operation.
+     */
+    public void recordOperation(long fileId, String operation){
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement insert = connection.prepareStatement(insertOperation)) {
+            insert.setString(1, operation);
+            insert.setLong(2, fileId);
+            insert.executeUpdate();
+        }catch(SQLException se){
+            se.printStackTrace();
+        }
+    }
+
+    /**
+     * Method recording a batch of operations performed on files in a single
+     * transaction. Every file name is looked up once per batch and the
+     * operations are sent to the database as one JDBC batch. When the batch
+     * fails, it is rolled back and its operations are recorded again one per
+     * transaction, so that a single invalid record, e.g. with too long file
+     * name, does not drop operations of other records.
+     * @param records Operations to be recorded.
+     * @return Number of recorded operations.
+     */
+    public int recordOperations(List<OperationLog.Record> records){
+        try (Connection connection = connectionPool.getConnection()) {
             connection.setAutoCommit( false );
-            stmt = connection.createStatement();
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
+            try {
+                insertOperations(connection, records);
+                connection.commit();
+                return records.size();
+            }catch(SQLException se){
+                connection.rollback();
+                if(records.size() == 1){
+                    se.printStackTrace();
+                    return 0;
+                }
+            }
+            int recorded = 0;
+            for(OperationLog.Record record : records){
+                try {
+                    insertOperations(connection, Collections.singletonList(record));
+                    connection.commit();
+                    recorded++;
+                }catch(SQLException se){
+                    connection.rollback();
+                    se.printStackTrace();
+                }
+            }
+            return recorded;
+        }catch(SQLException se){
+            se.printStackTrace();
+            return 0;
         }
+    }
 
-        try {
-            stmt.executeUpdate(createFilesTable);
-            connection.commit();
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
+    /**
+     * Method inserting operations performed on files as one JDBC batch,
+     * without committing them.
+     * @param connection Connection used for the statements.
+     * @param records Operations to be inserted.
+     * @throws SQLException if a statement fails.
+     */
+    private void insertOperations(Connection connection, List<OperationLog.Record> records) throws SQLException{
+        Map<String, Long> fileIds = new HashMap<>();
+        try (PreparedStatement insert = connection.prepareStatement(insertOperation)) {
+            for(OperationLog.Record record : records){
+                Long fileId = fileIds.get(record.getFilename());
+                if(fileId == null){
+                    fileId = findOrCreateFile(connection, record.getFilename());
+                    fileIds.put(record.getFilename(), fileId);
+                }
+                insert.setString(1, record.getOperation());
+                insert.setLong(2, fileId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
         }
+    }
 
-        try {
-            stmt.executeUpdate(createOperationsTable);
-            connection.commit();
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
+    /**
+     * Method reading a page of history of operations performed on files.
+     * Every file is followed by its operations; files without operations
+     * are not given. Columns of the rows are FileID, FileName, OperationID
+     * and OperationName. The page is read with two range scans of index
+     * on Operations (FileID, ID) - the rest of operations of the file of
+     * the cursor first, then operations of following files - so its cost
+     * depends on the size of the page only, not on its position.
+     * @param afterFileId Id of file of the last row of previous page, 0 for the first page.
+     * @param afterOperationId Id of operation of the last row of previous page, 0 for the first page.
+     * @param limit Maximal number of rows.
+     * @param handler Callback receiving the rows.
+     * @return Number of rows read.
+     * @throws IOException if the handler fails to write a row.
+     */
+    public int readOperationsHistory(long afterFileId, long afterOperationId, int limit, RowHandler handler)
+            throws IOException{
+        int rows = executeSelectStatement(selectFileHistoryPage, handler, afterFileId, afterOperationId, limit);
+        if(rows < limit){
+            rows += executeSelectStatement(selectHistoryPage, handler, afterFileId, limit - rows);
         }
+        return rows;
     }
 
     /**
@@ -103,21 +426,17 @@ public class DatabaseManager {
 
         long generatedKey = 0;
 
-        try {
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement preparedStatement =
+                     connection.prepareStatement(statement, Statement.RETURN_GENERATED_KEYS)) {
             connection.setAutoCommit( false );
-            preparedStatement = connection.prepareStatement(statement, Statement.RETURN_GENERATED_KEYS);
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
-        }
-
-        try{
             preparedStatement.executeUpdate();
-            ResultSet resultSet = preparedStatement.getGeneratedKeys();
-            if (resultSet.next()) {
-                generatedKey = resultSet.getLong(1);
+            try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+                if (resultSet.next()) {
+                    generatedKey = resultSet.getLong(1);
+                }
             }
             connection.commit();
-            preparedStatement.close();
         }catch(SQLException se){
             se.printStackTrace();
         }
@@ -131,34 +450,43 @@ public class DatabaseManager {
      * @return List of strings returned by the query.
      */
     public ArrayList<String> executeSelectStatement(String statement){
-        ResultSet resultSet = null;
         ArrayList<String> toReturn = new ArrayList<String>();
         try {
-            connection.setAutoCommit( false );
-            preparedStatement = connection.prepareStatement(statement);
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
+            executeSelectStatement(statement, row -> toReturn.add(row.getString("Name")));
+        }catch(IOException exception){
+            throw new UncheckedIOException(exception);
         }
+        return toReturn;
+    }
 
-        try{
-            resultSet = preparedStatement.executeQuery();
-            try{
+    /**
+     * Method for executing select statement on the database, passing
+     * rows to a callback as they are read instead of collecting them.
+     * @param statement String containing SQL select statement to execute.
+     * @param handler Callback receiving the rows.
+     * @param parameters Values of parameters of the statement.
+     * @return Number of rows read.
+     * @throws IOException if the handler fails to write a row.
+     */
+    public int executeSelectStatement(String statement, RowHandler handler, Object... parameters)
+            throws IOException{
+        int rows = 0;
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+            for(int i = 0; i < parameters.length; i++){
+                preparedStatement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while(resultSet.next()){
-                    toReturn.add(resultSet.getString("Name"));
+                    handler.handle(resultSet);
+                    rows++;
                 }
-            } catch (SQLException throwables) {
-                throwables.printStackTrace();
-            }catch(NullPointerException exception){
-                toReturn.add("There weren't any operations performed !");
             }
-            connection.commit();
-            preparedStatement.close();
         }catch(SQLException se){
             //Handle errors for JDBC
             se.printStackTrace();
         }
-
-        return toReturn;
+        return rows;
     }
 
     /**
@@ -166,17 +494,11 @@ public class DatabaseManager {
      * * @param statement String containing SQL delete or update statement to execute.
      */
     public void executeDeleteOrUpdateStatement(String statement){
-        try {
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
             connection.setAutoCommit( false );
-            preparedStatement = connection.prepareStatement(statement);
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
-        }
-
-        try{
             preparedStatement.executeUpdate();
             connection.commit();
-            preparedStatement.close();
         }catch(SQLException se){
             se.printStackTrace();
         }
@@ -0,0 +1,316 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class recording operations performed on files in the background.
+ * Records are put into a bounded queue and written by a single writer
+ * thread in batches, committed when the batch is full or when the oldest
+ * record has waited for the given time, so requests do not wait for the
+ * database. When the queue is full, the record is written by the calling
+ * thread instead of being lost. Records still waiting are written when
+ * the log is closed.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class OperationLog implements AutoCloseable {
+
+    /**
+     * Public constructor starting the writer thread.
+     * @param databaseManager Manager writing batches of records.
+     * @param capacity Maximal number of records waiting to be written.
+     * @param batchSize Maximal number of records written in one batch.
+     * @param maxDelayMillis Maximal time a record waits for its batch to be written.
+     */
+    public OperationLog(DatabaseManager databaseManager, int capacity, int batchSize, long maxDelayMillis){
+        this.databaseManager = databaseManager;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.writer = new Thread(this::writeRecords, "operation-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Record put into the queue by close() to wake the writer thread
+     * waiting for records; it is never written.
+     */
+    private static final Record WAKE_UP = new Record(null, null);
+
+    /**
+     * Manager writing batches of records.
+     */
+    private final DatabaseManager databaseManager;
+
+    /**
+     * Records waiting to be written.
+     */
+    private final BlockingQueue<Record> queue;
+
+    /**
+     * Maximal number of records written in one batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Maximal time a record waits for its batch to be written, in milliseconds.
+     */
+    private final long maxDelayMillis;
+
+    /**
+     * Thread writing batches of records.
+     */
+    private final Thread writer;
+
+    /**
+     * Flag set when the log has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Number of batches written.
+     */
+    private long flushCount = 0;
+
+    /**
+     * Number of records written.
+     */
+    private long recordsWritten = 0;
+
+    /**
+     * Number of records which could not be written.
+     */
+    private long recordsFailed = 0;
+
+    /**
+     * Number of records written by calling threads because the queue was full.
+     */
+    private long overflows = 0;
+
+    /**
+     * Time of writing the last batch, in nanoseconds.
+     */
+    private long lastFlushNanos = 0;
+
+    /**
+     * Longest time of writing a batch, in nanoseconds.
+     */
+    private long maxFlushNanos = 0;
+
+    /**
+     * Total time of writing batches, in nanoseconds.
+     */
+    private long totalFlushNanos = 0;
+
+    /**
+     * Method recording operation performed on file. It returns at once
+     * unless the queue is full, in which case the record is written
+     * by the calling thread.
+     * @param filename Name of the file.
+     * @param operation Name of the operation.
+     */
+    public void record(String filename, String operation){
+        Record record = new Record(filename, operation);
+        if(closed || !queue.offer(record)){
+            List<Record> single = new ArrayList<>(1);
+            single.add(record);
+            synchronized(this){
+                overflows++;
+            }
+            flush(single);
+        }
+    }
+
+    /**
+     * Method run by the writer thread, collecting records into batches.
+     * A batch is written when it is full or when its first record has
+     * waited for the maximal delay.
+     */
+    private void writeRecords(){
+        List<Record> batch = new ArrayList<>(batchSize);
+        while(!closed || !queue.isEmpty()){
+            try {
+                Record first = queue.poll(maxDelayMillis, TimeUnit.MILLISECONDS);
+                if(first == null || first == WAKE_UP){
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while(batch.size() < batchSize){
+                    queue.drainTo(batch, batchSize - batch.size());
+                    batch.remove(WAKE_UP);
+                    long remaining = deadline - System.nanoTime();
+                    if(batch.size() >= batchSize || remaining <= 0 || closed){
+                        break;
+                    }
+                    Record next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if(next == null || next == WAKE_UP){
+                        break;
+                    }
+                    batch.add(next);
+                }
+            }catch(InterruptedException exception){
+                closed = true;
+            }
+            if(!batch.isEmpty()){
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Method writing a batch of records and updating statistics.
+     * @param batch Records to be written.
+     */
+    private void flush(List<Record> batch){
+        long start = System.nanoTime();
+        int written = databaseManager.recordOperations(batch);
+        long time = System.nanoTime() - start;
+        synchronized(this){
+            flushCount++;
+            recordsWritten += written;
+            recordsFailed += batch.size() - written;
+            lastFlushNanos = time;
+            maxFlushNanos = Math.max(maxFlushNanos, time);
+            totalFlushNanos += time;
+        }
+    }
+
+    /**
+     * Method stopping the writer thread after all waiting records are written.
+     * Records given later are written by calling threads. The writer thread
+     * is woken at once instead of waiting for the delay of its batch.
+     * @param timeoutSeconds Maximal time to wait for the writer thread.
+     */
+    public void close(int timeoutSeconds){
+        closed = true;
+        queue.offer(WAKE_UP);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        }catch(InterruptedException exception){
+            Thread.currentThread().interrupt();
+        }
+        if(!writer.isAlive()){
+            List<Record> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.remove(WAKE_UP);
+            if(!remaining.isEmpty()){
+                flush(remaining);
+            }
+        }
+    }
+
+    /**
+     * Method stopping the writer thread after all waiting records are written.
+     */
+    @Override
+    public void close(){
+        close(Integer.MAX_VALUE / 1000);
+    }
+
+    /**
+     * Getter for number of records waiting to be written.
+     * @return Depth of the queue.
+     */
+    public int getQueueDepth(){return this.queue.size();}
+
+    /**
+     * Getter for number of batches written.
+     * @return Number of flushes.
+     */
+    public synchronized long getFlushCount(){return this.flushCount;}
+
+    /**
+     * Getter for number of records written.
+     * @return Number of records.
+     */
+    public synchronized long getRecordsWritten(){return this.recordsWritten;}
+
+    /**
+     * Getter for number of records which could not be written.
+     * @return Number of records.
+     */
+    public synchronized long getRecordsFailed(){return this.recordsFailed;}
+
+    /**
+     * Getter for number of records written by calling threads because the queue was full.
+     * @return Number of records.
+     */
+    public synchronized long getOverflows(){return this.overflows;}
+
+    /**
+     * Getter for time of writing the last batch.
+     * @return Time in milliseconds.
+     */
+    public synchronized double getLastFlushMillis(){return this.lastFlushNanos / 1e6;}
+
+    /**
+     * Getter for longest time of writing a batch.
+     * @return Time in milliseconds.
+     */
+    public synchronized double getMaxFlushMillis(){return this.maxFlushNanos / 1e6;}
+
+    /**
+     * Getter for average time of writing a batch.
+     * @return Time in milliseconds.
+     */
+    public synchronized double getAverageFlushMillis(){
+        return this.flushCount == 0 ? 0 : this.totalFlushNanos / 1e6 / this.flushCount;
+    }
+
+    /**
+     * Method describing state of the log.
+     * @return Description of the log.
+     */
+    @Override
+    public synchronized String toString(){
+        return String.format("OperationLog[queued=%d, written=%d, failed=%d, overflows=%d, flushes=%d, "
+                        + "lastFlush=%.2f ms, averageFlush=%.2f ms, maxFlush=%.2f ms]", getQueueDepth(), recordsWritten,
+                recordsFailed, overflows, flushCount, getLastFlushMillis(), getAverageFlushMillis(), getMaxFlushMillis());
+    }
+
+    /**
+     * Class describing operation performed on file.
+     */
+    public static final class Record {
+
+        /**
+         * Constructor.
+         * @param filename Name of the file.
+         * @param operation Name of the operation.
+         */
+        private Record(String filename, String operation){
+            this.filename = filename;
+            this.operation = operation;
+        }
+
+        /**
+         * Name of the file.
+         */
+        private final String filename;
+
+        /**
+         * Name of the operation.
+         */
+        private final String operation;
+
+        /**
+         * Getter for name of the file.
+         * @return File name.
+         */
+        public String getFilename(){return this.filename;}
+
+        /**
+         * Getter for name of the operation.
+         * @return Operation name.
+         */
+        public String getOperation(){return this.operation;}
+    }
+}
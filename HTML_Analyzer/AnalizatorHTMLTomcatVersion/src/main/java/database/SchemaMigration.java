@@ -0,0 +1,151 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Class bringing database schema up to date. The schema is described
+ * as a list of numbered versions; the number of the last applied version
+ * is kept in table SchemaVersion, so every version is applied only once
+ * and starting the application against an up to date database costs
+ * a single query. Every version is applied in its own transaction.
+ * Tables and indexes created before versions were recorded are
+ * adopted instead of being reported as errors. Files recorded more than
+ * once before file names were unique are merged into the first of them
+ * before the unique index is created.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class SchemaMigration {
+
+    /**
+     * Private constructor - class contains only static methods.
+     */
+    private SchemaMigration(){}
+
+    /**
+     * Number of pages of page cache of the database.
+     */
+    public static final int PAGE_CACHE_SIZE = 4000;
+
+    /**
+     * SQL state reported by Derby when created table or index already exists.
+     */
+    private static final String ALREADY_EXISTS = "X0Y32";
+
+    /**
+     * Statement creating table holding number of the last applied version.
+     */
+    private static final String createVersionTable = "CREATE TABLE SchemaVersion " +
+            "(Version int NOT NULL, " +
+            "AppliedAt timestamp NOT NULL, " +
+            "PRIMARY KEY (Version))";
+
+    /**
+     * Condition matching files of the same name, also when both names are null,
+     * as the unique index treats null names as equal.
+     */
+    private static final String sameName = "(d.Name = f.Name OR (d.Name IS NULL AND f.Name IS NULL))";
+
+    /**
+     * Statements of consecutive versions of the schema, version 1 first.
+     */
+    private static final String[][] versions = {
+            {
+                    "CREATE TABLE Files " +
+                    "(ID int NOT NULL GENERATED ALWAYS AS IDENTITY, " +
+                    "Name varchar(255), " +
+                    "PRIMARY KEY (ID))",
+                    "CREATE TABLE Operations " +
+                    "(ID int NOT NULL GENERATED ALWAYS AS IDENTITY, " +
+                    "Name varchar(255)," +
+                    "FileID int, " +
+                    "PRIMARY KEY (ID))"
+            },
+            {
+                    "UPDATE Operations SET FileID = " +
+                    "(SELECT MIN(d.ID) FROM Files f JOIN Files d ON " + sameName + " WHERE f.ID = Operations.FileID) " +
+                    "WHERE FileID IN (SELECT f.ID FROM Files f JOIN Files d ON " + sameName + " AND d.ID < f.ID)",
+                    "DELETE FROM Files f WHERE EXISTS " +
+                    "(SELECT 1 FROM Files d WHERE " + sameName + " AND d.ID < f.ID)",
+                    "CREATE UNIQUE INDEX FilesNameIndex ON Files (Name)",
+                    "CREATE INDEX OperationsFileIndex ON Operations (FileID, ID)"
+            },
+            {
+                    "CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY('derby.storage.pageCacheSize', '"
+                            + PAGE_CACHE_SIZE + "')"
+            }
+    };
+
+    /**
+     * Getter for number of the newest version of the schema.
+     * @return Version number.
+     */
+    public static int getLatestVersion(){return versions.length;}
+
+    /**
+     * Method applying all versions of the schema newer than the version
+     * recorded in the database.
+     * @param connection Connection to the database.
+     * @return Number of version of the schema after migration.
+     * @throws SQLException if a version cannot be applied.
+     */
+    public static int migrate(Connection connection) throws SQLException{
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit( false );
+        try (Statement stmt = connection.createStatement()) {
+            executeIfAbsent(stmt, createVersionTable);
+            connection.commit();
+            int current = readVersion(stmt);
+            for(int version = current + 1; version <= versions.length; version++){
+                try {
+                    for(String ddl : versions[version - 1]){
+                        executeIfAbsent(stmt, ddl);
+                    }
+                    stmt.executeUpdate("INSERT INTO SchemaVersion (Version, AppliedAt) VALUES ("
+                            + version + ", CURRENT_TIMESTAMP)");
+                    connection.commit();
+                } catch (SQLException throwables) {
+                    connection.rollback();
+                    throw throwables;
+                }
+                current = version;
+            }
+            return current;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Method reading number of the last applied version.
+     * @param stmt Statement used for the query.
+     * @return Version number, 0 for a new database.
+     * @throws SQLException if the query fails.
+     */
+    private static int readVersion(Statement stmt) throws SQLException{
+        try (ResultSet resultSet = stmt.executeQuery("SELECT MAX(Version) FROM SchemaVersion")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Method executing a statement, ignoring error reported when created
+     * table or index already exists.
+     * @param stmt Statement used for execution.
+     * @param ddl Text of the statement.
+     * @throws SQLException if the statement fails for another reason.
+     */
+    private static void executeIfAbsent(Statement stmt, String ddl) throws SQLException{
+        try {
+            stmt.execute(ddl);
+        } catch (SQLException throwables) {
+            if(!ALREADY_EXISTS.equals(throwables.getSQLState())){
+                throw throwables;
+            }
+        }
+    }
+}
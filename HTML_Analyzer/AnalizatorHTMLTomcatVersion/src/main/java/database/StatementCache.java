@@ -0,0 +1,232 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class keeping statements prepared on a single physical connection, so
+ * that a statement with the same text is compiled by the database only
+ * once per connection. A borrower gets a handle of the cached statement;
+ * closing the handle clears batch and parameters of the statement and makes it
+ * available again instead of closing it. The least recently used statement
+ * is closed when the cache grows over its capacity. A statement still used
+ * by the borrower is never shared - preparing the same text again before
+ * closing the first handle prepares a separate, uncached statement.
+ * The cache is used by one borrower of the connection at a time.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class StatementCache {
+
+    /**
+     * Public constructor.
+     * @param connection Physical connection statements are prepared on.
+     * @param capacity Maximal number of cached statements.
+     * @param prepared Counter of statements compiled by the database.
+     * @param reused Counter of statements taken from the cache.
+     */
+    public StatementCache(Connection connection, int capacity, AtomicLong prepared, AtomicLong reused){
+        this.connection = connection;
+        this.prepared = prepared;
+        this.reused = reused;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest){
+                if(size() > capacity && !eldest.getValue().inUse){
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Physical connection statements are prepared on.
+     */
+    private final Connection connection;
+
+    /**
+     * Counter of statements compiled by the database.
+     */
+    private final AtomicLong prepared;
+
+    /**
+     * Counter of statements taken from the cache.
+     */
+    private final AtomicLong reused;
+
+    /**
+     * Cached statements by their kind and text, least recently used first.
+     */
+    private final Map<String, CachedStatement> statements;
+
+    /**
+     * Method returning a handle of prepared statement with given text,
+     * preparing the statement only if it is not cached yet.
+     * @param sql Text of the statement.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS.
+     * @param owner Connection returned by getConnection() of the statement.
+     * @return Handle of the statement.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection owner) throws SQLException{
+        String key = (autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? 'K' : 'N') + sql;
+        CachedStatement entry = statements.get(key);
+        if(entry != null && entry.inUse){
+            prepared.incrementAndGet();
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        if(entry == null || entry.statement.isClosed()){
+            entry = new CachedStatement(connection.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, entry);
+            prepared.incrementAndGet();
+        }else{
+            reused.incrementAndGet();
+        }
+        entry.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new Handle(entry, owner));
+    }
+
+    /**
+     * Getter for number of cached statements.
+     * @return Number of statements.
+     */
+    public int size(){return this.statements.size();}
+
+    /**
+     * Method closing all cached statements.
+     */
+    public void close(){
+        for(CachedStatement entry : statements.values()){
+            closeQuietly(entry.statement);
+        }
+        statements.clear();
+    }
+
+    /**
+     * Method closing a statement, ignoring errors.
+     * @param statement Statement to be closed.
+     */
+    private static void closeQuietly(Statement statement){
+        try {
+            statement.close();
+        }catch(SQLException ignored){
+            // the statement is dropped anyway
+        }
+    }
+
+    /**
+     * Class describing a cached statement.
+     */
+    private static final class CachedStatement {
+
+        /**
+         * Constructor.
+         * @param statement Prepared statement.
+         */
+        private CachedStatement(PreparedStatement statement){
+            this.statement = statement;
+        }
+
+        /**
+         * Prepared statement.
+         */
+        private final PreparedStatement statement;
+
+        /**
+         * Flag set while a handle of the statement is open.
+         */
+        private boolean inUse = false;
+    }
+
+    /**
+     * Class of handle given to the borrower. It delegates all calls to the
+     * cached statement, except for close(), which gives the statement back
+     * without commands of a batch left unexecuted, e.g. after a failure.
+     */
+    private static final class Handle implements InvocationHandler {
+
+        /**
+         * Constructor.
+         * @param entry Cached statement.
+         * @param owner Connection returned by getConnection().
+         */
+        private Handle(CachedStatement entry, Connection owner){
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        /**
+         * Cached statement.
+         */
+        private final CachedStatement entry;
+
+        /**
+         * Connection returned by getConnection().
+         */
+        private final Connection owner;
+
+        /**
+         * Flag set when the handle has been closed.
+         */
+        private boolean closed = false;
+
+        /**
+         * Method handling a call made through the handle.
+         * @param proxy Handle of the statement.
+         * @param method Called method.
+         * @param args Arguments of the call.
+         * @return Result of the call.
+         * @throws Throwable Exception thrown by the statement.
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable{
+            switch(method.getName()){
+                case "close":
+                    if(!closed){
+                        closed = true;
+                        try {
+                            entry.statement.clearBatch();
+                            entry.statement.clearParameters();
+                        }catch(SQLException exception){
+                            closeQuietly(entry.statement);
+                        }finally{
+                            entry.inUse = false;
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached " + entry.statement;
+                default:
+                    if(closed){
+                        throw new SQLException("Statement has been closed");
+                    }
+                    try {
+                        return method.invoke(entry.statement, args);
+                    }catch(InvocationTargetException exception){
+                        throw exception.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class keeping results of analyses of recently processed documents,
+ * so that the same document uploaded again needs not be analyzed. Only
+ * errors and corrections are kept, never the document itself. Results
+ * are evicted in least recently used order once their estimated total
+ * size exceeds given limit. Counters of hits, misses and evictions
+ * describe how useful the cache is. All methods are thread-safe.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class AnalysisCache {
+
+    /**
+     * Public constructor.
+     * @param maxBytes Limit of estimated total size of kept results.
+     */
+    public AnalysisCache(long maxBytes){
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Limit of estimated total size of kept results.
+     */
+    private final long maxBytes;
+
+    /**
+     * Getter for limit of estimated total size of kept results.
+     * @return Size in bytes.
+     */
+    public long getMaxBytes(){return this.maxBytes;}
+
+    /**
+     * Results in order of their use, the least recently used first.
+     */
+    private final LinkedHashMap<ContentKey, DocumentAnalysis> results = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Estimated total size of kept results.
+     */
+    private long bytes = 0;
+
+    /**
+     * Number of found results.
+     */
+    private long hits = 0;
+
+    /**
+     * Number of missing results.
+     */
+    private long misses = 0;
+
+    /**
+     * Number of evicted results.
+     */
+    private long evictions = 0;
+
+    /**
+     * Method finding result of analysis of a document.
+     * @param key Key of the document.
+     * @return Result without document lines or null if it is missing.
+     */
+    public synchronized DocumentAnalysis get(ContentKey key){
+        DocumentAnalysis result = results.get(key);
+        if(result == null){
+            misses++;
+        }else{
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Method keeping result of analysis of a document, evicting least
+     * recently used results if needed. A result larger than the limit
+     * is not kept.
+     * @param key Key of the document.
+     * @param result Result without document lines.
+     */
+    public synchronized void put(ContentKey key, DocumentAnalysis result){
+        long size = result.estimateSize();
+        if(size > maxBytes){
+            return;
+        }
+        DocumentAnalysis previous = results.put(key, result);
+        if(previous != null){
+            bytes -= previous.estimateSize();
+        }
+        bytes += size;
+        Iterator<Map.Entry<ContentKey, DocumentAnalysis>> eldest = results.entrySet().iterator();
+        while(bytes > maxBytes){
+            bytes -= eldest.next().getValue().estimateSize();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Getter for number of found results.
+     * @return Number of hits.
+     */
+    public synchronized long getHits(){return this.hits;}
+
+    /**
+     * Getter for number of missing results.
+     * @return Number of misses.
+     */
+    public synchronized long getMisses(){return this.misses;}
+
+    /**
+     * Getter for number of evicted results.
+     * @return Number of evictions.
+     */
+    public synchronized long getEvictions(){return this.evictions;}
+
+    /**
+     * Getter for estimated total size of kept results.
+     * @return Size in bytes.
+     */
+    public synchronized long getBytes(){return this.bytes;}
+
+    /**
+     * Getter for number of kept results.
+     * @return Number of results.
+     */
+    public synchronized int size(){return this.results.size();}
+
+    @Override
+    public synchronized String toString(){
+        return "Analysis cache: " + results.size() + " results, " + bytes + " of " + maxBytes + " bytes, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+    }
+}
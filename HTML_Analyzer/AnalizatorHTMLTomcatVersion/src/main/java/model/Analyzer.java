@@ -1,8 +1,12 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Class that realizes program logic. Its purpose
@@ -20,30 +24,97 @@ public class Analyzer {
      */
     public Analyzer(){
         this.analyzedLines = new ArrayList<String>();
-        this.linesWithErrorInfo = new ArrayList<String>();
-        this.correctedLines = new ArrayList<String>();
+        this.tokenizer = new Tokenizer(this.analyzedLines, this.tagNames);
+        this.recorder = new ErrorRecorder(this.analyzedLines, this.tagNames);
+        this.matcher = new TagMatcher(this.tagNames, this.openedTags, this.recorder, false);
     }
 
     /**
      * Getter for document contents with error info added.
+     * The error info is added to original lines on every call.
      * @return List of strings representing said content.
      */
-    public ArrayList<String> getLinesWithErrorInfo(){return this.linesWithErrorInfo;}
+    public ArrayList<String> getLinesWithErrorInfo(){
+        return streamLinesWithErrorInfo().collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Method rendering document contents with error info added,
+     * one line at a time.
+     * @return Stream of strings representing said content.
+     */
+    public Stream<String> streamLinesWithErrorInfo(){return this.recorder.getErrors().render(this.analyzedLines);}
 
     /**
      * Getter for document contents with errors corrected.
+     * The corrections are applied to original lines on every call.
      * @return List of strings representing said content.
      */
-    public ArrayList<String> getCorrectedLines(){return this.correctedLines;}
+    public ArrayList<String> getCorrectedLines(){return this.recorder.getCorrections().apply(this.analyzedLines);}
+
+    /**
+     * Method rendering document contents with errors corrected,
+     * one line at a time.
+     * @return Stream of strings representing said content.
+     */
+    public Stream<String> streamCorrectedLines(){return this.recorder.getCorrections().render(this.analyzedLines);}
 
     /**
      * Setter for original document lines.
      * @param newLines List of strings representing said content.
      */
-    public void setAnalyzedLines(ArrayList<String> newLines){
+    public void setAnalyzedLines(List<? extends CharSequence> newLines){
         this.analyzedLines = newLines;
-        this.linesWithErrorInfo = new ArrayList<String>(this.analyzedLines);
-        this.correctedLines = new ArrayList<String>(this.analyzedLines);
+        this.recorder = new ErrorRecorder(this.analyzedLines, this.tagNames);
+        this.matcher = new TagMatcher(this.tagNames, this.openedTags, this.recorder, false);
+        this.tokenizer = new Tokenizer(this.analyzedLines, this.tagNames);
+        this.openedTags.clear();
+        this.currentLineIndex = 0;
+        this.currentCharIndex = 0;
+    }
+
+    /**
+     * Method analyzing a whole document. Every call uses its own analyzer,
+     * so the method may be called by many threads at once.
+     * @param source Lines of the document. They must not be modified afterwards.
+     * @return Result of the analysis.
+     */
+    public static DocumentAnalysis analyze(List<? extends CharSequence> source){
+        Analyzer analyzer = new Analyzer();
+        analyzer.setAnalyzedLines(source);
+        analyzer.checkTagPair("", false);
+        return analyzer.recorder.toAnalysis();
+    }
+
+    /**
+     * Method analyzing a document while its lines are being read, e.g.
+     * from a request that is still being received. Lines are kept for
+     * rendering views of the document, but nothing else is buffered.
+     * Every call uses its own analyzer, so the method may be called
+     * by many threads at once.
+     * @param lines Source of lines of the document.
+     * @return Result of the analysis.
+     */
+    public static DocumentAnalysis analyze(Iterator<String> lines){
+        ArrayList<String> source = new ArrayList<>();
+        Iterator<String> recordedLines = new Iterator<String>() {
+            @Override
+            public boolean hasNext(){
+                return lines.hasNext();
+            }
+
+            @Override
+            public String next(){
+                String line = lines.next();
+                source.add(line);
+                return line;
+            }
+        };
+        Analyzer analyzer = new Analyzer();
+        analyzer.setAnalyzedLines(source);
+        analyzer.tokenizer = new Tokenizer(recordedLines, analyzer.tagNames);
+        analyzer.checkTagPair("", false);
+        return analyzer.recorder.toAnalysis();
     }
 
     /**
@@ -52,13 +123,7 @@ public class Analyzer {
      * @return If tag is correct return true else return false.
      */
     public boolean checkSingleOpeningTagIntegrity(String tag){
-        boolean toReturn = false;
-        if(tag != null) {
-            Pattern openingTagPattern = Pattern.compile("<[a-z].+>");
-            Matcher match = openingTagPattern.matcher(tag);
-            toReturn = match.matches();
-        }
-        return toReturn;
+        return TagClassifier.isOpeningTag(tag);
     }
 
     /**
@@ -67,33 +132,34 @@ public class Analyzer {
      * @return True if ending tag is correct, false otherwise.
      */
     public boolean checkSingleEndingTagIntegrity(String endingTag){
-        boolean toReturn = false;
-        if(endingTag != null) {
-            Pattern openingTagPattern = Pattern.compile("</[a-z].+>");
-            Matcher match = openingTagPattern.matcher(endingTag);
-            toReturn = match.matches();
-        }return toReturn;
+        return TagClassifier.isEndingTag(endingTag);
     }
     /**
      * The list for containing original document contents.
      */
-    private ArrayList<String> analyzedLines;
+    private List<? extends CharSequence> analyzedLines;
 
     /**
      * Getter for collection containing analyzed document.
      * @return Lines of analyzed document.
      */
-    public ArrayList<String> getAnalyzedLines(){return this.analyzedLines;}
+    public List<? extends CharSequence> getAnalyzedLines(){return this.analyzedLines;}
+
+    /**
+     * Recorder of errors and corrections of document contents.
+     */
+    private ErrorRecorder recorder;
 
     /**
-     * The list for containing document contents with error info added.
+     * Getter for errors found in analyzed document.
+     * @return List of errors.
      */
-    private ArrayList<String> linesWithErrorInfo;
+    public ErrorList getErrors(){return this.recorder.getErrors();}
 
     /**
-     * The list for containing document contents with errors corrected.
+     * Matcher of tags of analyzed document, recording its errors.
      */
-    private ArrayList<String> correctedLines;
+    private TagMatcher matcher;
 
     /**
      * Index representing current document line
@@ -114,391 +180,82 @@ public class Analyzer {
     private int currentCharIndex = 0;
 
     /**
-     * String containing HTML tag
-     * the program is currently analyzing.
+     * Tokenizer splitting analyzed document into tags.
+     */
+    private Tokenizer tokenizer;
+
+    /**
+     * Table of ids of tag names found in the document.
      */
-    private String currentOpeningTag = "";
+    private final TagNameTable tagNames = new TagNameTable();
 
     /**
-     * Counter of cases where a tag didn't
-     * have an ending bracket.
+     * Stack of ids of tags waiting for their pair.
      */
-    private int noEndingBracketErrors = 0;
+    private final TagStack openedTags = new TagStack();
+
+    /**
+     * Names of tags which never have an ending tag.
+     */
+    static final Set<String> VOID_ELEMENTS = Set.of("area", "base", "br", "col", "embed", "hr",
+            "img", "input", "link", "meta", "param", "source", "track", "wbr");
 
     /**
      * Getter for noMatchingBracketErrors
      * @return Number of cases when there wasn't a matching bracket for a tag.
      */
     public int getNoMatchingBracketErrors() {
-        return noEndingBracketErrors;
+        return recorder.getNoEndingBracketErrors();
     }
 
-    /**
-     * Counter of cases where an opening tag
-     * didn't have matching ending tag.
-     */
-    private int noEndingTagErrors = 0;
-
     /**
      * Getter for noMatchingTagErrors
      * @return Number of cases when there wasn't a matching ending tag for an opening tag.
      */
     public int getNoMatchingTagErrors(){
-        return noEndingTagErrors;
+        return recorder.getNoEndingTagErrors();
     }
 
-    /**
-     * Counter of cases where a tag wasn't in lowercase
-     */
-    private int noLowercaseTagErrors = 0;
-
     /**
      * Getter for noLowercaseTag
      * @return Number of cases when the tag was not in lowercase.
      */
     public int getNoLowercaseTagErrors(){
-        return noLowercaseTagErrors;
-    }
-
-    /**
-     * Enum for describing possible error types.
-     */
-    private enum ErrorType{NO_ENDING_TAG, NO_ENDING_BRACKET, NO_LOWERCASE_TAG}
-    /**
-     *
-     */
-    private void actualizeErrorsCount(ErrorType errorType){
-        switch (errorType) {
-            case NO_ENDING_BRACKET : noEndingBracketErrors++;
-            break;
-            case NO_ENDING_TAG : noEndingTagErrors++;
-            break;
-            case NO_LOWERCASE_TAG : noLowercaseTagErrors++;
-            break;
-        }
-    }
-    /**
-     * Method that identifies a string as an opening
-     * HTML tag.
-     * @param suspectedTag The string suspected of being an opening tag.
-     * @return True if the string turns out to be an opening tag, false otherwise.
-     */
-    private boolean identifyOpeningTag(String suspectedTag){
-        Pattern openedTag = Pattern.compile("<[^/].+");
-        Matcher matcher = openedTag.matcher(suspectedTag);
-        return matcher.matches();
-    }
-
-    /**
-     * Method that identifies a string as an closing
-     * HTML tag.
-     * @param suspectedTag The string suspected of being an closing tag.
-     * @return True if the string turns out to be an closing tag, false otherwise.
-     */
-    private boolean identifyEndingTag(String suspectedTag){
-        Pattern openedTag = Pattern.compile("</.+");
-        Matcher matcher = openedTag.matcher(suspectedTag);
-        return matcher.matches();
-    }
-
-    /**
-     * Method to check whether a HTML tag contains
-     * only of lowercase letters.
-     * @param tag String being the checked tag.
-     * @return True if the tag is all lowercase, false otherwise.
-     */
-    private boolean checkIfTagIsLowercase(String tag){
-        Pattern allLowercase = Pattern.compile("<[a-z]+>");
-        Matcher matcher = allLowercase.matcher(tag);
-        return matcher.matches();
-    }
-
-    /**
-     * Method to check whether a HTML ending tag contains
-     * only of lowercase letters.
-     * @param tag String being the checked ending tag.
-     * @return True if the ending tag is all lowercase, false otherwise.
-     */
-    private boolean checkIfEndingTagIsLowercase(String tag){
-        Pattern allLowercase = Pattern.compile("</[a-z]+>");
-        Matcher matcher = allLowercase.matcher(tag);
-        return matcher.matches();
+        return recorder.getNoLowercaseTagErrors();
     }
 
-
     /**
-     * Method that checks if an opening tag has ending bracket.
-     * It allows multiline tags, but a tag opening bracket before
-     * closing the last tag is considered a mistake. It also
-     * calls methods for putting error message in correct places
-     * (saving it to array for document lines with error information)
-     * and for putting missing tag (saving it to array for document lines with errors corrected).
-     * @return True if tag is totally correct, false otherwise.
-     */
-    private boolean checkOpeningTag(){
-
-        boolean toReturn = false;
-
-        boolean opened = false;
-
-        currentOpeningTag = "";
-
-        int beginTagIndex = currentCharIndex;
-
-        char currentCharacter;
-
-        while(!toReturn){
-
-            //dodaje element nienależący już do opening tag w przypadku niezamkniętego taga
-            currentCharacter = checkCurrentCharacter();
-            if(currentCharacter == '<'){
-                if(opened)
-                {
-                    manageNoEndingBracketError();
-                    return false;
-                }else{
-                    opened = true;
-                }
-            }
-            if(currentCharacter == '>'){
-                toReturn = true;
-            }
-
-            currentCharIndex++;
-        }
-
-        if(!checkIfTagIsLowercase(currentOpeningTag))
-        {
-            manageTagNotLowercaseError(beginTagIndex, currentCharIndex + 1);
-        }
-        return true;
-    }
-
-    /**
-     * Auxilliary method to check currentChar and currentCharacter value in context of analyzed lines value.
-     */
-    private char checkCurrentCharacter(){
-        char  currentCharacter = ' ';
-        if(currentCharIndex >= analyzedLines.get(currentLineIndex).length()){
-            currentCharIndex = 0;
-            currentLineIndex++;
-        }
-        if(currentCharIndex < analyzedLines.get(currentLineIndex).length())
-        {
-            currentCharacter = analyzedLines.get(currentLineIndex).charAt(currentCharIndex);
-            currentOpeningTag = currentOpeningTag + currentCharacter;
-        }
-        return currentCharacter;
-    }
-    /**
-     * Method to manage error of tag not in lowercase.
-     */
-    private void manageTagNotLowercaseError(int beginIdx, int endIdx){
-        this.linesWithErrorInfo.set(currentLineIndex, addErrorInfo(this.linesWithErrorInfo.get(currentLineIndex)));
-        toLowercase(currentLineIndex, currentCharIndex - currentOpeningTag.length(), currentCharIndex - 1);
-        actualizeErrorsCount(ErrorType.NO_LOWERCASE_TAG);
-    }
-    /**
-     * Method to annotate and correct error of lack of tag ending bracket.
-     */
-    private void manageNoEndingBracketError(){
-        this.linesWithErrorInfo.set(currentLineIndex, addErrorInfo(this.linesWithErrorInfo.get(currentLineIndex)));
-        insertEndBracket(currentLineIndex, currentCharIndex);
-        actualizeErrorsCount(ErrorType.NO_ENDING_BRACKET);
-    }
-
-    /**
-     * Method to insert a character at a specific index in string.
-     * @param str String to which the new character will be inserted.
-     * @param ch Character to be inserted.
-     * @param position Position at which the new character will be inserted.
-     * @return String with new character at correct position.
-     */
-    private String addChar(String str, char ch, int position) {
-        StringBuilder sb = new StringBuilder(str);
-        sb.insert(position, ch);
-        return sb.toString();
-    }
-    /**
-     * Method for checking if the ending tag is correct.
-     * It is less complicated than the method checking the opening tag,
-     * because it assumes the begging tag is already known.
-     * @param openingTag Opening tag to know how ending tag should look like.
-     * @return True if a correct ending tag has been identified, false otherwise.
-     */
-    private boolean checkEndingTag(String openingTag){
-        boolean toReturn = false;
-        String endingTag = "</" + openingTag.substring(1);
-        if(currentCharIndex + endingTag.length() <= analyzedLines.get(currentLineIndex).length()){
-            if(analyzedLines.get(currentLineIndex)
-                    .startsWith(endingTag, currentCharIndex)){
-                //how to get ending tag?
-                if(checkIfEndingTagIsLowercase(analyzedLines.get(currentLineIndex)
-                        .substring(currentCharIndex, currentCharIndex + endingTag.length()))) {
-                    currentCharIndex += endingTag.length();
-                    toReturn = true;
-                }
-            }
-        }
-        currentCharIndex ++;
-        return toReturn;
-    }
-
-
-    /**
-     * Recursive method which aims to determine if every opening tag is correctly
-     * paired with an ending tag. It iterates over text lines looking for
-     * closing tag for its given opening tag. If it encounters another opening
-     * tag it calls itself recursively.
-     * It also calls methods for putting error message in correct places
-     * (saving it to array for document lines with error information)
-     * and for putting missing tag (saving it to array for document lines with errors corrected).
+     * Method which aims to determine if every opening tag is correctly
+     * paired with an ending tag. It reads the rest of the document token
+     * by token, keeping tags waiting for their pair on a stack.
+     * An ending tag belonging to one of the tags deeper on the stack
+     * closes every tag above it with an error, while an ending tag not
+     * matching any of opened tags is skipped.
+     * Rules of matching are applied by {@link TagMatcher}, which records
+     * every error in the list of errors and its correction in the list of
+     * corrections. Errors of every tag are handled in order of their positions,
+     * so that errors and corrections are collected already sorted.
      * @param openingTag Opening tag that needs to be found a pair. If not given,
      *                   method iterates over document lines to find one.
      * @param isOpened Flag to annotate if method works after an opening tag
      *                 has been found (true) or it needs to find an opening tag (false).
      */
     public void checkTagPair(String openingTag, boolean isOpened){
-
-        boolean isOpeningTag = isOpened;
-        boolean iterate = true;
-        String myOpeningTag = openingTag;
-
-        while(iterate) {
-            if (currentCharIndex >= analyzedLines.get(currentLineIndex).length()) {
-                currentCharIndex = 0;
-                currentLineIndex++;
-            }
-            if (currentLineIndex < analyzedLines.size()) {
-                String currentPart = analyzedLines.get(currentLineIndex)
-                        .substring(currentCharIndex);
-
-                if (identifyOpeningTag(currentPart)) {
-                    if (checkOpeningTag()) {
-                        if (isOpeningTag) {
-                            checkTagPair(this.currentOpeningTag,true);
-                            //powrót do starej wartości currentOpeningTag
-                            this.currentOpeningTag = myOpeningTag;
-                        } else {
-                            isOpeningTag = true;
-                            myOpeningTag = this.currentOpeningTag;
-                        }
-                    } else {
-                        currentOpeningTag = "";
-                        this.linesWithErrorInfo.set(currentLineIndex, addErrorInfo(this.linesWithErrorInfo.get(currentLineIndex)));
-                        return;
-                    }
-                } else if (identifyEndingTag(currentPart)) {
-                    if(!currentOpeningTag.equals(""))
-                    {
-                        if (!checkEndingTag(myOpeningTag)) {
-                            manageNoEndingTagError(myOpeningTag);
-                        }
-                    }
-                    currentCharIndex++;
-                    return;
-                } else {
-                    currentCharIndex++;
-                }
-            }else{
-                iterate = false;
+        if(isOpened && openingTag != null){
+            Tokenizer tagTokenizer = new Tokenizer(Collections.singletonList(openingTag), tagNames);
+            if(tagTokenizer.advance() == Token.Type.OPENING_TAG){
+                openedTags.push(tagTokenizer.getNameId());
             }
         }
-        if(isOpeningTag)
-        {
-            manageNoEndingTagError(myOpeningTag);
-        }
-    }
 
-    /**
-     * Method to annotate and correct error of lack of ending tag.
-     * @param myOpeningTag Opening tag that lacks ending tag.
-     */
-    private void manageNoEndingTagError(String myOpeningTag){
-        if(currentLineIndex == this.analyzedLines.size())
-        {
-            this.linesWithErrorInfo.set(currentLineIndex - 1,
-                    addErrorInfo(this.linesWithErrorInfo.get(currentLineIndex - 1)));
-        }else{
-            this.linesWithErrorInfo.set(currentLineIndex,
-                    addErrorInfo(this.linesWithErrorInfo.get(currentLineIndex)));
+        Token.Type type;
+        while((type = tokenizer.advance()) != null){
+            this.currentLineIndex = tokenizer.getLine();
+            this.currentCharIndex = tokenizer.getColumn();
+            matcher.match(type, tokenizer, 0);
         }
-        insertEndingTag(currentLineIndex, currentCharIndex, myOpeningTag.substring(1, myOpeningTag.length() - 1));
-        actualizeErrorsCount(ErrorType.NO_ENDING_TAG);
-    }
-
-    /**
-     * Method adds asterisk to a line containing an error.
-     * @param erroneous Line containing an error.
-     * @return Line with added asterisk.
-     */
-
-    private String addErrorInfo (String erroneous){
-        return erroneous + " *";
-    }
-
-    /**
-     * Method converts string to lowercase.
-     * @param lineNumber Line number - index in string list.
-     * @param beginChar  Index of beginning of the string to be converted
-     * @param endChar   Index of ending of the string to be converted
-     */
-    private void toLowercase(int lineNumber, int beginChar, int endChar){
-        String beforeTag = this.analyzedLines.get(lineNumber).substring(0, beginChar);
-        String invalidTag = this.analyzedLines.get(lineNumber).substring(beginChar, endChar).toLowerCase();
-        String afterTag = this.analyzedLines.get(lineNumber).substring(endChar);
-        this.correctedLines.set(lineNumber, beforeTag + invalidTag + afterTag);
-    }
-
-    /**
-     * Method for inserting ending bracket.
-     * @param lineNumber Line number - index in string list.
-     * @param indexAfterEndBracket Index of character before which the ending bracket should be placed.
-     */
-    private void insertEndBracket(int lineNumber,int indexAfterEndBracket) {
-        String beforeBracket = "";
-        String afterBracket = "";
-
-        if (indexAfterEndBracket < 1 )
-        {
-            afterBracket = this.analyzedLines.get(lineNumber);
-        }
-        else if (indexAfterEndBracket > this.analyzedLines.get(currentLineIndex).length())
-        {
-            beforeBracket = this.analyzedLines.get(lineNumber).substring(0, indexAfterEndBracket - 1);
-        }
-        else
-        {
-            beforeBracket = this.analyzedLines.get(lineNumber).substring(0, indexAfterEndBracket - 1);
-            afterBracket = this.analyzedLines.get(lineNumber).substring(indexAfterEndBracket,
-                    this.analyzedLines.get(currentLineIndex).length());
-        }
-        this.correctedLines.set(lineNumber, beforeBracket + '>' + afterBracket);
-    }
-
-    /**
-     * Method for inserting ending tag.
-     * @param lineNumber Line number - index in string list.
-     * @param indexAfterEndTag Index of character before which the ending tag should be placed.
-     * @param tagName Opening tag name
-     */
-    private void insertEndingTag(int lineNumber,  int indexAfterEndTag, String tagName) {
-        String beforeTag = "";
-        String afterTag = "";
-        String newTag = "</" + tagName.toLowerCase() + ">";
-        if (currentLineIndex < analyzedLines.size()) {
-            if (indexAfterEndTag < 1) {
-                afterTag = this.analyzedLines.get(lineNumber);
-            } else if (indexAfterEndTag > this.analyzedLines.get(currentLineIndex).length()) {
-                beforeTag = this.analyzedLines.get(lineNumber).substring(0, indexAfterEndTag - 1);
-            } else {
-                beforeTag = this.analyzedLines.get(lineNumber).substring(0, indexAfterEndTag - 1);
-                afterTag = this.analyzedLines.get(lineNumber).substring(indexAfterEndTag,
-                        this.analyzedLines.get(currentLineIndex).length());
-            }
-            this.correctedLines.set(lineNumber, beforeTag + newTag + afterTag);
-        }
-        this.correctedLines.add(beforeTag + newTag + afterTag);
+        matcher.closeAll(this.analyzedLines.size());
+        this.currentLineIndex = this.analyzedLines.size();
+        this.currentCharIndex = 0;
     }
 }
-
@@ -0,0 +1,111 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Class identifying contents of a document by its length, a SHA-256 digest
+ * of its bytes and its encoding, so that results of analysis of the same
+ * document may be reused. Results are shared between all clients, so the
+ * digest must not let anyone craft a document with the key of another one.
+ * It is computed while the stream is read through a buffer of constant size.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class ContentKey {
+
+    /**
+     * Name of the algorithm of the digest, available in every Java platform.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Size of buffer for read bytes.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Constructor.
+     * @param charset Encoding of the document.
+     * @param length Number of bytes of the document.
+     * @param digest Digest of bytes of the document.
+     */
+    public ContentKey(Charset charset, long length, byte[] digest){
+        this.charset = charset;
+        this.length = length;
+        this.digest = digest.clone();
+    }
+
+    /**
+     * Encoding of the document.
+     */
+    private final Charset charset;
+
+    /**
+     * Number of bytes of the document.
+     */
+    private final long length;
+
+    /**
+     * Getter for number of bytes of the document.
+     * @return Length in bytes.
+     */
+    public long getLength(){return this.length;}
+
+    /**
+     * Digest of bytes of the document.
+     */
+    private final byte[] digest;
+
+    /**
+     * Getter for digest of bytes of the document.
+     * @return Copy of the digest.
+     */
+    public byte[] getDigest(){return this.digest.clone();}
+
+    /**
+     * Method reading the rest of a stream and creating its key.
+     * @param charset Encoding of the document.
+     * @param stream Stream of the document.
+     * @return Key of the document.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    public static ContentKey of(Charset charset, InputStream stream) throws IOException{
+        MessageDigest digest;
+        try{
+            digest = MessageDigest.getInstance(ALGORITHM);
+        }catch(NoSuchAlgorithmException exception){
+            throw new IllegalStateException(exception);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long length = 0;
+        int read;
+        while((read = stream.read(buffer)) >= 0){
+            digest.update(buffer, 0, read);
+            length += read;
+        }
+        return new ContentKey(charset, length, digest.digest());
+    }
+
+    @Override
+    public boolean equals(Object other){
+        if(this == other){
+            return true;
+        }
+        if(!(other instanceof ContentKey)){
+            return false;
+        }
+        ContentKey key = (ContentKey) other;
+        return length == key.length && Arrays.equals(digest, key.digest) && charset.equals(key.charset);
+    }
+
+    @Override
+    public int hashCode(){
+        return Arrays.hashCode(digest);
+    }
+}
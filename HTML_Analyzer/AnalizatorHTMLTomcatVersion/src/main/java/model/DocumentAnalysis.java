@@ -0,0 +1,207 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Class representing result of analysis of a single document - its
+ * original lines, errors found in it and their corrections. Objects of
+ * this class are never modified after being created by
+ * {@link Analyzer#analyze(List)}, so they may be read by many threads
+ * at once. Views of the document are rendered from the original lines
+ * whenever they are requested.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class DocumentAnalysis {
+
+    /**
+     * Constructor used by the analyzer.
+     * @param source Original document lines. They must not be modified afterwards.
+     * @param errors Errors found in the document.
+     * @param corrections Corrections of the document.
+     * @param noEndingBracketErrors Number of tags without ending bracket.
+     * @param noEndingTagErrors Number of opening tags without ending tag.
+     * @param noLowercaseTagErrors Number of tags not in lowercase.
+     */
+    DocumentAnalysis(List<? extends CharSequence> source, ErrorList errors, EditList corrections,
+                     int noEndingBracketErrors, int noEndingTagErrors, int noLowercaseTagErrors){
+        this.source = Collections.unmodifiableList(source);
+        this.lineCount = source.size();
+        this.lineLengths = new int[this.lineCount];
+        int index = 0;
+        for(CharSequence line : source){
+            this.lineLengths[index++] = line.length();
+        }
+        this.errors = errors;
+        this.corrections = corrections;
+        this.corrections.sort();
+        this.noEndingBracketErrors = noEndingBracketErrors;
+        this.noEndingTagErrors = noEndingTagErrors;
+        this.noLowercaseTagErrors = noLowercaseTagErrors;
+    }
+
+    /**
+     * Original document lines.
+     */
+    private final List<? extends CharSequence> source;
+
+    /**
+     * Getter for original document lines.
+     * @return Unmodifiable list of lines.
+     */
+    public List<? extends CharSequence> getSource(){return this.source;}
+
+    /**
+     * Number of lines of the document.
+     */
+    private final int lineCount;
+
+    /**
+     * Getter for number of lines of the document.
+     * @return Number of lines, also when the lines themselves are not kept.
+     */
+    public int getLineCount(){return this.lineCount;}
+
+    /**
+     * Lengths of lines of the document, kept to check lines given to {@link #attach(List)}.
+     */
+    private final int[] lineLengths;
+
+    /**
+     * Errors found in the document.
+     */
+    private final ErrorList errors;
+
+    /**
+     * Getter for number of errors found in the document.
+     * @return Number of errors.
+     */
+    public int getErrorCount(){return this.errors.size();}
+
+    /**
+     * Getter for index of line on which error is reported.
+     * @param index Index of the error.
+     * @return Line index.
+     */
+    public int getErrorLine(int index){return this.errors.getLine(index);}
+
+    /**
+     * Getter for type of error.
+     * @param index Index of the error.
+     * @return Error type.
+     */
+    public ErrorType getErrorType(int index){return this.errors.getType(index);}
+
+    /**
+     * Corrections of the document.
+     */
+    private final EditList corrections;
+
+    /**
+     * Number of tags without ending bracket.
+     */
+    private final int noEndingBracketErrors;
+
+    /**
+     * Getter for noMatchingBracketErrors
+     * @return Number of cases when there wasn't a matching bracket for a tag.
+     */
+    public int getNoMatchingBracketErrors(){return this.noEndingBracketErrors;}
+
+    /**
+     * Number of opening tags without ending tag.
+     */
+    private final int noEndingTagErrors;
+
+    /**
+     * Getter for noMatchingTagErrors
+     * @return Number of cases when there wasn't a matching ending tag for an opening tag.
+     */
+    public int getNoMatchingTagErrors(){return this.noEndingTagErrors;}
+
+    /**
+     * Number of tags not in lowercase.
+     */
+    private final int noLowercaseTagErrors;
+
+    /**
+     * Getter for noLowercaseTag
+     * @return Number of cases when the tag was not in lowercase.
+     */
+    public int getNoLowercaseTagErrors(){return this.noLowercaseTagErrors;}
+
+    /**
+     * Constructor of result sharing errors and corrections of another one.
+     * @param analysis Result whose errors and corrections are shared.
+     * @param source Document lines or an empty list.
+     */
+    private DocumentAnalysis(DocumentAnalysis analysis, List<? extends CharSequence> source){
+        this.source = Collections.unmodifiableList(source);
+        this.lineCount = analysis.lineCount;
+        this.lineLengths = analysis.lineLengths;
+        this.errors = analysis.errors;
+        this.corrections = analysis.corrections;
+        this.noEndingBracketErrors = analysis.noEndingBracketErrors;
+        this.noEndingTagErrors = analysis.noEndingTagErrors;
+        this.noLowercaseTagErrors = analysis.noLowercaseTagErrors;
+    }
+
+    /**
+     * Method creating result without document lines, e.g. to be cached.
+     * @return Result with the same errors and corrections, but no lines.
+     */
+    public DocumentAnalysis detach(){
+        return new DocumentAnalysis(this, Collections.<CharSequence>emptyList());
+    }
+
+    /**
+     * Method creating result of analysis of given lines, when it is known
+     * that they are the same as lines of the analyzed document.
+     * @param lines Document lines.
+     * @return Result with the same errors and corrections for the lines,
+     * or null if number of lines or length of any of them differs from the analyzed document.
+     */
+    public DocumentAnalysis attach(List<? extends CharSequence> lines){
+        if(lines.size() != this.lineCount){
+            return null;
+        }
+        int index = 0;
+        for(CharSequence line : lines){
+            if(line.length() != this.lineLengths[index++]){
+                return null;
+            }
+        }
+        return new DocumentAnalysis(this, lines);
+    }
+
+    /**
+     * Method estimating memory taken by errors and corrections of the document.
+     * @return Size in bytes.
+     */
+    public long estimateSize(){
+        return 64 + 4L * this.lineLengths.length + this.errors.estimateSize() + this.corrections.estimateSize();
+    }
+
+    /**
+     * Method rendering original document contents, one line at a time.
+     * @return Stream of strings representing said content.
+     */
+    public Stream<String> streamSource(){return this.source.stream().map(CharSequence::toString);}
+
+    /**
+     * Method rendering document contents with error info added,
+     * one line at a time.
+     * @return Stream of strings representing said content.
+     */
+    public Stream<String> streamLinesWithErrorInfo(){return this.errors.render(this.source);}
+
+    /**
+     * Method rendering document contents with errors corrected,
+     * one line at a time.
+     * @return Stream of strings representing said content.
+     */
+    public Stream<String> streamCorrectedLines(){return this.corrections.render(this.source);}
+}
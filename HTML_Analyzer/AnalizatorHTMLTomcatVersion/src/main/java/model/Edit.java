@@ -0,0 +1,79 @@
+package model;
+
+/**
+ * Class representing a single correction of analyzed document -
+ * replacement of a part of one line with given text. An insertion
+ * is a replacement of an empty part.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class Edit {
+
+    /**
+     * Public constructor.
+     * @param line Index of corrected line.
+     * @param begin Index of first replaced character.
+     * @param end Index of character after the last replaced one.
+     * @param text Text put in place of replaced characters.
+     */
+    public Edit(int line, int begin, int end, String text){
+        this.line = line;
+        this.begin = begin;
+        this.end = end;
+        this.text = text;
+    }
+
+    /**
+     * Index of corrected line.
+     */
+    private final int line;
+
+    /**
+     * Getter for index of corrected line.
+     * @return Line index.
+     */
+    public int getLine(){return this.line;}
+
+    /**
+     * Index of first replaced character.
+     */
+    private final int begin;
+
+    /**
+     * Getter for index of first replaced character.
+     * @return Character index.
+     */
+    public int getBegin(){return this.begin;}
+
+    /**
+     * Index of character after the last replaced one.
+     */
+    private final int end;
+
+    /**
+     * Getter for index of character after the last replaced one.
+     * @return Character index.
+     */
+    public int getEnd(){return this.end;}
+
+    /**
+     * Text put in place of replaced characters.
+     */
+    private final String text;
+
+    /**
+     * Getter for text put in place of replaced characters.
+     * @return Replacement text.
+     */
+    public String getText(){return this.text;}
+
+    /**
+     * Method comparing positions of two edits.
+     * @param other Compared edit.
+     * @return True if this edit has to be applied before the other one, false otherwise.
+     */
+    public boolean isBefore(Edit other){
+        return this.line < other.line || (this.line == other.line && this.begin <= other.begin);
+    }
+}
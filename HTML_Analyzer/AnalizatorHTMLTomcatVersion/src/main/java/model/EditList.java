@@ -0,0 +1,175 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class collecting corrections of analyzed document as a list of edits
+ * ordered by their position. Original lines are never rewritten while
+ * the document is analyzed - the edits are applied in a single pass over
+ * the document when the corrected version is requested, so correcting
+ * a line costs time proportional to its length, however many edits it has.
+ * Lines added after the last line of the document are kept separately.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class EditList {
+
+    /**
+     * Edits of document lines.
+     */
+    private final ArrayList<Edit> edits = new ArrayList<>();
+
+    /**
+     * Flag telling whether edits were added in order of their positions.
+     */
+    private boolean sorted = true;
+
+    /**
+     * Lines to be added after the last line of the document.
+     */
+    private final ArrayList<String> appendedLines = new ArrayList<>();
+
+    /**
+     * Method adding an edit replacing a part of a line.
+     * @param line Index of corrected line.
+     * @param begin Index of first replaced character.
+     * @param end Index of character after the last replaced one.
+     * @param text Text put in place of replaced characters.
+     */
+    public void replace(int line, int begin, int end, String text){
+        Edit edit = new Edit(line, begin, end, text);
+        if(!edits.isEmpty() && !edits.get(edits.size() - 1).isBefore(edit)){
+            sorted = false;
+        }
+        edits.add(edit);
+    }
+
+    /**
+     * Method adding an edit inserting text into a line.
+     * @param line Index of corrected line.
+     * @param index Index of character before which the text is inserted.
+     * @param text Inserted text.
+     */
+    public void insert(int line, int index, String text){
+        replace(line, index, index, text);
+    }
+
+    /**
+     * Method adding a line after the last line of the document.
+     * @param line Added line.
+     */
+    public void append(String line){
+        appendedLines.add(line);
+    }
+
+    /**
+     * Getter for number of edits, including added lines.
+     * @return Number of edits.
+     */
+    public int size(){
+        return edits.size() + appendedLines.size();
+    }
+
+    /**
+     * Method estimating memory taken by the list.
+     * @return Size in bytes.
+     */
+    public long estimateSize(){
+        long size = 64 + 4L * (edits.size() + appendedLines.size());
+        for(Edit edit : edits){
+            size += 32 + 40 + 2L * edit.getText().length();
+        }
+        for(String line : appendedLines){
+            size += 40 + 2L * line.length();
+        }
+        return size;
+    }
+
+    /**
+     * Method for removing all edits.
+     */
+    public void clear(){
+        edits.clear();
+        appendedLines.clear();
+        sorted = true;
+    }
+
+    /**
+     * Method ordering edits by their positions, if they were
+     * not added in that order.
+     */
+    public void sort(){
+        if(!sorted){
+            edits.sort(Comparator.comparingInt(Edit::getLine).thenComparingInt(Edit::getBegin));
+            sorted = true;
+        }
+    }
+
+    /**
+     * Method creating corrected document.
+     * @param lines Original document lines.
+     * @return List of corrected lines.
+     */
+    public ArrayList<String> apply(List<? extends CharSequence> lines){
+        ArrayList<String> corrected = new ArrayList<>(lines.size() + appendedLines.size());
+        render(lines).forEach(corrected::add);
+        return corrected;
+    }
+
+    /**
+     * Method rendering corrected document. It merges the lines with
+     * edits in one pass; lines without edits are copied as they are.
+     * Lines are created one at a time, only when the stream reaches them.
+     * @param lines Original document lines.
+     * @return Stream of corrected lines.
+     */
+    public Stream<String> render(List<? extends CharSequence> lines){
+        sort();
+        Iterator<String> iterator = new Iterator<String>() {
+            private int lineNumber = 0;
+            private int editIndex = 0;
+
+            @Override
+            public boolean hasNext(){
+                return lineNumber < lines.size() + appendedLines.size();
+            }
+
+            @Override
+            public String next(){
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                if(lineNumber >= lines.size()){
+                    return appendedLines.get(lineNumber++ - lines.size());
+                }
+                CharSequence line = lines.get(lineNumber);
+                if(editIndex == edits.size() || edits.get(editIndex).getLine() != lineNumber){
+                    lineNumber++;
+                    return line.toString();
+                }
+                StringBuilder builder = new StringBuilder(line.length() + 16);
+                int copied = 0;
+                while(editIndex < edits.size() && edits.get(editIndex).getLine() == lineNumber){
+                    Edit edit = edits.get(editIndex++);
+                    int begin = Math.max(copied, Math.min(edit.getBegin(), line.length()));
+                    builder.append(line, copied, begin).append(edit.getText());
+                    copied = Math.max(begin, Math.min(edit.getEnd(), line.length()));
+                }
+                builder.append(line, copied, line.length());
+                lineNumber++;
+                return builder.toString();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, lines.size() + appendedLines.size(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
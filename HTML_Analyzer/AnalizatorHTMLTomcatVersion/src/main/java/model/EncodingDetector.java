@@ -0,0 +1,155 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+
+/**
+ * Class determining encoding of an uploaded document, in the order used
+ * by browsers: a byte order mark, the charset declared in content type
+ * and the charset declared in a meta tag within the beginning of the
+ * document. Documents without any of them are read as UTF-8.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class EncodingDetector {
+
+    /**
+     * Number of bytes examined while looking for a meta tag.
+     */
+    public static final int SNIFFED_BYTES = 1024;
+
+    /**
+     * Private constructor - class contains only static methods.
+     */
+    private EncodingDetector(){}
+
+    /**
+     * Method determining encoding of a document.
+     * @param contentType Content type of the document, may be null.
+     * @param stream Stream of the document. It has to support marking;
+     *               it is reset to the first byte after the byte order mark.
+     * @return Encoding of the document.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    public static Charset detect(String contentType, InputStream stream) throws IOException{
+        stream.mark(SNIFFED_BYTES);
+        byte[] head = new byte[SNIFFED_BYTES];
+        int length = 0;
+        int read;
+        while(length < head.length && (read = stream.read(head, length, head.length - length)) > 0){
+            length += read;
+        }
+        stream.reset();
+
+        int bomLength = 0;
+        Charset bomCharset = null;
+        if(length >= 3 && (head[0] & 0xff) == 0xef && (head[1] & 0xff) == 0xbb && (head[2] & 0xff) == 0xbf){
+            bomCharset = StandardCharsets.UTF_8;
+            bomLength = 3;
+        }else if(length >= 2 && (head[0] & 0xff) == 0xfe && (head[1] & 0xff) == 0xff){
+            bomCharset = StandardCharsets.UTF_16BE;
+            bomLength = 2;
+        }else if(length >= 2 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xfe){
+            bomCharset = StandardCharsets.UTF_16LE;
+            bomLength = 2;
+        }
+        if(bomLength > 0){
+            stream.skip(bomLength);
+        }
+
+        if(bomCharset != null){
+            return bomCharset;
+        }
+        Charset declared = forName(getParameter(contentType, "charset"));
+        if(declared != null){
+            return declared;
+        }
+        Charset meta = forName(findMetaCharset(new String(head, 0, length, StandardCharsets.ISO_8859_1)));
+        return meta != null ? meta : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Method finding value of a parameter of content type.
+     * @param contentType Content type, e.g. "text/html; charset=UTF-8".
+     * @param name Name of the parameter.
+     * @return Value of the parameter or null if it is missing.
+     */
+    static String getParameter(String contentType, String name){
+        if(contentType == null){
+            return null;
+        }
+        for(String parameter : contentType.split(";")){
+            int separator = parameter.indexOf('=');
+            if(separator > 0 && parameter.substring(0, separator).trim().equalsIgnoreCase(name)){
+                return unquote(parameter.substring(separator + 1).trim());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method finding charset declared in a meta tag of given beginning
+     * of a document, either as charset attribute or in http-equiv content.
+     * @param head Beginning of the document.
+     * @return Name of the charset or null if it is missing.
+     */
+    static String findMetaCharset(String head){
+        String lowercase = head.toLowerCase(Locale.ROOT);
+        int meta = lowercase.indexOf("<meta");
+        while(meta >= 0){
+            int end = lowercase.indexOf('>', meta);
+            if(end < 0){
+                end = lowercase.length();
+            }
+            int charset = lowercase.indexOf("charset=", meta);
+            if(charset >= 0 && charset < end){
+                int begin = charset + "charset=".length();
+                int valueEnd = begin;
+                if(valueEnd < end && (head.charAt(valueEnd) == '"' || head.charAt(valueEnd) == '\'')){
+                    begin++;
+                    valueEnd++;
+                }
+                while(valueEnd < end && " \"';/>".indexOf(head.charAt(valueEnd)) < 0){
+                    valueEnd++;
+                }
+                return head.substring(begin, valueEnd);
+            }
+            meta = lowercase.indexOf("<meta", end);
+        }
+        return null;
+    }
+
+    /**
+     * Method removing quotes surrounding a value.
+     * @param value Value, possibly quoted.
+     * @return Value without quotes.
+     */
+    private static String unquote(String value){
+        if(value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"'){
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * Method finding encoding with given name.
+     * @param name Name of the encoding, may be null.
+     * @return Encoding or null if it is unknown.
+     */
+    private static Charset forName(String name){
+        if(name == null || name.isEmpty()){
+            return null;
+        }
+        try{
+            return Charset.forName(name);
+        }catch(IllegalCharsetNameException | UnsupportedCharsetException exception){
+            return null;
+        }
+    }
+}
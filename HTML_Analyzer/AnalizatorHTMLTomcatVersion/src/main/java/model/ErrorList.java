@@ -0,0 +1,140 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class collecting errors found in analyzed document as compact records -
+ * index of the line on which the error is reported and its type, kept in
+ * arrays of primitives. The document with error notifications is never
+ * stored: it is rendered line by line from original lines and the records
+ * when it is requested. Errors have to be added in order of their lines.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class ErrorList {
+
+    /**
+     * Text added to a line for every mark of an error.
+     */
+    private static final String MARK = " *";
+
+    /**
+     * Error types indexed by their ordinals.
+     */
+    private static final ErrorType[] TYPES = ErrorType.values();
+
+    /**
+     * Indexes of lines on which errors are reported.
+     */
+    private int[] lines = new int[16];
+
+    /**
+     * Types of errors, as ordinals of {@link ErrorType}.
+     */
+    private byte[] types = new byte[16];
+
+    /**
+     * Number of errors in the list.
+     */
+    private int size = 0;
+
+    /**
+     * Method adding an error to the list.
+     * @param line Index of line on which the error is reported.
+     * @param type Type of the error.
+     */
+    public void add(int line, ErrorType type){
+        if(size == lines.length){
+            lines = Arrays.copyOf(lines, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+        }
+        lines[size] = line;
+        types[size] = (byte) type.ordinal();
+        size++;
+    }
+
+    /**
+     * Getter for index of line on which error is reported.
+     * @param index Index of the error in the list.
+     * @return Line index.
+     */
+    public int getLine(int index){return this.lines[index];}
+
+    /**
+     * Getter for type of error.
+     * @param index Index of the error in the list.
+     * @return Error type.
+     */
+    public ErrorType getType(int index){return TYPES[this.types[index]];}
+
+    /**
+     * Getter for number of errors in the list.
+     * @return Number of errors.
+     */
+    public int size(){return this.size;}
+
+    /**
+     * Method estimating memory taken by the list.
+     * @return Size in bytes.
+     */
+    public long estimateSize(){
+        return 48 + 5L * lines.length;
+    }
+
+    /**
+     * Method for removing all errors.
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    /**
+     * Method rendering document with error notifications. Every error adds
+     * its marks at the end of the line it is reported on. Lines are created
+     * one at a time, only when the stream reaches them.
+     * @param documentLines Original document lines.
+     * @return Stream of lines with error notifications.
+     */
+    public Stream<String> render(List<? extends CharSequence> documentLines){
+        Iterator<String> iterator = new Iterator<String>() {
+            private int lineNumber = 0;
+            private int errorIndex = 0;
+
+            @Override
+            public boolean hasNext(){
+                return lineNumber < documentLines.size();
+            }
+
+            @Override
+            public String next(){
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                CharSequence line = documentLines.get(lineNumber);
+                int marks = 0;
+                while(errorIndex < size && lines[errorIndex] == lineNumber){
+                    marks += getType(errorIndex++).getMarks();
+                }
+                lineNumber++;
+                if(marks == 0){
+                    return line.toString();
+                }
+                StringBuilder builder = new StringBuilder(line.length() + marks * MARK.length()).append(line);
+                for(int i = 0; i < marks; i++){
+                    builder.append(MARK);
+                }
+                return builder.toString();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, documentLines.size(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
@@ -0,0 +1,199 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Class collecting errors and corrections of a document from events found
+ * by {@link TagMatcher}, either at once or replayed later by analyzers which
+ * keep events first - e.g. analyzing the document in parts. An event is
+ * described by its type and three ints, the first of which is always
+ * the line of the error.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+final class ErrorRecorder implements TagMatcher.EventSink {
+
+    /**
+     * Constructor.
+     * @param source Lines of the document.
+     * @param tagNames Table of tag names of ids given in events.
+     */
+    ErrorRecorder(List<? extends CharSequence> source, TagNameTable tagNames){
+        this.source = source;
+        this.tagNames = tagNames;
+    }
+
+    /**
+     * Event of a tag without ending tag: line and column of the missing ending tag, tag id.
+     */
+    static final int NO_ENDING_TAG = 0;
+
+    /**
+     * Event of a tag not in lowercase: line, index of first and after last character of its name.
+     */
+    static final int NO_LOWERCASE_TAG = 1;
+
+    /**
+     * Event of a tag without ending bracket: line and column of the missing bracket.
+     */
+    static final int NO_ENDING_BRACKET = 2;
+
+    /**
+     * Number of ints describing a single event, including its type.
+     */
+    static final int EVENT_SIZE = 4;
+
+    /**
+     * Lines of the document.
+     */
+    private final List<? extends CharSequence> source;
+
+    /**
+     * Table of tag names of ids given in events.
+     */
+    private final TagNameTable tagNames;
+
+    /**
+     * The list of errors found in the document.
+     */
+    private final ErrorList errors = new ErrorList();
+
+    /**
+     * The list of corrections of the document.
+     */
+    private final EditList corrections = new EditList();
+
+    /**
+     * Counter of tags without ending bracket.
+     */
+    private int noEndingBracketErrors = 0;
+
+    /**
+     * Counter of opening tags without ending tag.
+     */
+    private int noEndingTagErrors = 0;
+
+    /**
+     * Counter of tags not in lowercase.
+     */
+    private int noLowercaseTagErrors = 0;
+
+    /**
+     * Method recording an event.
+     * @param type Type of the event.
+     * @param line Line of the error.
+     * @param second Second value of the event.
+     * @param third Third value of the event.
+     */
+    @Override
+    public void record(int type, int line, int second, int third){
+        switch(type){
+            case NO_ENDING_TAG:
+                manageNoEndingTagError(third, line, second);
+                break;
+            case NO_LOWERCASE_TAG:
+                manageTagNotLowercaseError(line, second, third);
+                break;
+            case NO_ENDING_BRACKET:
+                manageNoEndingBracketError(line, second);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown event " + type);
+        }
+    }
+
+    /**
+     * Method recording events kept in an array.
+     * @param events Events, {@link #EVENT_SIZE} ints each.
+     * @param from Index of the first int of the first event.
+     * @param to Index after the last int of the last event.
+     * @param lineShift Number added to lines of the events.
+     */
+    void record(int[] events, int from, int to, int lineShift){
+        for(int event = from; event < to; event += EVENT_SIZE){
+            record(events[event], events[event + 1] + lineShift, events[event + 2], events[event + 3]);
+        }
+    }
+
+    /**
+     * Method to manage error of tag not in lowercase.
+     * @param lineNumber Line number - index in string list.
+     * @param nameBegin Index of first character of tag name.
+     * @param nameEnd Index of character after tag name.
+     */
+    private void manageTagNotLowercaseError(int lineNumber, int nameBegin, int nameEnd){
+        corrections.replace(lineNumber, nameBegin, nameEnd,
+                source.get(lineNumber).subSequence(nameBegin, nameEnd).toString().toLowerCase());
+        errors.add(lineNumber, ErrorType.NO_LOWERCASE_TAG);
+        noLowercaseTagErrors++;
+    }
+
+    /**
+     * Method to manage error of lack of tag ending bracket.
+     * @param lineNumber Line number - index in string list.
+     * @param indexAfterTag Index of character before which the ending bracket is missing.
+     */
+    private void manageNoEndingBracketError(int lineNumber, int indexAfterTag){
+        corrections.insert(lineNumber, indexAfterTag, ">");
+        errors.add(lineNumber, ErrorType.NO_ENDING_BRACKET);
+        noEndingBracketErrors++;
+    }
+
+    /**
+     * Method to manage error of lack of ending tag.
+     * @param tagId Id of name of opening tag that lacks ending tag.
+     * @param lineNumber Line number of ending tag before which the missing tag should
+     *                   be placed, number of lines if it should be placed at the end of document.
+     * @param indexAfterEndTag Index of character before which the missing tag should be placed.
+     */
+    private void manageNoEndingTagError(int tagId, int lineNumber, int indexAfterEndTag){
+        String newTag = "</" + tagNames.getName(tagId).toLowerCase() + ">";
+        if(lineNumber < source.size()){
+            corrections.insert(lineNumber, indexAfterEndTag, newTag);
+        }else{
+            corrections.append(newTag);
+        }
+        errors.add(Math.min(lineNumber, source.size() - 1), ErrorType.NO_ENDING_TAG);
+        noEndingTagErrors++;
+    }
+
+    /**
+     * Getter for recorded errors.
+     * @return List of errors.
+     */
+    ErrorList getErrors(){return this.errors;}
+
+    /**
+     * Getter for recorded corrections.
+     * @return List of corrections.
+     */
+    EditList getCorrections(){return this.corrections;}
+
+    /**
+     * Getter for number of tags without ending bracket.
+     * @return Number of errors.
+     */
+    int getNoEndingBracketErrors(){return this.noEndingBracketErrors;}
+
+    /**
+     * Getter for number of opening tags without ending tag.
+     * @return Number of errors.
+     */
+    int getNoEndingTagErrors(){return this.noEndingTagErrors;}
+
+    /**
+     * Getter for number of tags not in lowercase.
+     * @return Number of errors.
+     */
+    int getNoLowercaseTagErrors(){return this.noLowercaseTagErrors;}
+
+    /**
+     * Method creating result of analysis from recorded errors and corrections.
+     * @return Result of the analysis.
+     */
+    DocumentAnalysis toAnalysis(){
+        return new DocumentAnalysis(source, errors, corrections,
+                noEndingBracketErrors, noEndingTagErrors, noLowercaseTagErrors);
+    }
+}
@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * Enum for describing possible error types. Every type knows how many
+ * marks it adds to the line on which the error is reported.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public enum ErrorType {
+
+    /**
+     * Opening tag without matching ending tag.
+     */
+    NO_ENDING_TAG(1),
+
+    /**
+     * Tag without ending bracket - marked both for the tag
+     * and for the bracket that interrupted it.
+     */
+    NO_ENDING_BRACKET(2),
+
+    /**
+     * Tag name not written in lowercase.
+     */
+    NO_LOWERCASE_TAG(1);
+
+    /**
+     * Constructor.
+     * @param marks Number of marks added to erroneous line.
+     */
+    ErrorType(int marks){
+        this.marks = marks;
+    }
+
+    /**
+     * Number of marks added to erroneous line.
+     */
+    private final int marks;
+
+    /**
+     * Getter for number of marks added to erroneous line.
+     * @return Number of marks.
+     */
+    public int getMarks(){return this.marks;}
+}
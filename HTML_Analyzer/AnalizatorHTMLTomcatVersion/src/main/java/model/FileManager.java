@@ -2,9 +2,9 @@ package model;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Optional;
-import java.util.Scanner;
+import java.util.List;
 
 /**
  * Class that is responsible for reading input file.
@@ -20,7 +20,7 @@ public class FileManager {
      * Public constructor. Initializes field for
      * preserving lines of file with empty array.
      */
-    public FileManager(){this.documentLines = new ArrayList<String>();}
+    public FileManager(){this.documentLines = new ArrayList<CharSequence>();}
 
     /**
      * Field for path to input file.
@@ -29,7 +29,7 @@ public class FileManager {
     /**
      * Field for input file contents.
      */
-    private ArrayList<String> documentLines;
+    private List<? extends CharSequence> documentLines;
 
     /**
      * Getter for input file path.
@@ -47,27 +47,22 @@ public class FileManager {
      * Getter for lines read from the document.
      * There is no analogous setter because these
      * lines should be set only by readDocument() method.
-     * @return Array of strings each being a line that was read from
+     * @return List of character sequences each being a line that was read from
      * input document.
      */
-    public ArrayList<String> getDocumentLines(){
+    public List<? extends CharSequence> getDocumentLines(){
         return this.documentLines;
     }
 
     /**
-     * Method that reads given document line by line
-     * and puts these lines into string list.
-     * @throws FileNotFoundException
+     * Method that maps given document into memory and
+     * indexes its lines, without copying them into strings.
+     * Lines of previously read document are discarded.
+     * @throws FileNotFoundException Thrown when input file not found.
+     * @throws IOException Thrown when input file cannot be read.
      */
-    public void readDocument() throws FileNotFoundException{
-
-        File myObj = new File(filePath);
-        Scanner myReader = new Scanner(myObj);
-        while (myReader.hasNextLine()) {
-            String data = myReader.nextLine();
-            documentLines.add(data);
-        }
-        myReader.close();
+    public void readDocument() throws IOException{
+        documentLines = MappedDocument.read(new File(filePath));
     }
 
     /**
@@ -76,10 +71,15 @@ public class FileManager {
      */
     public boolean isHTMLDocument(){
 
-        Optional<String> firstHTMLTagLike = documentLines.stream()
-                .filter(i -> i.contains("<") || i.contains(">"))
-                .findFirst();
-        return firstHTMLTagLike.isPresent();
+        for(CharSequence line : documentLines){
+            for(int i = 0; i < line.length(); i++){
+                char character = line.charAt(i);
+                if(character == '<' || character == '>'){
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
 }
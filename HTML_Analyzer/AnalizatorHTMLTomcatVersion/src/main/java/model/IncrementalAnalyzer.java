@@ -0,0 +1,647 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class analyzing documents which are processed again after small changes,
+ * e.g. uploaded again by an editor. For every document name it keeps the
+ * lines of the last version, its errors in order they were found and
+ * checkpoints - the stack of opened tags at lines no token continues past,
+ * recorded every given number of lines.
+ * <p>
+ * A new version is compared with the last one line by line from both ends.
+ * Analysis restarts from the last checkpoint before the first changed line,
+ * reusing errors found before it, and stops at the first checkpoint of the
+ * last version after the changed lines with the same stack of opened tags -
+ * from there on the analysis would be the same as before, so errors found
+ * after it are reused with their lines shifted. Results are the same as
+ * found by {@link Analyzer}. States of documents are evicted in least
+ * recently used order once their estimated total size exceeds given limit,
+ * which bounds memory taken by kept lines of documents.
+ * All methods are thread-safe.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class IncrementalAnalyzer {
+
+    /**
+     * Public constructor recording checkpoints every {@link #CHECKPOINT_INTERVAL} lines.
+     * @param maxBytes Limit of estimated total size of kept states of documents.
+     */
+    public IncrementalAnalyzer(long maxBytes){
+        this(maxBytes, CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Public constructor.
+     * @param maxBytes Limit of estimated total size of kept states of documents.
+     * @param checkpointInterval Smallest number of lines between checkpoints.
+     */
+    public IncrementalAnalyzer(long maxBytes, int checkpointInterval){
+        this.maxBytes = maxBytes;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+    }
+
+    /**
+     * Default smallest number of lines between checkpoints.
+     */
+    public static final int CHECKPOINT_INTERVAL = 1000;
+
+    /**
+     * Limit of estimated total size of kept states of documents.
+     */
+    private final long maxBytes;
+
+    /**
+     * Smallest number of lines between checkpoints.
+     */
+    private final int checkpointInterval;
+
+    /**
+     * States of documents by their names, the least recently used first.
+     */
+    private final LinkedHashMap<String, State> states = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Estimated total size of kept states.
+     */
+    private long bytes = 0;
+
+    /**
+     * Number of documents analyzed from the beginning.
+     */
+    private long fullAnalyses = 0;
+
+    /**
+     * Number of documents analyzed from a checkpoint.
+     */
+    private long incrementalAnalyses = 0;
+
+    /**
+     * Number of lines analyzed, in all documents.
+     */
+    private long analyzedLines = 0;
+
+    /**
+     * Method analyzing a document, reusing analysis of the last version
+     * of the document with the same name if it is kept.
+     * @param name Name of the document.
+     * @param lines Lines of the document. They must not be modified afterwards.
+     * @return Result of the analysis.
+     */
+    public DocumentAnalysis analyze(String name, List<String> lines){
+        return analyze(name, lines, null);
+    }
+
+    /**
+     * Method analyzing a document while its lines are being read, e.g. from
+     * a request that is still being received. If no previous version of the
+     * document is kept, lines are analyzed as they are read, as by
+     * {@link Analyzer#analyze(Iterator)}; otherwise all lines are read first,
+     * so that they can be compared with the previous version.
+     * @param name Name of the document.
+     * @param lines Source of lines of the document.
+     * @return Result of the analysis.
+     */
+    public DocumentAnalysis analyze(String name, Iterator<String> lines){
+        ArrayList<String> source = new ArrayList<>();
+        Iterator<String> recordedLines = new Iterator<String>() {
+            @Override
+            public boolean hasNext(){
+                return lines.hasNext();
+            }
+
+            @Override
+            public String next(){
+                String line = lines.next();
+                source.add(line);
+                return line;
+            }
+        };
+        return analyze(name, source, recordedLines);
+    }
+
+    /**
+     * Method analyzing a document, reusing analysis of the last version
+     * of the document with the same name if it is kept.
+     * @param name Name of the document.
+     * @param lines Lines of the document, or list lines are added to while they are read.
+     * @param unreadLines Source of lines not read yet, or null if all lines are given.
+     * @return Result of the analysis.
+     */
+    private DocumentAnalysis analyze(String name, List<String> lines, Iterator<String> unreadLines){
+        State previous;
+        synchronized(this){
+            previous = states.get(name);
+        }
+        if(previous != null && unreadLines != null){
+            while(unreadLines.hasNext()){
+                unreadLines.next();
+            }
+        }
+        Run run = previous == null ? new Run(lines, unreadLines) : reanalyze(previous, lines);
+        State state = run == null ? previous.withLines(lines) : run.execute();
+        synchronized(this){
+            if(previous == null){
+                fullAnalyses++;
+            }else{
+                incrementalAnalyses++;
+            }
+            analyzedLines += run == null ? 0 : run.analyzedLines;
+            keep(name, state);
+        }
+        return state.toAnalysis();
+    }
+
+    /**
+     * Method preparing analysis of a new version of a document.
+     * @param previous State of the last version.
+     * @param lines Lines of the new version.
+     * @return Analysis to be run or null if both versions are the same.
+     */
+    private Run reanalyze(State previous, List<String> lines){
+        List<String> oldLines = previous.lines;
+        int common = Math.min(oldLines.size(), lines.size());
+        int prefix = 0;
+        while(prefix < common && oldLines.get(prefix).equals(lines.get(prefix))){
+            prefix++;
+        }
+        if(prefix == oldLines.size() && prefix == lines.size()){
+            return null;
+        }
+        int suffix = 0;
+        while(suffix < common - prefix && oldLines.get(oldLines.size() - 1 - suffix)
+                .equals(lines.get(lines.size() - 1 - suffix))){
+            suffix++;
+        }
+        int checkpoint = previous.findCheckpoint(prefix);
+        return new Run(lines, previous, checkpoint, oldLines.size() - suffix);
+    }
+
+    /**
+     * Method keeping state of a document, evicting least recently used
+     * states if needed. A state larger than the limit is not kept.
+     * @param name Name of the document.
+     * @param state State of the document.
+     */
+    private void keep(String name, State state){
+        State previous = states.remove(name);
+        if(previous != null){
+            bytes -= previous.size;
+        }
+        if(state.size > maxBytes){
+            return;
+        }
+        states.put(name, state);
+        bytes += state.size;
+        Iterator<Map.Entry<String, State>> eldest = states.entrySet().iterator();
+        while(bytes > maxBytes){
+            bytes -= eldest.next().getValue().size;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Method forgetting state of a document.
+     * @param name Name of the document.
+     */
+    public synchronized void forget(String name){
+        State previous = states.remove(name);
+        if(previous != null){
+            bytes -= previous.size;
+        }
+    }
+
+    /**
+     * Getter for number of documents analyzed from the beginning.
+     * @return Number of analyses.
+     */
+    public synchronized long getFullAnalyses(){return this.fullAnalyses;}
+
+    /**
+     * Getter for number of documents analyzed from a checkpoint.
+     * @return Number of analyses.
+     */
+    public synchronized long getIncrementalAnalyses(){return this.incrementalAnalyses;}
+
+    /**
+     * Getter for number of lines analyzed, in all documents.
+     * @return Number of lines.
+     */
+    public synchronized long getAnalyzedLines(){return this.analyzedLines;}
+
+    /**
+     * Getter for estimated total size of kept states.
+     * @return Size in bytes.
+     */
+    public synchronized long getBytes(){return this.bytes;}
+
+    /**
+     * Getter for number of kept states.
+     * @return Number of documents.
+     */
+    public synchronized int size(){return this.states.size();}
+
+    @Override
+    public synchronized String toString(){
+        return "Incremental analyzer: " + states.size() + " documents, " + bytes + " of " + maxBytes + " bytes, "
+                + fullAnalyses + " full analyses, " + incrementalAnalyses + " incremental analyses, "
+                + analyzedLines + " analyzed lines";
+    }
+
+    /**
+     * Class describing analysis of a version of a document. It is never
+     * modified, so it may be read by many threads at once.
+     */
+    private static final class State {
+
+        /**
+         * Constructor.
+         * @param lines Lines of the document.
+         * @param tagNames Names of tags by their ids.
+         * @param events Errors in order they were found, described as by {@link ErrorRecorder}.
+         * @param checkpointLines Lines of checkpoints, in ascending order.
+         * @param checkpointEvents Number of ints of events found before every checkpoint.
+         * @param checkpointStacks Ids of tags opened at every checkpoint, the bottom one first.
+         */
+        private State(List<String> lines, String[] tagNames, int[] events,
+                      int[] checkpointLines, int[] checkpointEvents, int[][] checkpointStacks){
+            this.lines = lines;
+            this.tagNames = tagNames;
+            this.events = events;
+            this.checkpointLines = checkpointLines;
+            this.checkpointEvents = checkpointEvents;
+            this.checkpointStacks = checkpointStacks;
+            long linesSize = 0;
+            for(String line : lines){
+                linesSize += 56 + 2L * line.length();
+            }
+            long checkpointsSize = 0;
+            for(int[] stack : checkpointStacks){
+                checkpointsSize += 32 + 4L * stack.length;
+            }
+            this.size = 128 + linesSize + 4L * events.length + checkpointsSize;
+        }
+
+        /**
+         * Lines of the document.
+         */
+        private final List<String> lines;
+
+        /**
+         * Names of tags by their ids.
+         */
+        private final String[] tagNames;
+
+        /**
+         * Errors in order they were found, described as by {@link ErrorRecorder}.
+         */
+        private final int[] events;
+
+        /**
+         * Lines of checkpoints, in ascending order.
+         */
+        private final int[] checkpointLines;
+
+        /**
+         * Number of ints of events found before every checkpoint.
+         */
+        private final int[] checkpointEvents;
+
+        /**
+         * Ids of tags opened at every checkpoint, the bottom one first.
+         */
+        private final int[][] checkpointStacks;
+
+        /**
+         * Estimated size of the state in bytes.
+         */
+        private final long size;
+
+        /**
+         * Method creating state of the same analysis for equal lines.
+         * @param newLines Lines equal to lines of the document.
+         * @return State with given lines.
+         */
+        private State withLines(List<String> newLines){
+            return new State(newLines, tagNames, events, checkpointLines, checkpointEvents, checkpointStacks);
+        }
+
+        /**
+         * Method creating table of tag names with the same ids.
+         * @return Table of tag names.
+         */
+        private TagNameTable createTagNames(){
+            TagNameTable table = new TagNameTable();
+            for(String name : tagNames){
+                table.intern(name);
+            }
+            return table;
+        }
+
+        /**
+         * Method finding the last checkpoint at or before given line.
+         * @param line Index of line.
+         * @return Index of the checkpoint.
+         */
+        private int findCheckpoint(int line){
+            int index = Arrays.binarySearch(checkpointLines, line);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        /**
+         * Method creating result of the analysis.
+         * @return Result of the analysis.
+         */
+        private DocumentAnalysis toAnalysis(){
+            ErrorRecorder recorder = new ErrorRecorder(lines, createTagNames());
+            recorder.record(events, 0, events.length, 0);
+            return recorder.toAnalysis();
+        }
+    }
+
+    /**
+     * Class analyzing a document from a checkpoint.
+     */
+    private final class Run implements TagMatcher.EventSink {
+
+        /**
+         * Constructor of analysis of a whole document.
+         * @param lines Lines of the document, or list lines are added to while they are read.
+         * @param unreadLines Source of lines not read yet, or null if all lines are given.
+         */
+        private Run(List<String> lines, Iterator<String> unreadLines){
+            this.lines = lines;
+            this.unreadLines = unreadLines;
+            this.previous = null;
+            this.lineShift = 0;
+            this.previousSuffix = 0;
+            this.tagNames = new TagNameTable();
+            addCheckpoint(0);
+        }
+
+        /**
+         * Constructor of analysis of a new version of a document.
+         * @param lines Lines of the new version.
+         * @param previous State of the last version.
+         * @param checkpoint Index of checkpoint of the last version the analysis starts from.
+         * @param previousSuffix Index of the first line of the last version
+         *                       after which no line has been changed.
+         */
+        private Run(List<String> lines, State previous, int checkpoint, int previousSuffix){
+            this.lines = lines;
+            this.unreadLines = null;
+            this.previous = previous;
+            this.lineShift = lines.size() - previous.lines.size();
+            this.previousSuffix = previousSuffix;
+            this.tagNames = previous.createTagNames();
+            this.eventCount = previous.checkpointEvents[checkpoint];
+            this.events = Arrays.copyOf(previous.events, Math.max(64, eventCount * 2));
+            this.checkpointCount = checkpoint + 1;
+            this.checkpointLines = Arrays.copyOf(previous.checkpointLines, checkpointCount + 16);
+            this.checkpointEvents = Arrays.copyOf(previous.checkpointEvents, checkpointCount + 16);
+            this.checkpointStacks = Arrays.copyOf(previous.checkpointStacks, checkpointCount + 16);
+            for(int id : previous.checkpointStacks[checkpoint]){
+                this.openedTags.push(id);
+            }
+        }
+
+        /**
+         * Lines of the document.
+         */
+        private final List<String> lines;
+
+        /**
+         * Source of lines not read yet, or null if all lines are given.
+         */
+        private final Iterator<String> unreadLines;
+
+        /**
+         * State of the last version or null.
+         */
+        private final State previous;
+
+        /**
+         * Difference between numbers of lines of the new and the last version.
+         */
+        private final int lineShift;
+
+        /**
+         * Index of the first line of the last version after which no line has been changed.
+         */
+        private final int previousSuffix;
+
+        /**
+         * Table of tag names of the document.
+         */
+        private final TagNameTable tagNames;
+
+        /**
+         * Stack of ids of tags waiting for their pair.
+         */
+        private final TagStack openedTags = new TagStack();
+
+        /**
+         * Errors in order they were found.
+         */
+        private int[] events = new int[64];
+
+        /**
+         * Number of used ints of the events.
+         */
+        private int eventCount = 0;
+
+        /**
+         * Lines of checkpoints.
+         */
+        private int[] checkpointLines = new int[16];
+
+        /**
+         * Number of ints of events found before every checkpoint.
+         */
+        private int[] checkpointEvents = new int[16];
+
+        /**
+         * Ids of tags opened at every checkpoint.
+         */
+        private int[][] checkpointStacks = new int[16][];
+
+        /**
+         * Number of checkpoints.
+         */
+        private int checkpointCount = 0;
+
+        /**
+         * Number of analyzed lines.
+         */
+        private int analyzedLines = 0;
+
+        /**
+         * Method analyzing the document from the last checkpoint. Checkpoints
+         * are considered before every token which begins on a line after
+         * the end of the previous token.
+         * @return State of the document.
+         */
+        private State execute(){
+            TagMatcher matcher = new TagMatcher(tagNames, openedTags, this, false);
+            int start = checkpointLines[checkpointCount - 1];
+            int lastCheckpoint = start;
+            int lastEndLine = start - 1;
+            Tokenizer tokenizer = unreadLines != null ? new Tokenizer(unreadLines, tagNames)
+                    : new Tokenizer(lines.subList(start, lines.size()), tagNames);
+
+            Token.Type type;
+            while((type = tokenizer.advance()) != null){
+                int line = tokenizer.getLine() + start;
+                if(line > lastEndLine){
+                    int match = findMatchingCheckpoint(lastEndLine + 1, line);
+                    if(match >= 0){
+                        analyzedLines = line - start;
+                        return finishWithPrevious(match);
+                    }
+                    if(line - lastCheckpoint >= checkpointInterval){
+                        addCheckpoint(line);
+                        lastCheckpoint = line;
+                    }
+                }
+                lastEndLine = tokenizer.getEndLine() + start;
+                matcher.match(type, tokenizer, start);
+            }
+            matcher.closeAll(lines.size());
+            analyzedLines = lines.size() - start;
+            return createState();
+        }
+
+        /**
+         * Method finding a checkpoint of the last version, after the changed
+         * lines, at which the same tags were opened as now. Analysis from
+         * there on would give the same results as before. Checkpoints before
+         * the unchanged lines or before the end of the last token are skipped,
+         * as errors after them would be shifted wrongly.
+         * @param fromLine The first line at which a checkpoint could be placed now.
+         * @param toLine The last line at which a checkpoint could be placed now.
+         * @return Index of checkpoint of the last version or -1 if there is none.
+         */
+        private int findMatchingCheckpoint(int fromLine, int toLine){
+            if(previous == null || toLine - lineShift < previousSuffix){
+                return -1;
+            }
+            int lowest = Math.max(fromLine - lineShift, previousSuffix);
+            int index = Math.max(0, previous.findCheckpoint(lowest));
+            int[] stack = null;
+            for(; index < previous.checkpointLines.length && previous.checkpointLines[index] <= toLine - lineShift; index++){
+                if(previous.checkpointLines[index] < lowest){
+                    continue;
+                }
+                if(stack == null){
+                    stack = openedTags.toArray();
+                }
+                if(Arrays.equals(stack, previous.checkpointStacks[index])){
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Method completing the analysis with errors and checkpoints of the last
+         * version found after given checkpoint, with their lines shifted. A shifted
+         * checkpoint not after the last recorded one is skipped, so that lines of
+         * checkpoints stay strictly ascending.
+         * @param checkpoint Index of checkpoint of the last version.
+         * @return State of the document.
+         */
+        private State finishWithPrevious(int checkpoint){
+            int from = previous.checkpointEvents[checkpoint];
+            ensureEvents(previous.events.length - from);
+            for(int event = from; event < previous.events.length; event += ErrorRecorder.EVENT_SIZE){
+                events[eventCount++] = previous.events[event];
+                events[eventCount++] = previous.events[event + 1] + lineShift;
+                events[eventCount++] = previous.events[event + 2];
+                events[eventCount++] = previous.events[event + 3];
+            }
+            int eventShift = eventCount - previous.events.length;
+            for(int index = checkpoint; index < previous.checkpointLines.length; index++){
+                if(previous.checkpointLines[index] + lineShift <= checkpointLines[checkpointCount - 1]){
+                    continue;
+                }
+                ensureCheckpoints();
+                checkpointLines[checkpointCount] = previous.checkpointLines[index] + lineShift;
+                checkpointEvents[checkpointCount] = previous.checkpointEvents[index] + eventShift;
+                checkpointStacks[checkpointCount] = previous.checkpointStacks[index];
+                checkpointCount++;
+            }
+            return createState();
+        }
+
+        /**
+         * Method creating state of the document from found errors and checkpoints.
+         * @return State of the document.
+         */
+        private State createState(){
+            String[] names = new String[tagNames.size()];
+            for(int id = 0; id < names.length; id++){
+                names[id] = tagNames.getName(id);
+            }
+            return new State(lines, names, Arrays.copyOf(events, eventCount),
+                    Arrays.copyOf(checkpointLines, checkpointCount), Arrays.copyOf(checkpointEvents, checkpointCount),
+                    Arrays.copyOf(checkpointStacks, checkpointCount));
+        }
+
+        /**
+         * Method recording a checkpoint at given line.
+         * @param line Index of line no token continues past.
+         */
+        private void addCheckpoint(int line){
+            ensureCheckpoints();
+            checkpointLines[checkpointCount] = line;
+            checkpointEvents[checkpointCount] = eventCount;
+            checkpointStacks[checkpointCount] = openedTags.toArray();
+            checkpointCount++;
+        }
+
+        /**
+         * Method recording an error.
+         * @param type Type of the event.
+         * @param line Line of the error.
+         * @param second Second value of the event.
+         * @param third Third value of the event.
+         */
+        @Override
+        public void record(int type, int line, int second, int third){
+            ensureEvents(ErrorRecorder.EVENT_SIZE);
+            events[eventCount++] = type;
+            events[eventCount++] = line;
+            events[eventCount++] = second;
+            events[eventCount++] = third;
+        }
+
+        /**
+         * Method making room for given number of ints of events.
+         * @param count Number of ints.
+         */
+        private void ensureEvents(int count){
+            if(eventCount + count > events.length){
+                events = Arrays.copyOf(events, Math.max(events.length * 2, eventCount + count));
+            }
+        }
+
+        /**
+         * Method making room for another checkpoint.
+         */
+        private void ensureCheckpoints(){
+            if(checkpointCount == checkpointLines.length){
+                int length = checkpointCount * 2;
+                checkpointLines = Arrays.copyOf(checkpointLines, length);
+                checkpointEvents = Arrays.copyOf(checkpointEvents, length);
+                checkpointStacks = Arrays.copyOf(checkpointStacks, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Class reading lines of a document from a stream of characters while it
+ * is still being received. Characters are read into a buffer of constant
+ * size and every line is built once, so reading costs time proportional
+ * to the size of the document. Every line keeps its ending newline
+ * character, and whatever follows the last newline is returned as the
+ * last line, even if it is empty.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class LineReader implements Iterator<String> {
+
+    /**
+     * Size of buffer for read characters.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Public constructor.
+     * @param reader Source of characters.
+     */
+    public LineReader(Reader reader){
+        this.reader = reader;
+    }
+
+    /**
+     * Source of characters.
+     */
+    private final Reader reader;
+
+    /**
+     * Buffer for read characters.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * Index of first character of the buffer not yet put into a line.
+     */
+    private int position = 0;
+
+    /**
+     * Number of characters in the buffer.
+     */
+    private int limit = 0;
+
+    /**
+     * Flag set when the last line has been returned.
+     */
+    private boolean finished = false;
+
+    @Override
+    public boolean hasNext(){
+        return !finished;
+    }
+
+    /**
+     * Method reading next line.
+     * @return Line with its ending newline character, if there is one.
+     * @throws UncheckedIOException Thrown when the source cannot be read.
+     */
+    @Override
+    public String next(){
+        if(finished){
+            throw new NoSuchElementException();
+        }
+        StringBuilder line = null;
+        while(true){
+            if(position == limit && !fill()){
+                finished = true;
+                return line == null ? "" : line.toString();
+            }
+            int lineEnd = position;
+            while(lineEnd < limit && buffer[lineEnd] != '\n'){
+                lineEnd++;
+            }
+            if(lineEnd < limit){
+                lineEnd++;
+                String result = line == null ? new String(buffer, position, lineEnd - position)
+                        : line.append(buffer, position, lineEnd - position).toString();
+                position = lineEnd;
+                return result;
+            }
+            if(line == null){
+                line = new StringBuilder(Math.max(16, 2 * (limit - position)));
+            }
+            line.append(buffer, position, limit - position);
+            position = limit;
+        }
+    }
+
+    /**
+     * Method reading next part of characters into the buffer.
+     * @return True if any characters have been read, false at the end of stream.
+     */
+    private boolean fill(){
+        try{
+            int read;
+            do{
+                read = reader.read(buffer, 0, buffer.length);
+            }while(read == 0);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }catch(IOException exception){
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Class representing lines of a file mapped into memory. The file is
+ * read through a {@link MappedByteBuffer} instead of being copied into
+ * Strings: a file containing only ASCII characters is viewed directly
+ * as characters of the mapped bytes, any other file is decoded in chunks
+ * into a single buffer of characters. Lines are found once and remembered
+ * as offsets, every line is a {@link CharSequence} view over the content
+ * created when the line is requested. Lines are split the same way as by
+ * {@link java.util.Scanner#nextLine()}.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class MappedDocument extends AbstractList<CharSequence> implements RandomAccess {
+
+    /**
+     * Number of bytes decoded at once.
+     */
+    private static final int DECODED_CHUNK = 1 << 20;
+
+    /**
+     * Number of bytes copied at once from mapped file while looking for lines.
+     */
+    private static final int SCANNED_CHUNK = 1 << 13;
+
+    /**
+     * Private constructor - documents are created by {@link #read(File)}.
+     * @param content Characters of the whole file.
+     */
+    private MappedDocument(CharSequence content){
+        this.content = content;
+    }
+
+    /**
+     * Characters of the whole file.
+     */
+    private final CharSequence content;
+
+    /**
+     * Indexes of first characters of lines.
+     */
+    private int[] lineStarts = new int[16];
+
+    /**
+     * Indexes of characters right after lines, without line terminators.
+     */
+    private int[] lineEnds = new int[16];
+
+    /**
+     * Number of lines.
+     */
+    private int lineCount = 0;
+
+    /**
+     * Method mapping given file into memory and indexing its lines.
+     * @param file File to be read.
+     * @return Lines of the file.
+     * @throws IOException Thrown when the file cannot be read or is larger than 2 GB.
+     */
+    public static MappedDocument read(File file) throws IOException{
+        return read(file, Charset.defaultCharset());
+    }
+
+    /**
+     * Method mapping given file into memory and indexing its lines.
+     * @param file File to be read.
+     * @param charset Encoding of the file.
+     * @return Lines of the file.
+     * @throws IOException Thrown when the file cannot be read or is larger than 2 GB.
+     */
+    public static MappedDocument read(File file, Charset charset) throws IOException{
+        try(RandomAccessFile input = new RandomAccessFile(file, "r");
+            FileChannel channel = input.getChannel()){
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE){
+                throw new IOException("The file " + file + " is too large.");
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if(isAsciiCompatible(charset)){
+                MappedDocument document = new MappedDocument(new AsciiSequence(bytes, 0, (int) size));
+                if(document.indexAsciiLines(bytes)){
+                    return document;
+                }
+            }
+            MappedDocument document = new MappedDocument(decode(bytes, charset));
+            document.indexLines();
+            return document;
+        }
+    }
+
+    /**
+     * Method checking whether given encoding stores ASCII characters
+     * as single bytes equal to their codes.
+     * @param charset Checked encoding.
+     * @return True if ASCII bytes may be viewed as characters directly, false otherwise.
+     */
+    private static boolean isAsciiCompatible(Charset charset){
+        char[] ascii = new char[128];
+        for(int i = 0; i < ascii.length; i++){
+            ascii[i] = (char) i;
+        }
+        byte[] encoded = new String(ascii).getBytes(charset);
+        if(encoded.length != ascii.length){
+            return false;
+        }
+        for(int i = 0; i < encoded.length; i++){
+            if(encoded[i] != i){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method finding lines of a file, checking at the same time whether it
+     * contains only ASCII characters. The bytes are scanned in small chunks
+     * copied to a reused array, which is much faster than reading the mapped
+     * buffer byte by byte. Lines are split as in {@link #indexLines()}.
+     * @param bytes Bytes of the file.
+     * @return True if the file contains only ASCII characters, false otherwise.
+     */
+    private boolean indexAsciiLines(ByteBuffer bytes){
+        byte[] chunk = new byte[SCANNED_CHUNK];
+        ByteBuffer source = bytes.duplicate();
+        int length = source.limit();
+        int lineStart = 0;
+        boolean afterCarriageReturn = false;
+        for(int chunkStart = 0; chunkStart < length; chunkStart += chunk.length){
+            int chunkLength = Math.min(chunk.length, length - chunkStart);
+            source.get(chunk, 0, chunkLength);
+            for(int i = 0; i < chunkLength; i++){
+                byte character = chunk[i];
+                if(character < 0){
+                    lineCount = 0;
+                    return false;
+                }
+                if(character == '\n' && afterCarriageReturn){
+                    lineStart = chunkStart + i + 1;
+                }else if(character == '\n' || character == '\r'){
+                    addLine(lineStart, chunkStart + i);
+                    lineStart = chunkStart + i + 1;
+                }
+                afterCarriageReturn = character == '\r';
+            }
+        }
+        if(lineStart < length){
+            addLine(lineStart, length);
+        }
+        return true;
+    }
+
+    /**
+     * Method decoding bytes into characters, a chunk at a time.
+     * Malformed input is replaced the same way as by Scanner.
+     * @param bytes Bytes to be decoded.
+     * @param charset Encoding of the bytes.
+     * @return Decoded characters.
+     */
+    private static CharBuffer decode(ByteBuffer bytes, Charset charset){
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8,
+                (long) Math.ceil(bytes.limit() * (double) decoder.maxCharsPerByte()) + 1));
+        int size = bytes.limit();
+        while(true){
+            bytes.limit(Math.min(size, bytes.position() + DECODED_CHUNK));
+            boolean last = bytes.limit() == size;
+            CoderResult result = decoder.decode(bytes, chars, last);
+            if(result.isOverflow()){
+                chars = grow(chars);
+            }else if(last){
+                break;
+            }
+        }
+        while(decoder.flush(chars).isOverflow()){
+            chars = grow(chars);
+        }
+        chars.flip();
+        return chars;
+    }
+
+    /**
+     * Method doubling a buffer of characters.
+     * @param chars Buffer to be enlarged.
+     * @return Enlarged buffer with the same content.
+     */
+    private static CharBuffer grow(CharBuffer chars){
+        chars.flip();
+        return CharBuffer.allocate(chars.capacity() * 2).put(chars);
+    }
+
+    /**
+     * Method finding beginnings and ends of all lines. A line ends with
+     * "\r\n" or any single line terminator; a terminator at the end of
+     * the content does not begin another line.
+     */
+    private void indexLines(){
+        int length = content.length();
+        int lineStart = 0;
+        for(int i = 0; i < length; i++){
+            char character = content.charAt(i);
+            if(character == '\n' || character == '\r' || character == '\u0085'
+                    || character == '\u2028' || character == '\u2029'){
+                addLine(lineStart, i);
+                if(character == '\r' && i + 1 < length && content.charAt(i + 1) == '\n'){
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if(lineStart < length){
+            addLine(lineStart, length);
+        }
+    }
+
+    /**
+     * Method remembering position of a line.
+     * @param start Index of first character of the line.
+     * @param end Index of character after the line.
+     */
+    private void addLine(int start, int end){
+        if(lineCount == lineStarts.length){
+            lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+        }
+        lineStarts[lineCount] = start;
+        lineEnds[lineCount] = end;
+        lineCount++;
+    }
+
+    /**
+     * Getter for line of the file.
+     * @param index Index of the line.
+     * @return View of the line without its terminator.
+     */
+    @Override
+    public CharSequence get(int index){
+        if(index < 0 || index >= lineCount){
+            throw new IndexOutOfBoundsException("Line " + index + " of " + lineCount);
+        }
+        return content.subSequence(lineStarts[index], lineEnds[index]);
+    }
+
+    /**
+     * Getter for number of lines.
+     * @return Number of lines of the file.
+     */
+    @Override
+    public int size(){return this.lineCount;}
+
+    /**
+     * Class viewing ASCII bytes as characters without copying them.
+     */
+    private static class AsciiSequence implements CharSequence {
+
+        /**
+         * Constructor.
+         * @param bytes Viewed bytes.
+         * @param offset Index of first viewed byte.
+         * @param length Number of viewed bytes.
+         */
+        AsciiSequence(ByteBuffer bytes, int offset, int length){
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Viewed bytes.
+         */
+        private final ByteBuffer bytes;
+
+        /**
+         * Index of first viewed byte.
+         */
+        private final int offset;
+
+        /**
+         * Number of viewed bytes.
+         */
+        private final int length;
+
+        @Override
+        public int length(){return this.length;}
+
+        @Override
+        public char charAt(int index){
+            return (char) bytes.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end){
+            return new AsciiSequence(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString(){
+            byte[] copy = new byte[length];
+            for(int i = 0; i < length; i++){
+                copy[i] = bytes.get(offset + i);
+            }
+            return new String(copy, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class analyzing large documents on many threads. The document is split
+ * into chunks at lines beginning with '&lt;' - a token never continues past
+ * such a line, so every chunk can be tokenized on its own. Chunks are
+ * analyzed at once on a {@link ForkJoinPool}, each with its own stack of
+ * opened tags, and then stitched together in order of the document.
+ * <p>
+ * A chunk does not know tags left open by the chunks before it. Ending
+ * tags not matching any of its own opened tags are recorded as residual
+ * closes, assuming they close a tag opened earlier. The stitching pass
+ * keeps the stack of tags still open after previous chunks and checks these
+ * assumptions against it: matched residual closes pop it exactly as the
+ * sequential {@link Analyzer} would, and tags left open by the chunk are
+ * pushed onto it. A chunk whose assumption turns out wrong (an ending tag
+ * matching nothing while the chunk has its own tags opened), or which
+ * begins inside a comment started by the previous chunk, is analyzed again
+ * during stitching, starting from the real state. Errors and corrections
+ * are therefore the same, and in the same order, as found by {@link Analyzer}.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class ParallelAnalyzer {
+
+    /**
+     * Private constructor of the stitching pass.
+     * @param source Lines of the document.
+     */
+    private ParallelAnalyzer(List<? extends CharSequence> source){
+        this.source = source;
+        this.recorder = new ErrorRecorder(source, tagNames);
+        this.matcher = new TagMatcher(tagNames, openedTags, recorder, false);
+    }
+
+    /**
+     * Smallest number of lines of a chunk analyzed by a separate task.
+     */
+    public static final int MIN_CHUNK_LINES = 4096;
+
+    /**
+     * Number of chunks created for every thread of the pool, so that
+     * threads finishing early can take over work of the others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Event of an ending tag closing a tag opened before the chunk,
+     * while the chunk had no opened tags, see {@link TagMatcher}.
+     */
+    private static final int RESIDUAL = TagMatcher.RESIDUAL;
+
+    /**
+     * Event of an ending tag assumed to close a tag opened before the chunk,
+     * after closing all tags opened by the chunk with errors, see {@link TagMatcher}.
+     */
+    private static final int RESIDUAL_AFTER_UNCLOSED = TagMatcher.RESIDUAL_AFTER_UNCLOSED;
+
+    /**
+     * Number of ints describing a single event.
+     */
+    private static final int EVENT_SIZE = ErrorRecorder.EVENT_SIZE;
+
+    /**
+     * Lines of analyzed document.
+     */
+    private final List<? extends CharSequence> source;
+
+    /**
+     * Table of tag names of the whole document.
+     */
+    private final TagNameTable tagNames = new TagNameTable();
+
+    /**
+     * Stack of tags still open after stitched chunks.
+     */
+    private final TagStack openedTags = new TagStack();
+
+    /**
+     * Recorder of errors and corrections of the document.
+     */
+    private final ErrorRecorder recorder;
+
+    /**
+     * Matcher closing tags of the stitched stack by residual closes of chunks.
+     */
+    private final TagMatcher matcher;
+
+    /**
+     * Method analyzing a whole document on the common pool. Documents too
+     * small to be split, or analyzed when only one thread is available,
+     * are analyzed by {@link Analyzer} on the calling thread.
+     * @param source Lines of the document. They must not be modified afterwards.
+     * @return Result of the analysis, the same as of {@link Analyzer#analyze(List)}.
+     */
+    public static DocumentAnalysis analyze(List<? extends CharSequence> source){
+        return analyze(source, ForkJoinPool.commonPool(), MIN_CHUNK_LINES);
+    }
+
+    /**
+     * Method analyzing a whole document on given pool.
+     * @param source Lines of the document. They must not be modified afterwards.
+     * @param pool Pool analyzing chunks of the document.
+     * @param minChunkLines Smallest number of lines of a chunk.
+     * @return Result of the analysis, the same as of {@link Analyzer#analyze(List)}.
+     */
+    public static DocumentAnalysis analyze(List<? extends CharSequence> source, ForkJoinPool pool, int minChunkLines){
+        int chunkCount = Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, source.size() / Math.max(1, minChunkLines));
+        if(pool.getParallelism() < 2 || chunkCount < 2 || !(source instanceof RandomAccess)){
+            return Analyzer.analyze(source);
+        }
+        Chunk[] chunks = split(source, chunkCount);
+        if(chunks.length < 2){
+            return Analyzer.analyze(source);
+        }
+        pool.invoke(new ChunkTask(source, chunks, 0, chunks.length));
+
+        ParallelAnalyzer stitch = new ParallelAnalyzer(source);
+        boolean inComment = false;
+        for(Chunk chunk : chunks){
+            inComment = stitch.merge(chunk, inComment);
+        }
+        stitch.matcher.closeAll(source.size());
+        return stitch.recorder.toAnalysis();
+    }
+
+    /**
+     * Method splitting the document into chunks of similar size. Every chunk
+     * but the first begins with a line whose first character is '&lt;'.
+     * @param source Lines of the document.
+     * @param chunkCount Wanted number of chunks.
+     * @return Chunks in order of the document, possibly fewer than wanted.
+     */
+    private static Chunk[] split(List<? extends CharSequence> source, int chunkCount){
+        int size = source.size();
+        int[] begins = new int[chunkCount];
+        int count = 1;
+        int line = 1;
+        for(int i = 1; i < chunkCount; i++){
+            line = Math.max(line, (int) ((long) size * i / chunkCount));
+            while(line < size && !beginsWithBracket(source.get(line))){
+                line++;
+            }
+            if(line >= size){
+                break;
+            }
+            begins[count++] = line++;
+        }
+        Chunk[] chunks = new Chunk[count];
+        for(int i = 0; i < count; i++){
+            chunks[i] = new Chunk(begins[i], i + 1 < count ? begins[i + 1] : size);
+        }
+        return chunks;
+    }
+
+    /**
+     * Method checking whether a line begins with '&lt;'.
+     * @param line Line of the document.
+     * @return True if the first character of the line is '&lt;', false otherwise.
+     */
+    private static boolean beginsWithBracket(CharSequence line){
+        return line.length() > 0 && line.charAt(0) == '<';
+    }
+
+    /**
+     * Method stitching next chunk to already stitched part of the document.
+     * @param chunk Analyzed chunk.
+     * @param inComment Flag set when the previous chunk ended inside a comment.
+     * @return True if the chunk ended inside a comment, false otherwise.
+     */
+    private boolean merge(Chunk chunk, boolean inComment){
+        if(!inComment){
+            int[] ids = new int[chunk.tagNames.size()];
+            for(int id = 0; id < ids.length; id++){
+                ids[id] = tagNames.intern(chunk.tagNames.getName(id));
+            }
+            if(residualsMatch(chunk, ids)){
+                replay(chunk, ids);
+                for(int id : chunk.remainingTags){
+                    openedTags.push(ids[id]);
+                }
+                return chunk.endsInComment;
+            }
+        }
+        chunk.analyze(source, inComment, tagNames, openedTags);
+        replay(chunk, null);
+        return chunk.endsInComment;
+    }
+
+    /**
+     * Method checking whether every residual close of a chunk which closed
+     * tags opened by the chunk indeed closes a tag opened before the chunk.
+     * @param chunk Analyzed chunk.
+     * @param ids Ids of tag names of the chunk in the table of the whole document.
+     * @return True if assumptions of the chunk are right, false otherwise.
+     */
+    private boolean residualsMatch(Chunk chunk, int[] ids){
+        TagStack opened = null;
+        for(int event = 0; event < chunk.eventCount; event += EVENT_SIZE){
+            int type = chunk.events[event];
+            if(type != RESIDUAL && type != RESIDUAL_AFTER_UNCLOSED){
+                continue;
+            }
+            if(opened == null){
+                opened = openedTags.copy();
+            }
+            int tagId = ids[chunk.events[event + 3]];
+            if(opened.contains(tagId)){
+                while(opened.pop() != tagId){
+                    // tags above are closed with errors
+                }
+            }else if(type == RESIDUAL_AFTER_UNCLOSED){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method recording errors and corrections of a chunk in order they were found.
+     * @param chunk Analyzed chunk.
+     * @param ids Ids of tag names of the chunk in the table of the whole document,
+     *            null if the chunk has been analyzed with the table of the whole document.
+     */
+    private void replay(Chunk chunk, int[] ids){
+        int[] events = chunk.events;
+        for(int event = 0; event < chunk.eventCount; event += EVENT_SIZE){
+            int type = events[event];
+            int line = events[event + 1];
+            int column = events[event + 2];
+            int third = events[event + 3];
+            if(type == RESIDUAL || type == RESIDUAL_AFTER_UNCLOSED){
+                matcher.close(ids == null ? third : ids[third], line, column);
+            }else{
+                recorder.record(type, line, column, type == ErrorRecorder.NO_ENDING_TAG && ids != null ? ids[third] : third);
+            }
+        }
+    }
+
+    /**
+     * Class describing a chunk of the document and errors found in it.
+     */
+    private static final class Chunk implements TagMatcher.EventSink {
+
+        /**
+         * Constructor.
+         * @param begin Index of the first line of the chunk.
+         * @param end Index of the line after the last line of the chunk.
+         */
+        private Chunk(int begin, int end){
+            this.begin = begin;
+            this.end = end;
+        }
+
+        /**
+         * Index of the first line of the chunk.
+         */
+        private final int begin;
+
+        /**
+         * Index of the line after the last line of the chunk.
+         */
+        private final int end;
+
+        /**
+         * Table of tag names used by the last analysis of the chunk.
+         */
+        private TagNameTable tagNames;
+
+        /**
+         * Events found in the chunk, {@link #EVENT_SIZE} ints each.
+         */
+        private int[] events = new int[64];
+
+        /**
+         * Number of used ints of the events.
+         */
+        private int eventCount = 0;
+
+        /**
+         * Ids of tags opened by the chunk and still open at its end, the innermost last.
+         */
+        private int[] remainingTags;
+
+        /**
+         * Flag set when the chunk ends inside a comment.
+         */
+        private boolean endsInComment = false;
+
+        /**
+         * Method analyzing the chunk. Without a stack of opened tags the chunk
+         * is analyzed speculatively, recording residual closes; with it, the
+         * chunk is analyzed exactly as by the sequential analyzer and the stack
+         * is updated. The first chunk is always analyzed exactly.
+         * @param source Lines of the document.
+         * @param startsInComment Flag set when the chunk begins inside a comment.
+         * @param names Table used for interning tag names.
+         * @param openedTags Tags open before the chunk or null for speculative analysis.
+         */
+        private void analyze(List<? extends CharSequence> source, boolean startsInComment,
+                             TagNameTable names, TagStack openedTags){
+            boolean exact = openedTags != null || begin == 0;
+            TagStack stack = openedTags != null ? openedTags : new TagStack();
+            TagMatcher matcher = new TagMatcher(names, stack, this, !exact);
+            int offset = startsInComment ? begin - 1 : begin;
+            int lastLine = end - offset;
+            Tokenizer tokenizer = new Tokenizer(new ChunkLines(source, begin, end, startsInComment), names);
+            this.tagNames = names;
+            this.eventCount = 0;
+            this.endsInComment = false;
+
+            Token.Type type;
+            while((type = tokenizer.advance()) != null){
+                matcher.match(type, tokenizer, offset);
+                if(type == Token.Type.DECLARATION && end < source.size()
+                        && tokenizer.isTerminated() && tokenizer.getEndLine() == lastLine){
+                    this.endsInComment = true;
+                }
+            }
+
+            if(openedTags == null){
+                this.remainingTags = new int[stack.size()];
+                for(int i = remainingTags.length - 1; i >= 0; i--){
+                    remainingTags[i] = stack.pop();
+                }
+            }else{
+                this.remainingTags = null;
+            }
+        }
+
+        /**
+         * Method recording an event found in the chunk.
+         * @param type Type of the event.
+         * @param line Line of the event.
+         * @param second Second value of the event.
+         * @param third Third value of the event.
+         */
+        @Override
+        public void record(int type, int line, int second, int third){
+            if(eventCount + EVENT_SIZE > events.length){
+                events = Arrays.copyOf(events, events.length * 2);
+            }
+            events[eventCount++] = type;
+            events[eventCount++] = line;
+            events[eventCount++] = second;
+            events[eventCount++] = third;
+        }
+    }
+
+    /**
+     * Class iterating over lines of a chunk as seen by its tokenizer. A chunk
+     * followed by another one ends with an extra line "&lt;", so a tag not
+     * terminated at the end of the chunk is interrupted exactly where the next
+     * chunk begins, and a comment not closed in the chunk ends on that line.
+     * A chunk beginning inside a comment starts with an extra line "&lt;!--".
+     */
+    private static final class ChunkLines implements Iterator<CharSequence> {
+
+        /**
+         * Constructor.
+         * @param source Lines of the document.
+         * @param begin Index of the first line of the chunk.
+         * @param end Index of the line after the last line of the chunk.
+         * @param startsInComment Flag set when the chunk begins inside a comment.
+         */
+        private ChunkLines(List<? extends CharSequence> source, int begin, int end, boolean startsInComment){
+            this.source = source;
+            this.begin = begin;
+            this.end = end;
+            this.last = end < source.size() ? end : end - 1;
+            this.index = startsInComment ? begin - 1 : begin;
+        }
+
+        /**
+         * Lines of the document.
+         */
+        private final List<? extends CharSequence> source;
+
+        /**
+         * Index of the first line of the chunk.
+         */
+        private final int begin;
+
+        /**
+         * Index of the line after the last line of the chunk.
+         */
+        private final int end;
+
+        /**
+         * Index of the last returned line, including the extra line.
+         */
+        private final int last;
+
+        /**
+         * Index of the next returned line.
+         */
+        private int index;
+
+        /**
+         * Method checking whether there are more lines.
+         * @return True if there is another line, false otherwise.
+         */
+        @Override
+        public boolean hasNext(){
+            return index <= last;
+        }
+
+        /**
+         * Method returning the next line.
+         * @return The line.
+         */
+        @Override
+        public CharSequence next(){
+            if(index > last){
+                throw new NoSuchElementException();
+            }
+            int line = index++;
+            if(line < begin){
+                return "<!--";
+            }
+            return line == end ? "<" : source.get(line);
+        }
+    }
+
+    /**
+     * Task analyzing a range of chunks, split in halves until a single chunk remains.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+
+        /**
+         * Constructor.
+         * @param source Lines of the document.
+         * @param chunks All chunks of the document.
+         * @param from Index of the first analyzed chunk.
+         * @param to Index after the last analyzed chunk.
+         */
+        private ChunkTask(List<? extends CharSequence> source, Chunk[] chunks, int from, int to){
+            this.source = source;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Lines of the document.
+         */
+        private final List<? extends CharSequence> source;
+
+        /**
+         * All chunks of the document.
+         */
+        private final Chunk[] chunks;
+
+        /**
+         * Index of the first analyzed chunk.
+         */
+        private final int from;
+
+        /**
+         * Index after the last analyzed chunk.
+         */
+        private final int to;
+
+        /**
+         * Method analyzing the chunks.
+         */
+        @Override
+        protected void compute(){
+            if(to - from == 1){
+                chunks[from].analyze(source, false, new TagNameTable(), null);
+            }else{
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(source, chunks, from, middle), new ChunkTask(source, chunks, middle, to));
+            }
+        }
+    }
+}
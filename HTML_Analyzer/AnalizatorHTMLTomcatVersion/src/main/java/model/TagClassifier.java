@@ -0,0 +1,153 @@
+package model;
+
+/**
+ * Class that classifies tags and their parts by scanning characters
+ * directly. It replaces regular expressions compiled on every check,
+ * so classifying a tag neither compiles patterns nor allocates objects.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public final class TagClassifier {
+
+    /**
+     * Private constructor - class contains only static methods.
+     */
+    private TagClassifier(){}
+
+    /**
+     * Method that checks whether given text is a correct opening tag,
+     * that is an opening bracket, a lowercase letter, at least one more
+     * character and an ending bracket, all on a single line.
+     * @param tag Text to be checked.
+     * @return True if the text is a correct opening tag, false otherwise.
+     */
+    public static boolean isOpeningTag(CharSequence tag){
+        return tag != null && isBracketed(tag, 1);
+    }
+
+    /**
+     * Method that checks whether given text is a correct ending tag,
+     * that is an opening bracket followed by a slash, a lowercase letter,
+     * at least one more character and an ending bracket, all on a single line.
+     * @param endingTag Text to be checked.
+     * @return True if the text is a correct ending tag, false otherwise.
+     */
+    public static boolean isEndingTag(CharSequence endingTag){
+        return endingTag != null && endingTag.length() > 1 && endingTag.charAt(1) == '/'
+                && isBracketed(endingTag, 2);
+    }
+
+    /**
+     * Method that checks the shape shared by opening and ending tags.
+     * @param tag Text to be checked.
+     * @param nameBegin Index of first letter of tag name.
+     * @return True if the text has required shape, false otherwise.
+     */
+    private static boolean isBracketed(CharSequence tag, int nameBegin){
+        int length = tag.length();
+        if(length < nameBegin + 3 || tag.charAt(0) != '<' || tag.charAt(length - 1) != '>'
+                || !isLowercaseLetter(tag.charAt(nameBegin))){
+            return false;
+        }
+        for(int i = nameBegin + 1; i < length - 1; i++){
+            if(isLineTerminator(tag.charAt(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method that identifies kind of tag beginning at given position.
+     * @param text Text containing suspected tag.
+     * @param index Index of character suspected of being an opening bracket.
+     * @return Type of tag or null if the character does not begin a tag.
+     */
+    public static Token.Type identifyTag(CharSequence text, int index){
+        int length = text.length();
+        if(text.charAt(index) != '<' || index + 1 >= length){
+            return null;
+        }
+        char next = text.charAt(index + 1);
+        if(isLetter(next)){
+            return Token.Type.OPENING_TAG;
+        }
+        if(next == '/' && index + 2 < length && isLetter(text.charAt(index + 2))){
+            return Token.Type.ENDING_TAG;
+        }
+        if(next == '!' || next == '?'){
+            return Token.Type.DECLARATION;
+        }
+        return null;
+    }
+
+    /**
+     * Method that finds the end of tag name.
+     * @param text Text containing tag name.
+     * @param nameBegin Index of first character of tag name.
+     * @return Index of first character after tag name.
+     */
+    public static int findNameEnd(CharSequence text, int nameBegin){
+        int nameEnd = nameBegin;
+        while(nameEnd < text.length() && isNameCharacter(text.charAt(nameEnd))){
+            nameEnd++;
+        }
+        return nameEnd;
+    }
+
+    /**
+     * Method to check whether a part of text contains no uppercase letters.
+     * @param text Checked text.
+     * @param begin Index of first checked character.
+     * @param end Index of character after the last checked one.
+     * @return True if there are no uppercase letters, false otherwise.
+     */
+    public static boolean isLowercase(CharSequence text, int begin, int end){
+        for(int i = begin; i < end; i++){
+            char character = text.charAt(i);
+            if(character >= 'A' && character <= 'Z'){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method checking whether a character is an ASCII letter.
+     * @param character Checked character.
+     * @return True for a letter, false otherwise.
+     */
+    public static boolean isLetter(char character){
+        return isLowercaseLetter(character) || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * Method checking whether a character is a lowercase ASCII letter.
+     * @param character Checked character.
+     * @return True for a lowercase letter, false otherwise.
+     */
+    public static boolean isLowercaseLetter(char character){
+        return character >= 'a' && character <= 'z';
+    }
+
+    /**
+     * Method checking whether a character may be a part of tag name.
+     * @param character Checked character.
+     * @return True if the character belongs to tag name, false otherwise.
+     */
+    public static boolean isNameCharacter(char character){
+        return isLetter(character) || (character >= '0' && character <= '9')
+                || character == '-' || character == '_' || character == ':' || character == '.';
+    }
+
+    /**
+     * Method checking whether a character ends a line.
+     * @param character Checked character.
+     * @return True for a line terminator, false otherwise.
+     */
+    private static boolean isLineTerminator(char character){
+        return character == '\n' || character == '\r' || character == '\u0085'
+                || character == '\u2028' || character == '\u2029';
+    }
+}
@@ -0,0 +1,148 @@
+package model;
+
+import java.util.BitSet;
+
+/**
+ * Class applying the rules of matching tags to tokens of a document, one
+ * token at a time, keeping tags waiting for their pair on a stack.
+ * An ending tag belonging to one of the tags deeper on the stack closes
+ * every tag above it with an error, while an ending tag not matching any of
+ * opened tags is skipped. Tags not in lowercase and tags without ending
+ * bracket are errors as well. Errors are passed to an {@link EventSink} as
+ * events described by {@link ErrorRecorder}, in order of their positions,
+ * so every analyzer - sequential, parallel or incremental - finds the same
+ * errors by driving the same matcher.
+ * <p>
+ * A speculative matcher analyzes part of a document without knowing tags
+ * opened before it. An ending tag not matching any of its opened tags closes
+ * all of them with errors and is recorded as a residual close, assumed to
+ * close a tag opened before the part.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+final class TagMatcher {
+
+    /**
+     * Constructor.
+     * @param tagNames Table of tag names of ids given by the tokenizer.
+     * @param openedTags Stack of ids of tags waiting for their pair.
+     * @param sink Receiver of found errors.
+     * @param speculative Flag set when tags opened before analyzed part are not known.
+     */
+    TagMatcher(TagNameTable tagNames, TagStack openedTags, EventSink sink, boolean speculative){
+        this.openedTags = openedTags;
+        this.sink = sink;
+        this.speculative = speculative;
+        for(String voidElement : Analyzer.VOID_ELEMENTS){
+            this.voidElementIds.set(tagNames.intern(voidElement));
+        }
+    }
+
+    /**
+     * Event of an ending tag closing a tag opened before the analyzed part,
+     * while the part had no opened tags: line, column and tag id.
+     */
+    static final int RESIDUAL = 3;
+
+    /**
+     * Event of an ending tag assumed to close a tag opened before the analyzed
+     * part, after closing all tags opened by the part with errors: line, column and tag id.
+     */
+    static final int RESIDUAL_AFTER_UNCLOSED = 4;
+
+    /**
+     * Receiver of events found by the matcher.
+     */
+    interface EventSink {
+
+        /**
+         * Method receiving an event.
+         * @param type Type of the event.
+         * @param line Line of the error.
+         * @param second Second value of the event.
+         * @param third Third value of the event.
+         */
+        void record(int type, int line, int second, int third);
+    }
+
+    /**
+     * Stack of ids of tags waiting for their pair.
+     */
+    private final TagStack openedTags;
+
+    /**
+     * Receiver of found errors.
+     */
+    private final EventSink sink;
+
+    /**
+     * Flag set when tags opened before analyzed part are not known.
+     */
+    private final boolean speculative;
+
+    /**
+     * Ids of names of tags which never have an ending tag.
+     */
+    private final BitSet voidElementIds = new BitSet();
+
+    /**
+     * Method applying the rules to the current token of a tokenizer.
+     * @param type Type of the token.
+     * @param tokenizer Tokenizer positioned at the token.
+     * @param lineShift Number added to lines given by the tokenizer.
+     */
+    void match(Token.Type type, Tokenizer tokenizer, int lineShift){
+        if(type == Token.Type.TEXT){
+            return;
+        }
+        int line = tokenizer.getLine() + lineShift;
+        int column = tokenizer.getColumn();
+        int tagId = tokenizer.getNameId();
+        if(type == Token.Type.ENDING_TAG && !close(tagId, line, column) && speculative){
+            int residual = openedTags.isEmpty() ? RESIDUAL : RESIDUAL_AFTER_UNCLOSED;
+            while(!openedTags.isEmpty()){
+                sink.record(ErrorRecorder.NO_ENDING_TAG, line, column, openedTags.pop());
+            }
+            sink.record(residual, line, column, tagId);
+        }
+        if(type != Token.Type.DECLARATION && !tokenizer.isLowercase()){
+            sink.record(ErrorRecorder.NO_LOWERCASE_TAG, line, tokenizer.getNameBegin(), tokenizer.getNameEnd());
+        }
+        if(!tokenizer.isTerminated()){
+            sink.record(ErrorRecorder.NO_ENDING_BRACKET, tokenizer.getEndLine() + lineShift, tokenizer.getEndColumn(), 0);
+        }
+        if(type == Token.Type.OPENING_TAG && !tokenizer.isSelfClosing() && !voidElementIds.get(tagId)){
+            openedTags.push(tagId);
+        }
+    }
+
+    /**
+     * Method closing an opened tag by its ending tag. Tags opened after it
+     * are closed with errors placed before the ending tag.
+     * @param tagId Id of name of the ending tag.
+     * @param line Line of the ending tag.
+     * @param column Column of the ending tag.
+     * @return True if the tag was opened, false if the stack has not changed.
+     */
+    boolean close(int tagId, int line, int column){
+        if(!openedTags.contains(tagId)){
+            return false;
+        }
+        while(openedTags.peek() != tagId){
+            sink.record(ErrorRecorder.NO_ENDING_TAG, line, column, openedTags.pop());
+        }
+        openedTags.pop();
+        return true;
+    }
+
+    /**
+     * Method closing all opened tags with errors at the end of document.
+     * @param lineCount Number of lines of the document.
+     */
+    void closeAll(int lineCount){
+        while(!openedTags.isEmpty()){
+            sink.record(ErrorRecorder.NO_ENDING_TAG, lineCount, 0, openedTags.pop());
+        }
+    }
+}
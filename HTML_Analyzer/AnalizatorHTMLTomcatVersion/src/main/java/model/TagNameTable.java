@@ -0,0 +1,169 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class that assigns consecutive integer ids to tag names, so that
+ * tags can be compared and stored as primitive values. The same name
+ * always gets the same id, regardless of letter case. Names are looked
+ * up directly in the analyzed text, so a String is created only the
+ * first time a name is seen.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class TagNameTable {
+
+    /**
+     * Tag names in lowercase, indexed by their ids.
+     */
+    private String[] names = new String[16];
+
+    /**
+     * Hash codes of tag names, indexed by their ids.
+     */
+    private int[] hashes = new int[16];
+
+    /**
+     * Number of names in the table.
+     */
+    private int size = 0;
+
+    /**
+     * Open addressing hash table holding id + 1 of a name,
+     * or 0 for an empty slot. Its length is a power of two.
+     */
+    private int[] slots = new int[32];
+
+    /**
+     * Method returning id of given tag name, assigning a new one
+     * if the name has not been seen before.
+     * @param name Tag name.
+     * @return Id of the name.
+     */
+    public int intern(String name){
+        return intern(name, 0, name.length());
+    }
+
+    /**
+     * Method returning id of tag name being a part of given text,
+     * assigning a new one if the name has not been seen before.
+     * @param text Text containing tag name.
+     * @param begin Index of first character of the name.
+     * @param end Index of character after the name.
+     * @return Id of the name.
+     */
+    public int intern(CharSequence text, int begin, int end){
+        int hash = hash(text, begin, end);
+        int mask = slots.length - 1;
+        int index = hash & mask;
+        while(slots[index] != 0){
+            int id = slots[index] - 1;
+            if(hashes[id] == hash && matches(names[id], text, begin, end)){
+                return id;
+            }
+            index = (index + 1) & mask;
+        }
+        return add(text, begin, end, hash, index);
+    }
+
+    /**
+     * Method adding a new name to the table.
+     * @param text Text containing tag name.
+     * @param begin Index of first character of the name.
+     * @param end Index of character after the name.
+     * @param hash Hash code of the name.
+     * @param slot Free slot of hash table for the name.
+     * @return Id of the name.
+     */
+    private int add(CharSequence text, int begin, int end, int hash, int slot){
+        char[] name = new char[end - begin];
+        for(int i = begin; i < end; i++){
+            name[i - begin] = toLowercase(text.charAt(i));
+        }
+        if(size == names.length){
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        names[id] = new String(name);
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if(size * 2 > slots.length){
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Method doubling the hash table.
+     */
+    private void rehash(){
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for(int id = 0; id < size; id++){
+            int index = hashes[id] & mask;
+            while(slots[index] != 0){
+                index = (index + 1) & mask;
+            }
+            slots[index] = id + 1;
+        }
+    }
+
+    /**
+     * Method computing hash code of a name, ignoring letter case.
+     * @param text Text containing tag name.
+     * @param begin Index of first character of the name.
+     * @param end Index of character after the name.
+     * @return Hash code.
+     */
+    private static int hash(CharSequence text, int begin, int end){
+        int hash = 0;
+        for(int i = begin; i < end; i++){
+            hash = 31 * hash + toLowercase(text.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Method comparing stored name with a part of text, ignoring letter case.
+     * @param name Stored name in lowercase.
+     * @param text Text containing tag name.
+     * @param begin Index of first character of the name.
+     * @param end Index of character after the name.
+     * @return True if the names are equal, false otherwise.
+     */
+    private static boolean matches(String name, CharSequence text, int begin, int end){
+        if(name.length() != end - begin){
+            return false;
+        }
+        for(int i = begin; i < end; i++){
+            if(name.charAt(i - begin) != toLowercase(text.charAt(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method converting ASCII letter to lowercase.
+     * @param character Character to convert.
+     * @return Converted character.
+     */
+    private static char toLowercase(char character){
+        return character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+    }
+
+    /**
+     * Getter for tag name with given id.
+     * @param id Id of the name.
+     * @return Tag name in lowercase.
+     */
+    public String getName(int id){return this.names[id];}
+
+    /**
+     * Getter for number of names in the table.
+     * @return Number of interned names.
+     */
+    public int size(){return this.size;}
+}
@@ -0,0 +1,113 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a stack of opened tags stored as ids from
+ * {@link TagNameTable} in a growing array of ints. Apart from usual
+ * stack operations it can tell in constant time whether a tag with
+ * given id is anywhere on the stack. Nesting depth of analyzed
+ * document costs only heap memory.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class TagStack {
+
+    /**
+     * Ids of tags on the stack, the top one at index size - 1.
+     */
+    private int[] ids = new int[16];
+
+    /**
+     * Number of tags on the stack.
+     */
+    private int size = 0;
+
+    /**
+     * Number of occurrences of every id on the stack, indexed by id.
+     */
+    private int[] counts = new int[16];
+
+    /**
+     * Method putting a tag on top of the stack.
+     * @param id Id of the tag name.
+     */
+    public void push(int id){
+        if(size == ids.length){
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        if(id >= counts.length){
+            counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+        }
+        ids[size++] = id;
+        counts[id]++;
+    }
+
+    /**
+     * Method removing the tag from top of the stack.
+     * @return Id of removed tag.
+     */
+    public int pop(){
+        int id = ids[--size];
+        counts[id]--;
+        return id;
+    }
+
+    /**
+     * Getter for the tag on top of the stack.
+     * @return Id of the tag or -1 if the stack is empty.
+     */
+    public int peek(){
+        return size == 0 ? -1 : ids[size - 1];
+    }
+
+    /**
+     * Method checking whether a tag with given id is on the stack.
+     * @param id Id of the tag name.
+     * @return True if the tag is on the stack, false otherwise.
+     */
+    public boolean contains(int id){
+        return id < counts.length && counts[id] > 0;
+    }
+
+    /**
+     * Method checking whether the stack is empty.
+     * @return True if there are no tags on the stack, false otherwise.
+     */
+    public boolean isEmpty(){return this.size == 0;}
+
+    /**
+     * Getter for number of tags on the stack.
+     * @return Stack size.
+     */
+    public int size(){return this.size;}
+
+    /**
+     * Method creating a stack with the same tags.
+     * @return Copy of the stack.
+     */
+    public TagStack copy(){
+        TagStack copy = new TagStack();
+        copy.ids = Arrays.copyOf(ids, ids.length);
+        copy.counts = Arrays.copyOf(counts, counts.length);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Method copying ids of tags on the stack.
+     * @return Ids of tags, the bottom one first.
+     */
+    public int[] toArray(){
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Method removing all tags from the stack.
+     */
+    public void clear(){
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+}
@@ -0,0 +1,159 @@
+package model;
+
+/**
+ * Class representing a single lexical unit of analyzed document,
+ * produced by {@link Tokenizer}. A token knows its type, where it
+ * begins and where it ends in the document, so that errors
+ * can be reported and corrected without rescanning the lines.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class Token {
+
+    /**
+     * Enum for describing possible token types.
+     */
+    public enum Type{OPENING_TAG, ENDING_TAG, DECLARATION, TEXT}
+
+    /**
+     * Public constructor.
+     * @param type Type of the token.
+     * @param name Tag name in lowercase, null for tokens that are not tags.
+     * @param lowercase Flag telling whether tag name was written in lowercase.
+     * @param line Index of line on which the token begins.
+     * @param column Index of character at which the token begins.
+     * @param endLine Index of line on which the token ends.
+     * @param endColumn Index of character right after the token.
+     * @param terminated Flag telling whether the tag has its ending bracket.
+     * @param selfClosing Flag telling whether the tag ends with "/&gt;".
+     */
+    public Token(Type type, String name, boolean lowercase, int line, int column,
+                 int endLine, int endColumn, boolean terminated, boolean selfClosing){
+        this.type = type;
+        this.name = name;
+        this.lowercase = lowercase;
+        this.line = line;
+        this.column = column;
+        this.endLine = endLine;
+        this.endColumn = endColumn;
+        this.terminated = terminated;
+        this.selfClosing = selfClosing;
+    }
+
+    /**
+     * Type of the token.
+     */
+    private final Type type;
+
+    /**
+     * Getter for token type.
+     * @return Type of the token.
+     */
+    public Type getType(){return this.type;}
+
+    /**
+     * Tag name converted to lowercase.
+     */
+    private final String name;
+
+    /**
+     * Getter for tag name.
+     * @return Tag name in lowercase or null if the token is not a tag.
+     */
+    public String getName(){return this.name;}
+
+    /**
+     * Flag telling whether tag name was written in lowercase.
+     */
+    private final boolean lowercase;
+
+    /**
+     * Getter for lowercase flag.
+     * @return True if tag name contains no uppercase letters, false otherwise.
+     */
+    public boolean isLowercase(){return this.lowercase;}
+
+    /**
+     * Index of line on which the token begins.
+     */
+    private final int line;
+
+    /**
+     * Getter for index of line on which the token begins.
+     * @return Line index.
+     */
+    public int getLine(){return this.line;}
+
+    /**
+     * Index of character at which the token begins.
+     */
+    private final int column;
+
+    /**
+     * Getter for index of character at which the token begins.
+     * @return Character index.
+     */
+    public int getColumn(){return this.column;}
+
+    /**
+     * Index of line on which the token ends.
+     */
+    private final int endLine;
+
+    /**
+     * Getter for index of line on which the token ends.
+     * @return Line index.
+     */
+    public int getEndLine(){return this.endLine;}
+
+    /**
+     * Index of character right after the token. For an unterminated
+     * tag it is the index of the bracket which interrupted it.
+     */
+    private final int endColumn;
+
+    /**
+     * Getter for index of character right after the token.
+     * @return Character index.
+     */
+    public int getEndColumn(){return this.endColumn;}
+
+    /**
+     * Flag telling whether the tag has its ending bracket.
+     */
+    private final boolean terminated;
+
+    /**
+     * Getter for terminated flag.
+     * @return True if the tag was closed with ending bracket, false otherwise.
+     */
+    public boolean isTerminated(){return this.terminated;}
+
+    /**
+     * Flag telling whether the tag ends with "/&gt;".
+     */
+    private final boolean selfClosing;
+
+    /**
+     * Getter for self closing flag.
+     * @return True if the tag closes itself, false otherwise.
+     */
+    public boolean isSelfClosing(){return this.selfClosing;}
+
+    /**
+     * Method for obtaining index of first character of tag name.
+     * @return Character index on the line the token begins.
+     */
+    public int getNameBegin(){
+        return this.type == Type.ENDING_TAG ? this.column + 2 : this.column + 1;
+    }
+
+    /**
+     * Method for obtaining index of character right after tag name.
+     * @return Character index on the line the token begins.
+     */
+    public int getNameEnd(){
+        return getNameBegin() + (this.name == null ? 0 : this.name.length());
+    }
+}
@@ -0,0 +1,407 @@
+package model;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Class that splits document lines into a stream of tokens - tags,
+ * declarations and pieces of text. Every character of the document
+ * is visited exactly once, so the time needed to tokenize a document
+ * grows linearly with its size, no matter how long its lines are.
+ * Tags may span several lines. A tag is considered unterminated when
+ * another opening bracket or the end of document is found before its
+ * ending bracket.
+ * The tokenizer works as a cursor: {@link #advance()} moves it to the
+ * next token, which is then described by getters as a slice of the
+ * document (line and character indexes) and an interned name id.
+ * No objects are created while moving over the document; a
+ * {@link Token} is created only when {@link #getToken()} is called.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+public class Tokenizer {
+
+    /**
+     * Public constructor.
+     * @param lines Iterator over document lines to be tokenized.
+     * @param tagNames Table used for interning tag names.
+     */
+    public Tokenizer(Iterator<? extends CharSequence> lines, TagNameTable tagNames){
+        this.lines = lines;
+        this.tagNames = tagNames;
+        if(lines.hasNext()){
+            this.currentLine = lines.next();
+        }else{
+            this.currentLine = "";
+            this.endOfDocument = true;
+        }
+    }
+
+    /**
+     * Public constructor.
+     * @param lines List of document lines to be tokenized.
+     * @param tagNames Table used for interning tag names.
+     */
+    public Tokenizer(List<? extends CharSequence> lines, TagNameTable tagNames){
+        this(lines.iterator(), tagNames);
+    }
+
+    /**
+     * Public constructor using a new table of tag names.
+     * @param lines List of document lines to be tokenized.
+     */
+    public Tokenizer(List<? extends CharSequence> lines){
+        this(lines.iterator(), new TagNameTable());
+    }
+
+    /**
+     * Source of document lines.
+     */
+    private final Iterator<? extends CharSequence> lines;
+
+    /**
+     * Table used for interning tag names.
+     */
+    private final TagNameTable tagNames;
+
+    /**
+     * Getter for table used for interning tag names.
+     * @return Table of tag names.
+     */
+    public TagNameTable getTagNames(){return this.tagNames;}
+
+    /**
+     * Line the tokenizer is currently working on.
+     */
+    private CharSequence currentLine;
+
+    /**
+     * Index of line the tokenizer is currently working on.
+     */
+    private int lineIndex = 0;
+
+    /**
+     * Index of first character not yet consumed by the tokenizer.
+     */
+    private int charIndex = 0;
+
+    /**
+     * Flag set when all lines have been consumed.
+     */
+    private boolean endOfDocument = false;
+
+    /**
+     * Type of current token, null before the first
+     * and after the last token.
+     */
+    private Token.Type type;
+
+    /**
+     * Id of current tag name or -1 if current token is not a tag.
+     */
+    private int nameId;
+
+    /**
+     * Flag telling whether current tag name was written in lowercase.
+     */
+    private boolean lowercase;
+
+    /**
+     * Index of line on which current token begins.
+     */
+    private int line;
+
+    /**
+     * Index of character at which current token begins.
+     */
+    private int column;
+
+    /**
+     * Index of line on which current token ends.
+     */
+    private int endLine;
+
+    /**
+     * Index of character right after current token.
+     */
+    private int endColumn;
+
+    /**
+     * Flag telling whether current tag has its ending bracket.
+     */
+    private boolean terminated;
+
+    /**
+     * Flag telling whether current tag ends with "/&gt;".
+     */
+    private boolean selfClosing;
+
+    /**
+     * Method moving the tokenizer to the next token of the document.
+     * @return Type of the token or null at the end of document.
+     */
+    public Token.Type advance(){
+        while(!endOfDocument){
+            if(charIndex >= currentLine.length()){
+                advanceLine();
+            }else{
+                Token.Type tagType = identifyTag(charIndex);
+                if(tagType == null){
+                    readText();
+                }else{
+                    readTag(tagType);
+                }
+                return type;
+            }
+        }
+        type = null;
+        return null;
+    }
+
+    /**
+     * Getter for type of current token.
+     * @return Token type or null if there is no current token.
+     */
+    public Token.Type getType(){return this.type;}
+
+    /**
+     * Getter for id of current tag name in the table of tag names.
+     * @return Name id or -1 if current token is not a tag.
+     */
+    public int getNameId(){return this.nameId;}
+
+    /**
+     * Getter for lowercase flag of current token.
+     * @return True if tag name contains no uppercase letters, false otherwise.
+     */
+    public boolean isLowercase(){return this.lowercase;}
+
+    /**
+     * Getter for index of line on which current token begins.
+     * @return Line index.
+     */
+    public int getLine(){return this.line;}
+
+    /**
+     * Getter for index of character at which current token begins.
+     * @return Character index.
+     */
+    public int getColumn(){return this.column;}
+
+    /**
+     * Getter for index of line on which current token ends.
+     * @return Line index.
+     */
+    public int getEndLine(){return this.endLine;}
+
+    /**
+     * Getter for index of character right after current token. For an
+     * unterminated tag it is the index of the bracket which interrupted it.
+     * @return Character index.
+     */
+    public int getEndColumn(){return this.endColumn;}
+
+    /**
+     * Getter for terminated flag of current token.
+     * @return True if the tag was closed with ending bracket, false otherwise.
+     */
+    public boolean isTerminated(){return this.terminated;}
+
+    /**
+     * Getter for self closing flag of current token.
+     * @return True if the tag closes itself, false otherwise.
+     */
+    public boolean isSelfClosing(){return this.selfClosing;}
+
+    /**
+     * Method for obtaining index of first character of current tag name.
+     * @return Character index on the line the token begins.
+     */
+    public int getNameBegin(){
+        return this.type == Token.Type.ENDING_TAG ? this.column + 2 : this.column + 1;
+    }
+
+    /**
+     * Method for obtaining index of character right after current tag name.
+     * @return Character index on the line the token begins.
+     */
+    public int getNameEnd(){
+        return getNameBegin() + (this.nameId < 0 ? 0 : tagNames.getName(this.nameId).length());
+    }
+
+    /**
+     * Method creating an object describing current token.
+     * @return Current token.
+     */
+    public Token getToken(){
+        return new Token(type, nameId < 0 ? null : tagNames.getName(nameId), lowercase,
+                line, column, endLine, endColumn, terminated, selfClosing);
+    }
+
+    /**
+     * Method moving the tokenizer to the beginning of next line.
+     * At the end of document it leaves the position right after
+     * the last character of the last line.
+     * @return True if there was another line, false otherwise.
+     */
+    private boolean advanceLine(){
+        if(lines.hasNext()){
+            currentLine = lines.next();
+            lineIndex++;
+            charIndex = 0;
+            return true;
+        }
+        charIndex = currentLine.length();
+        endOfDocument = true;
+        return false;
+    }
+
+    /**
+     * Method that identifies kind of tag beginning at given position of current line.
+     * @param index Index of character suspected of being an opening bracket.
+     * @return Type of tag or null if the character does not begin a tag.
+     */
+    private Token.Type identifyTag(int index){
+        return TagClassifier.identifyTag(currentLine, index);
+    }
+
+    /**
+     * Method setting fields describing current token.
+     * @param newType Type of the token.
+     * @param newNameId Id of tag name or -1.
+     * @param newLowercase Lowercase flag.
+     * @param newLine Index of line on which the token begins.
+     * @param newColumn Index of character at which the token begins.
+     */
+    private void beginToken(Token.Type newType, int newNameId, boolean newLowercase, int newLine, int newColumn){
+        this.type = newType;
+        this.nameId = newNameId;
+        this.lowercase = newLowercase;
+        this.line = newLine;
+        this.column = newColumn;
+        this.selfClosing = false;
+    }
+
+    /**
+     * Method setting fields describing where current token ends.
+     * @param newTerminated Terminated flag.
+     */
+    private void endToken(boolean newTerminated){
+        this.endLine = lineIndex;
+        this.endColumn = charIndex;
+        this.terminated = newTerminated;
+    }
+
+    /**
+     * Method reading text up to the next tag or the end of current line.
+     */
+    private void readText(){
+        beginToken(Token.Type.TEXT, -1, true, lineIndex, charIndex);
+        charIndex++;
+        while(charIndex < currentLine.length() && identifyTag(charIndex) == null){
+            charIndex++;
+        }
+        endToken(true);
+    }
+
+    /**
+     * Method reading a tag beginning at current position. It reads tag name
+     * and then looks for the ending bracket, moving to next lines if needed.
+     * @param tagType Type of tag to be read.
+     */
+    private void readTag(Token.Type tagType){
+        if(tagType == Token.Type.DECLARATION){
+            if(startsWith("<!--", charIndex)){
+                readComment();
+                return;
+            }
+            beginToken(tagType, -1, true, lineIndex, charIndex);
+            charIndex += 2;
+        }else{
+            int nameBegin = charIndex + (tagType == Token.Type.ENDING_TAG ? 2 : 1);
+            int nameEnd = TagClassifier.findNameEnd(currentLine, nameBegin);
+            beginToken(tagType, tagNames.intern(currentLine, nameBegin, nameEnd),
+                    TagClassifier.isLowercase(currentLine, nameBegin, nameEnd), lineIndex, charIndex);
+            charIndex = nameEnd;
+        }
+
+        char previous = 0;
+        while(true){
+            if(charIndex >= currentLine.length()){
+                if(!advanceLine()){
+                    endToken(false);
+                    return;
+                }
+                continue;
+            }
+            char currentCharacter = currentLine.charAt(charIndex);
+            if(currentCharacter == '<'){
+                endToken(false);
+                return;
+            }
+            charIndex++;
+            if(currentCharacter == '>'){
+                endToken(true);
+                selfClosing = previous == '/';
+                return;
+            }
+            if(!Character.isWhitespace(currentCharacter)){
+                previous = currentCharacter;
+            }
+        }
+    }
+
+    /**
+     * Method reading a comment. A comment not closed before
+     * the end of document lasts until its end.
+     */
+    private void readComment(){
+        beginToken(Token.Type.DECLARATION, -1, true, lineIndex, charIndex);
+        charIndex += 4;
+        while(true){
+            int end = indexOf("-->", charIndex);
+            if(end >= 0){
+                charIndex = end + 3;
+                break;
+            }
+            if(!advanceLine()){
+                break;
+            }
+        }
+        endToken(true);
+    }
+
+    /**
+     * Method checking whether current line contains given text at given position.
+     * @param text Searched text.
+     * @param index Position in current line.
+     * @return True if the text has been found at the position, false otherwise.
+     */
+    private boolean startsWith(String text, int index){
+        if(index + text.length() > currentLine.length()){
+            return false;
+        }
+        for(int i = 0; i < text.length(); i++){
+            if(currentLine.charAt(index + i) != text.charAt(i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method looking for given text in current line.
+     * @param text Searched text.
+     * @param fromIndex Position from which the search starts.
+     * @return Index of the text or -1 if it has not been found.
+     */
+    private int indexOf(String text, int fromIndex){
+        for(int i = fromIndex; i + text.length() <= currentLine.length(); i++){
+            if(startsWith(text, i)){
+                return i;
+            }
+        }
+        return -1;
+    }
+}
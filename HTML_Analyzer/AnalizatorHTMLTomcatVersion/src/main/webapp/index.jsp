@@ -40,6 +40,15 @@
     <button type="submit" name="processButton_2" formaction = "myProcessDocumentServlet"
             formmethod = "get" value="showWithErrorsCorrectedButton">Process and show with errors corrected</button><br>
 
+</form>
+<form  enctype = "multipart/form-data">
+
+    <label for="batch_input">
+        You can also analyze many files or ZIP archives at once
+    </label><br>
+    <input type = "file" id="batch_input" name = "files" multiple /><br><br>
+    <button type="submit" formaction = "batchAnalysisServlet" formmethod = "post">Analyze all files</button><br>
+
 </form>
 <br><br><br>
 <form>
@@ -0,0 +1,156 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing running of analyses outside of connector threads.
+ * Tests are run both with virtual threads, where the JDK supports them,
+ * and with a pool of platform threads.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class AnalysisExecutorTest {
+
+    /**
+     * Method creating a task waiting until it is released.
+     * @param started Latch counted down when the task starts.
+     * @param release Latch the task waits for.
+     * @return Task.
+     */
+    private static Runnable blocking(CountDownLatch started, CountDownLatch release){
+        return () -> {
+            started.countDown();
+            try {
+                release.await();
+            }catch(InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    /**
+     * Method that checks that tasks are rejected once all threads are busy
+     * and the queue is full, and accepted again when the queue has room.
+     * @param virtualThreadsAllowed Whether virtual threads may be used.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void rejectWhenFull(boolean virtualThreadsAllowed) throws InterruptedException {
+        AnalysisExecutor executor = new AnalysisExecutor(2, 1, virtualThreadsAllowed);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        for(int i = 0; i < 3; i++){
+            assertTrue(executor.submit(() -> {
+                blocking(started, release).run();
+                finished.incrementAndGet();
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(executor.submit(finished::incrementAndGet));
+        assertFalse(executor.submit(finished::incrementAndGet));
+
+        release.countDown();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while(!executor.submit(finished::incrementAndGet)){
+            assertTrue(System.nanoTime() < deadline, "Queue has no room");
+            Thread.sleep(5);
+        }
+        assertTrue(executor.shutdown(5));
+        assertEquals(4, finished.get());
+    }
+
+    /**
+     * Method that checks that accepted tasks are run, no more of them at once
+     * than the number of threads.
+     * @param virtualThreadsAllowed Whether virtual threads may be used.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void runAcceptedTasks(boolean virtualThreadsAllowed){
+        AnalysisExecutor executor = new AnalysisExecutor(2, 10, virtualThreadsAllowed);
+        AtomicInteger runningTasks = new AtomicInteger();
+        AtomicInteger maxRunningTasks = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        for(int i = 0; i < 10; i++){
+            assertTrue(executor.submit(() -> {
+                maxRunningTasks.accumulateAndGet(runningTasks.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                }catch(InterruptedException exception){
+                    Thread.currentThread().interrupt();
+                }
+                runningTasks.decrementAndGet();
+                finished.incrementAndGet();
+            }));
+        }
+        assertTrue(executor.shutdown(5));
+        assertEquals(10, finished.get());
+        assertTrue(maxRunningTasks.get() <= 2);
+    }
+
+    /**
+     * Method that checks that shutdown waits for tasks already accepted,
+     * gives up after the timeout and rejects tasks submitted later.
+     * @param virtualThreadsAllowed Whether virtual threads may be used.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shutdownAfterAcceptedTasks(boolean virtualThreadsAllowed) throws InterruptedException {
+        AnalysisExecutor executor = new AnalysisExecutor(1, 2, virtualThreadsAllowed);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        assertTrue(executor.submit(blocking(started, release)));
+        assertTrue(executor.submit(finished::incrementAndGet));
+        assertTrue(executor.submit(finished::incrementAndGet));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertFalse(executor.shutdown(0));
+        assertFalse(executor.submit(finished::incrementAndGet));
+        release.countDown();
+        assertTrue(executor.shutdown(5));
+        assertEquals(2, finished.get());
+    }
+
+    /**
+     * Method that checks that a pool of daemon platform threads is used
+     * when virtual threads are not allowed or not supported by the JDK.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @Test
+    void fallBackToPlatformThreads() throws InterruptedException {
+        boolean supported = true;
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        }catch(NoSuchMethodException exception){
+            supported = false;
+        }
+        AnalysisExecutor preferred = new AnalysisExecutor(1, 1);
+        assertEquals(supported, preferred.isUsingVirtualThreads());
+        assertTrue(preferred.shutdown(5));
+
+        AnalysisExecutor executor = new AnalysisExecutor(3, 4, false);
+        assertFalse(executor.isUsingVirtualThreads());
+        assertEquals(3, executor.getThreads());
+        assertEquals(4, executor.getQueueCapacity());
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        assertTrue(executor.submit(() -> thread.set(Thread.currentThread())));
+        assertTrue(executor.shutdown(5));
+        assertTrue(thread.get().getName().startsWith("document-analysis-"));
+        assertTrue(thread.get().isDaemon());
+    }
+}
@@ -0,0 +1,66 @@
+package controller;
+
+import model.Analyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing summaries of analyses written as lines of JSON.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class AnalysisSummaryTest {
+
+    /**
+     * Method writing text as a JSON string.
+     * @param text Written text.
+     * @return JSON string with quotes.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    private static String json(String text) throws IOException {
+        StringWriter out = new StringWriter();
+        AnalysisSummary.writeJsonString(text, out);
+        return out.toString();
+    }
+
+    /**
+     * Method that checks escaping of characters of JSON strings.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    @Test
+    void escapeStrings() throws IOException {
+        assertEquals("\"plain\"", json("plain"));
+        assertEquals("\"a\\\"b\"", json("a\"b"));
+        assertEquals("\"C:\\\\dir\\\\a.html\"", json("C:\\dir\\a.html"));
+        assertEquals("\"a\\nb\\r\\n\\tc\"", json("a\nb\r\n\tc"));
+        assertEquals("\"\\u0000\\u0008\\u001f \u007f\"", json("\u0000\b\u001f \u007f"));
+        assertEquals("\"zażółć <p>\"", json("zażółć <p>"));
+    }
+
+    /**
+     * Method that checks that every summary is a single line, also when
+     * names and failures contain new lines.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    @Test
+    void writeSingleLines() throws IOException {
+        StringWriter out = new StringWriter();
+        AnalysisSummary.failed("a\nb.html", "line\nbreak", 0).writeJson(out);
+        new AnalysisSummary("c.html", Analyzer.analyze(List.of("<p>", "<B>x</b>")), true, 1_500_000).writeJson(out);
+        AnalysisSummary.writeTotalsJson(2, 1, 2, 2_000_000, out);
+
+        assertEquals(List.of("{\"file\":\"a\\nb.html\",\"error\":\"line\\nbreak\",\"millis\":0.000}",
+                "{\"file\":\"c.html\",\"lines\":2,\"noEndingTag\":1,\"noEndingBracket\":0,\"noLowercaseTag\":1,"
+                        + "\"errors\":[{\"line\":2,\"type\":\"NO_LOWERCASE_TAG\"},{\"line\":2,\"type\":\"NO_ENDING_TAG\"}],"
+                        + "\"millis\":1.500}",
+                "{\"files\":2,\"failed\":1,\"errors\":2,\"millis\":2.000}"),
+                List.of(out.toString().split("\n")));
+        assertTrue(out.toString().endsWith("}\n"));
+    }
+}
@@ -0,0 +1,114 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing reading of documents sent to the batch servlet.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class BatchAnalysisServletTest {
+
+    /**
+     * Method creating a ZIP archive.
+     * @param entries Names of entries followed by their contents.
+     * @return Bytes of the archive.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    private static byte[] zip(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ZipOutputStream archive = new ZipOutputStream(bytes)){
+            for(int i = 0; i < entries.length; i += 2){
+                archive.putNextEntry(new ZipEntry(entries[i]));
+                archive.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                archive.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Method creating text of given length.
+     * @param length Number of characters.
+     * @return Text.
+     */
+    private static String text(int length){
+        char[] characters = new char[length];
+        Arrays.fill(characters, 'x');
+        return new String(characters);
+    }
+
+    /**
+     * Method that checks that entries larger than the limit are not read,
+     * while entries after them still are.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void readEntriesUpToLimit() throws IOException {
+        ZipInputStream archive = new ZipInputStream(new ByteArrayInputStream(
+                zip("small.html", "<p></p>", "limit.html", text(20000), "large.html", text(20001), "last.html", "<b>")));
+
+        assertEquals("small.html", archive.getNextEntry().getName());
+        assertEquals("<p></p>", new String(BatchAnalysisServlet.readEntry(archive, 20000), StandardCharsets.UTF_8));
+        assertEquals("limit.html", archive.getNextEntry().getName());
+        assertEquals(20000, BatchAnalysisServlet.readEntry(archive, 20000).length);
+        assertEquals("large.html", archive.getNextEntry().getName());
+        assertNull(BatchAnalysisServlet.readEntry(archive, 20000));
+        assertEquals("last.html", archive.getNextEntry().getName());
+        assertEquals("<b>", new String(BatchAnalysisServlet.readEntry(archive, 20000), StandardCharsets.UTF_8));
+        assertNull(archive.getNextEntry());
+    }
+
+    /**
+     * Method that checks recognition of parts of request which are archives.
+     * @param contentType Content type of the part, or empty.
+     * @param filename Name of the file sent as the part.
+     * @param expected Expected result.
+     */
+    @ParameterizedTest
+    @CsvSource(value={"application/zip,docs,true", "APPLICATION/X-ZIP-COMPRESSED,docs,true", "'',DOCS.ZIP,true",
+            "text/html,index.html,false", "'',index.html,false", "application/octet-stream,site.zip,true"},
+            emptyValue = "")
+    void recognizeArchives(String contentType, String filename, boolean expected){
+        assertEquals(expected, BatchAnalysisServlet.isArchive(contentType.isEmpty() ? null : contentType, filename));
+    }
+
+    /**
+     * Method that checks recognition of streams which are ZIP archives,
+     * with the stream left at its beginning.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void recognizeZipSignatures() throws IOException {
+        BufferedInputStream archive = new BufferedInputStream(new ByteArrayInputStream(zip("a.html", "<p></p>")));
+        assertTrue(BatchAnalysisServlet.isZipArchive(archive));
+        assertEquals("a.html", new ZipInputStream(archive).getNextEntry().getName());
+        assertTrue(BatchAnalysisServlet.isZipArchive(new BufferedInputStream(new ByteArrayInputStream(zip()))));
+
+        BufferedInputStream document = new BufferedInputStream(new ByteArrayInputStream(
+                "<html><body>PK</body></html>".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(BatchAnalysisServlet.isZipArchive(document));
+        byte[] beginning = new byte[6];
+        assertEquals(6, document.readNBytes(beginning, 0, 6));
+        assertEquals("<html>", new String(beginning, StandardCharsets.UTF_8));
+        for(String body : new String[]{"", "PK", "PK\3", "PK\1\2 text"}){
+            assertFalse(BatchAnalysisServlet.isZipArchive(new BufferedInputStream(
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))), body);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static controller.TestFiles.createTree;
+import static controller.TestFiles.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing analysis of documents from the command line.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class CommandLineAnalyzerTest {
+
+    /**
+     * Tree of documents, other files and corrected documents - paths of files, each followed by its contents.
+     */
+    private static final String[] TREE = {
+            "index.html", "<p>text</p>\n",
+            "errors.html", "<P>text\n",
+            "errors.corrected.html", "<p>text</p>\n",
+            "notes.txt", "notes\n",
+            "a/b/page.htm", "<b>text</b>\n",
+            "a/page.corrected.htm", "<b>text</b>\n"
+    };
+
+    /**
+     * Result of a run of the command line.
+     */
+    private static final class Run {
+
+        /**
+         * Exit status.
+         */
+        private int status;
+
+        /**
+         * Lines written to standard output.
+         */
+        private List<String> lines;
+
+        /**
+         * Text written to standard error.
+         */
+        private String errors;
+    }
+
+    /**
+     * Method running the command line.
+     * @param input Standard input.
+     * @param args Arguments of the command line.
+     * @return Result of the run.
+     */
+    private static Run run(String input, String... args){
+        StringWriter out = new StringWriter();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Run run = new Run();
+        run.status = CommandLineAnalyzer.run(args, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                out, new PrintStream(err, true));
+        run.lines = out.toString().isEmpty() ? List.of() : List.of(out.toString().split("\n"));
+        run.errors = new String(err.toByteArray());
+        return run;
+    }
+
+    /**
+     * Method that checks expansion of a directory to its HTML documents,
+     * without corrected documents and other files.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void expandDirectory(@TempDir Path root) throws IOException {
+        createTree(root, TREE);
+        assertEquals(List.of(root.resolve("a/b/page.htm"), root.resolve("errors.html"), root.resolve("index.html")),
+                CommandLineAnalyzer.expand(root.toString()));
+        assertEquals(List.of(root.resolve("notes.txt")), CommandLineAnalyzer.expand(root.resolve("notes.txt").toString()));
+        assertEquals(List.of(root.resolve("missing.html")),
+                CommandLineAnalyzer.expand(root.resolve("missing.html").toString()));
+    }
+
+    /**
+     * Method that checks expansion of glob patterns, without corrected documents.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void expandGlob(@TempDir Path root) throws IOException {
+        createTree(root, TREE);
+        String base = root.toString() + '/';
+        assertEquals(List.of(root.resolve("errors.html"), root.resolve("index.html")),
+                CommandLineAnalyzer.expand(base + "*.html"));
+        assertEquals(List.of(root.resolve("errors.html"), root.resolve("index.html"), root.resolve("notes.txt")),
+                CommandLineAnalyzer.expand(base + "*.{html,txt}"));
+        assertEquals(List.of(root.resolve("a/b/page.htm")), CommandLineAnalyzer.expand(base + "**/*.htm"));
+        assertEquals(List.of(root.resolve("a/b/page.htm")), CommandLineAnalyzer.expand(base + "a/*/page.ht?"));
+        assertEquals(List.of(), CommandLineAnalyzer.expand(base + "a/*.htm"));
+        assertEquals(List.of(), CommandLineAnalyzer.expand(base + "missing/*.html"));
+    }
+
+    /**
+     * Method that checks paths of corrected documents.
+     * @param file Path of the original document.
+     * @param expected Expected path of the corrected document.
+     */
+    @ParameterizedTest
+    @CsvSource(value={"index.html,index.corrected.html", "a/page.htm,a/page.corrected.htm",
+            "a/b.c/README,a/b.c/README.corrected", ".hidden,.hidden.corrected", "a.b.html,a.b.corrected.html"})
+    void createCorrectedPaths(String file, String expected){
+        assertEquals(Paths.get(expected), CommandLineAnalyzer.correctedPath(Paths.get(file)));
+    }
+
+    /**
+     * Method that checks exit statuses of documents with and without errors.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void exitWithStatusOfDocuments(@TempDir Path root) throws IOException {
+        createTree(root, TREE);
+        Run clean = run("", root.resolve("index.html").toString(), root.resolve("a").toString());
+        assertEquals(CommandLineAnalyzer.EXIT_CLEAN, clean.status);
+        assertEquals(3, clean.lines.size());
+        assertTrue(clean.lines.get(2).startsWith("{\"files\":2,\"failed\":0,\"errors\":0,"));
+
+        Run errors = run("", "-t", "2", root.toString());
+        assertEquals(CommandLineAnalyzer.EXIT_ERRORS, errors.status);
+        assertEquals(4, errors.lines.size());
+        assertTrue(errors.lines.get(3).startsWith("{\"files\":3,\"failed\":0,\"errors\":2,"));
+
+        Run failed = run("", root.resolve("index.html").toString(), root.resolve("missing.html").toString());
+        assertEquals(CommandLineAnalyzer.EXIT_FAILURE, failed.status);
+        assertTrue(failed.lines.get(2).startsWith("{\"files\":2,\"failed\":1,\"errors\":0,"));
+
+        Run unmatched = run("", root.resolve("*.xhtml").toString());
+        assertEquals(CommandLineAnalyzer.EXIT_FAILURE, unmatched.status);
+        assertTrue(unmatched.lines.get(0).contains("\"error\":\"No documents match "));
+    }
+
+    /**
+     * Method that checks analysis of standard input, also when no document is given.
+     */
+    @Test
+    void analyzeStandardInput(){
+        Run given = run("<DIV>\n", "-p", "-");
+        assertEquals(CommandLineAnalyzer.EXIT_ERRORS, given.status);
+        assertTrue(given.lines.get(0).startsWith("{\"file\":\"-\",\"lines\":"));
+        assertTrue(given.lines.get(0).contains("\"errors\":[{\"line\":1,\"type\":\"NO_LOWERCASE_TAG\"}"));
+
+        Run implicit = run("<p></p>\n");
+        assertEquals(CommandLineAnalyzer.EXIT_CLEAN, implicit.status);
+        assertEquals(2, implicit.lines.size());
+    }
+
+    /**
+     * Method that checks exit statuses of options.
+     */
+    @Test
+    void exitWithStatusOfOptions(){
+        Run help = run("", "--help");
+        assertEquals(CommandLineAnalyzer.EXIT_CLEAN, help.status);
+        assertTrue(help.errors.startsWith("Usage: "));
+        assertEquals(List.of(), help.lines);
+
+        for(String[] args : new String[][]{{"-t", "0"}, {"--threads"}, {"-t", "x"}, {"--unknown"}}){
+            Run invalid = run("", args);
+            assertEquals(CommandLineAnalyzer.EXIT_FAILURE, invalid.status);
+            assertTrue(invalid.errors.contains("Usage: "));
+            assertEquals(List.of(), invalid.lines);
+        }
+    }
+
+    /**
+     * Method that checks writing of corrected documents, which are
+     * not analyzed again by following runs.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void writeCorrectedDocuments(@TempDir Path root) throws IOException {
+        write(root.resolve("errors.html"), "<P>text\n");
+        assertEquals(CommandLineAnalyzer.EXIT_ERRORS, run("", "-c", root.toString()).status);
+        assertEquals(List.of("<p>text", "</p>"), Files.readAllLines(root.resolve("errors.corrected.html")));
+
+        Run again = run("", "--", root.toString());
+        assertEquals(2, again.lines.size());
+        assertTrue(again.lines.get(1).startsWith("{\"files\":1,"));
+    }
+}
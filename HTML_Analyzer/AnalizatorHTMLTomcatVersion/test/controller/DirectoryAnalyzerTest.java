@@ -0,0 +1,163 @@
+package controller;
+
+import model.Analyzer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static controller.TestFiles.createTree;
+import static controller.TestFiles.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing analysis of directory trees.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class DirectoryAnalyzerTest {
+
+    /**
+     * Pool running tasks of tested analyzers.
+     */
+    private static final ForkJoinPool pool = new ForkJoinPool(2);
+
+    /**
+     * Method stopping the pool after all tests.
+     */
+    @AfterAll
+    static void shutdownPool(){
+        pool.shutdownNow();
+    }
+
+    /**
+     * Tree of documents with different numbers of errors - paths of files, each followed by its contents.
+     */
+    private static final String[] TREE = {
+            "clean.html", "<p>text</p>\n",
+            "a/one.html", "<p>text\n",
+            "a/b/three.htm", "<P>text\n<div\n",
+            "b/also-one.HTML", "<B>text</b>\n",
+            "b/notes.txt", "<p>not a document\n",
+            "b/empty.html", ""
+    };
+
+    /**
+     * Method returning names of documents of a report in their order.
+     * @param report Report of analysis.
+     * @return Names of documents.
+     */
+    private static List<String> names(DirectoryAnalyzer.Report report){
+        return report.getSummaries().stream().map(AnalysisSummary::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * Method that checks analysis of a tree, with the document with most errors
+     * first, documents with the same number of errors by name and documents
+     * which could not be analyzed last.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void analyzeTree(@TempDir Path root) throws IOException {
+        createTree(root, TREE);
+        DirectoryAnalyzer.Report report = new DirectoryAnalyzer(pool, root, 100).analyze(root);
+
+        String separator = root.getFileSystem().getSeparator();
+        assertEquals(List.of("a" + separator + "b" + separator + "three.htm", "a" + separator + "one.html",
+                "b" + separator + "also-one.HTML", "clean.html", "b" + separator + "empty.html"), names(report));
+        assertEquals(1, report.getFailed());
+        assertEquals(6, report.getErrorCount());
+        assertEquals(3, report.getNoMatchingTagErrors());
+        assertEquals(1, report.getNoMatchingBracketErrors());
+        assertEquals(2, report.getNoLowercaseTagErrors());
+        assertEquals(5, report.getLines());
+        assertFalse(report.isTruncated());
+    }
+
+    /**
+     * Method that checks order of summaries of a report.
+     */
+    @Test
+    void sortSummaries(){
+        List<AnalysisSummary> summaries = new ArrayList<>();
+        summaries.add(AnalysisSummary.failed("a.html", "failure", 0));
+        summaries.add(new AnalysisSummary("b.html", Analyzer.analyze(List.of("<p>")), false, 0));
+        summaries.add(new AnalysisSummary("c.html", Analyzer.analyze(List.of("<P>", "<div")), false, 0));
+        summaries.add(new AnalysisSummary("a.html", Analyzer.analyze(List.of("<b>")), false, 0));
+        summaries.add(new AnalysisSummary("d.html", Analyzer.analyze(List.of("<br>")), false, 0));
+
+        DirectoryAnalyzer.Report report = new DirectoryAnalyzer.Report(summaries, 0, false);
+        assertEquals(List.of("c.html", "a.html", "b.html", "d.html", "a.html"), names(report));
+        assertNotNull(report.getSummaries().get(4).getFailure());
+    }
+
+    /**
+     * Method that checks that only the given number of files and directories is visited.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void analyzeTreeUpToLimit(@TempDir Path root) throws IOException {
+        for(int i = 0; i < 20; i++){
+            write(root.resolve("page" + i + ".html"), "<p>text</p>\n");
+        }
+        DirectoryAnalyzer.Report report = new DirectoryAnalyzer(pool, root, 5).analyze(root);
+        assertEquals(5, report.getSummaries().size());
+        assertTrue(report.isTruncated());
+
+        report = new DirectoryAnalyzer(pool, root, 20).analyze(root);
+        assertEquals(20, report.getSummaries().size());
+        assertFalse(report.isTruncated());
+    }
+
+    /**
+     * Method that checks that trees and documents outside the root directory
+     * are not analyzed, also when given through symbolic links.
+     * @param root Temporary directory.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void rejectTreeOutsideRoot(@TempDir Path root) throws IOException {
+        createTree(root.resolve("site"), TREE);
+        write(root.resolve("private/secret.html"), "<p>secret</p>\n");
+        DirectoryAnalyzer analyzer = new DirectoryAnalyzer(pool, root.resolve("site"), 100);
+
+        assertEquals(5, analyzer.analyze(root.resolve("site/a/../b/..")).getSummaries().size());
+        assertThrows(AccessDeniedException.class, () -> analyzer.analyze(root.resolve("private")));
+        assertThrows(AccessDeniedException.class, () -> analyzer.analyze(root.resolve("site/..")));
+        assertThrows(IOException.class, () -> analyzer.analyze(root.resolve("site/missing")));
+        try {
+            Files.createSymbolicLink(root.resolve("site/link"), root.resolve("private"));
+            Files.createSymbolicLink(root.resolve("site/a/link.html"), root.resolve("private/secret.html"));
+        }catch(UnsupportedOperationException | IOException exception){
+            return;
+        }
+        assertThrows(AccessDeniedException.class, () -> analyzer.analyze(root.resolve("site/link")));
+        assertEquals(5, analyzer.analyze(root.resolve("site")).getSummaries().size());
+    }
+
+    /**
+     * Method that checks recognition of HTML documents by their names.
+     * @param name Name of the file.
+     * @param expected Expected result.
+     */
+    @ParameterizedTest
+    @CsvSource(value={"index.html,true", "INDEX.HTM,true", "page.Html,true", "notes.txt,false", "html,false",
+            "archive.html.zip,false"})
+    void recognizeHtmlFiles(String name, boolean expected){
+        assertEquals(expected, DirectoryAnalyzer.isHtmlFile(Paths.get("dir", name)));
+    }
+}
@@ -0,0 +1,126 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing writing of text escaped for HTML.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class HtmlEscaperTest {
+
+    /**
+     * Class of writer remembering every part written to it.
+     */
+    private static final class PartWriter extends Writer {
+
+        /**
+         * Written parts, in order of writing.
+         */
+        private final List<String> parts = new ArrayList<>();
+
+        @Override
+        public void write(char[] buffer, int offset, int length){
+            parts.add(new String(buffer, offset, length));
+        }
+
+        @Override
+        public void write(String text, int offset, int length){
+            parts.add(text.substring(offset, offset + length));
+        }
+
+        @Override
+        public Writer append(CharSequence text, int begin, int end){
+            parts.add(text.subSequence(begin, end).toString());
+            return this;
+        }
+
+        @Override
+        public void flush(){}
+
+        @Override
+        public void close(){}
+    }
+
+    /**
+     * Method escaping text to a string.
+     * @param text Text to be escaped.
+     * @return Escaped text.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    private static String escape(CharSequence text) throws IOException {
+        StringWriter out = new StringWriter();
+        HtmlEscaper.escape(text, out);
+        return out.toString();
+    }
+
+    /**
+     * Method that checks escaping of every special character, alone and inside text.
+     * @param text Text to be escaped.
+     * @param expected Expected escaped text.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    @ParameterizedTest
+    @CsvSource(value={"&|&amp;", "<|&lt;", ">|&gt;", "\"|&quot;", "a & b|a &amp; b",
+            "<p class=\"x\">|&lt;p class=&quot;x&quot;&gt;", "&&|&amp;&amp;", "&amp;|&amp;amp;"}, delimiter='|')
+    void escapeSpecialCharacters(String text, String expected) throws IOException {
+        assertEquals(expected, escape(text));
+        assertEquals(expected, escape(new StringBuilder(text)));
+    }
+
+    /**
+     * Method that checks escaping of apostrophes.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    @Test
+    void escapeApostrophes() throws IOException {
+        assertEquals("&#39;", escape("'"));
+        assertEquals("it&#39;s &lt;b&gt;", escape("it's <b>"));
+        assertEquals("&#39;&quot;&#39;", escape(new StringBuilder("'\"'")));
+    }
+
+    /**
+     * Method that checks that text with nothing to escape is written
+     * unchanged, at once, and that empty text writes nothing.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    @Test
+    void writePlainTextAtOnce() throws IOException {
+        PartWriter out = new PartWriter();
+        HtmlEscaper.escape("zażółć gęślą jaźń; a+b=c", out);
+        assertEquals(List.of("zażółć gęślą jaźń; a+b=c"), out.parts);
+
+        PartWriter empty = new PartWriter();
+        HtmlEscaper.escape("", empty);
+        assertEquals(List.of(), empty.parts);
+    }
+
+    /**
+     * Method that checks that runs of characters between entities are written
+     * as ranges of the text, both for strings and other character sequences.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    @Test
+    void writeRanges() throws IOException {
+        List<String> expected = List.of("ab", "&lt;", "c", "&amp;", "&gt;", "de");
+        for(CharSequence text : new CharSequence[]{"ab<c&>de", new StringBuilder("ab<c&>de"),
+                CharBuffer.wrap("xxab<c&>dexx").subSequence(2, 10)}){
+            PartWriter out = new PartWriter();
+            HtmlEscaper.escape(text, out);
+            assertEquals(expected, out.parts, text.getClass().getName());
+        }
+        assertEquals("a&lt;b", escape(CharBuffer.wrap("(a<b)").subSequence(1, 4)));
+    }
+}
@@ -0,0 +1,57 @@
+package controller;
+
+import model.AnalysisCache;
+import model.EmptyFileException;
+import model.FileManager;
+import model.IncrementalAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing processing of documents given as streams.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class ReceiverTest {
+
+    /**
+     * Method creating source of a stream of a document.
+     * @param contents Contents of the document.
+     * @return Source of the stream.
+     */
+    private static Receiver.StreamSource source(String contents){
+        return () -> new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Method that checks that results of analyses are cached and reused,
+     * while empty documents are rejected without being cached.
+     * @throws Exception Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void cacheNonEmptyDocuments() throws Exception {
+        AnalysisCache cache = new AnalysisCache(Long.MAX_VALUE);
+        IncrementalAnalyzer incrementalAnalyzer = new IncrementalAnalyzer(Long.MAX_VALUE);
+        for(int i = 0; i < 2; i++){
+            assertThrows(EmptyFileException.class, () -> new Receiver(new FileManager())
+                    .proceedDocumentGivenAsStream(source(""), null, "empty.html", cache, incrementalAnalyzer, "empty.html"));
+            assertEquals(0, cache.size());
+        }
+
+        for(int i = 0; i < 2; i++){
+            Receiver receiver = new Receiver(new FileManager());
+            receiver.proceedDocumentGivenAsStream(source("<P>text\n"), null, "a.html", cache, incrementalAnalyzer, "a.html");
+            assertEquals(List.of("<P>text\n", ""), receiver.getAnalysis().getSource());
+            assertEquals(1, receiver.getNoLowercaseTagErrors());
+        }
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHits());
+    }
+}
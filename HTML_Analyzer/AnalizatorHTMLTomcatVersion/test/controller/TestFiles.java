@@ -0,0 +1,43 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class creating documents and trees of documents for tests.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+final class TestFiles {
+
+    /**
+     * Private constructor - class contains only static methods.
+     */
+    private TestFiles(){}
+
+    /**
+     * Method writing a document, creating its directories.
+     * @param file Path of the document.
+     * @param contents Contents of the document.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    static void write(Path file, String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Method creating a tree of documents.
+     * @param root Root directory of the tree.
+     * @param files Paths of documents relative to the root, each followed by its contents.
+     * @throws IOException Exception that may occur while writing - not of interest.
+     */
+    static void createTree(Path root, String... files) throws IOException {
+        for(int i = 0; i < files.length; i += 2){
+            write(root.resolve(files[i]), files[i + 1]);
+        }
+    }
+}
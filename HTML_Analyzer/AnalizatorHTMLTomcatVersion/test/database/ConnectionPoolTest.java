@@ -0,0 +1,154 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing lending of connections by the pool.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class ConnectionPoolTest {
+
+    /**
+     * Method that checks borrowing a connection and giving it back,
+     * with uncommitted work rolled back and the connection lent again.
+     * @throws SQLException Exception that may occur while borrowing - not of interest.
+     */
+    @Test
+    void borrowAndGiveBack() throws SQLException {
+        try(StubDriver driver = new StubDriver();
+            ConnectionPool pool = new ConnectionPool(driver.getUrl(), 1, 2, 1000, 60000)){
+            assertEquals(1, pool.getIdleCount());
+            StubDriver.StubConnection physical = driver.getConnections().get(0);
+
+            Connection connection = pool.getConnection();
+            assertEquals(1, pool.getActiveCount());
+            assertEquals(0, pool.getIdleCount());
+            assertFalse(connection.isClosed());
+            connection.setAutoCommit(false);
+            assertFalse(physical.autoCommit);
+            connection.close();
+            connection.close();
+
+            assertTrue(connection.isClosed());
+            assertFalse(physical.closed);
+            assertEquals(1, physical.rollbacks);
+            assertTrue(physical.autoCommit);
+            assertEquals(0, pool.getActiveCount());
+            assertEquals(1, pool.getIdleCount());
+            assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+
+            try(Connection again = pool.getConnection()){
+                assertNotSame(connection, again);
+                assertFalse(again.isClosed());
+            }
+            assertEquals(1, driver.getConnections().size());
+        }
+    }
+
+    /**
+     * Method that checks that a caller waits no longer than the borrow timeout
+     * when all connections are lent, and gets a connection once one is given back.
+     * @throws SQLException Exception that may occur while borrowing - not of interest.
+     */
+    @Test
+    void timeOutWhenExhausted() throws SQLException {
+        try(StubDriver driver = new StubDriver();
+            ConnectionPool pool = new ConnectionPool(driver.getUrl(), 0, 1, 100, 60000)){
+            Connection connection = pool.getConnection();
+            long start = System.nanoTime();
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+            assertTrue(System.nanoTime() - start >= 90_000_000L);
+            assertEquals(1, pool.getActiveCount());
+
+            connection.close();
+            try(Connection again = pool.getConnection()){
+                assertFalse(again.isClosed());
+            }
+            assertEquals(1, driver.getConnections().size());
+        }
+    }
+
+    /**
+     * Method that checks that idle connections failing validation are
+     * closed and replaced, and that closing the pool closes idle connections.
+     * @throws SQLException Exception that may occur while borrowing - not of interest.
+     */
+    @Test
+    void discardInvalidConnections() throws SQLException {
+        try(StubDriver driver = new StubDriver()){
+            ConnectionPool pool = new ConnectionPool(driver.getUrl(), 2, 2, 1000, 60000);
+            for(StubDriver.StubConnection physical : driver.getConnections()){
+                physical.valid = false;
+            }
+            try(Connection connection = pool.getConnection()){
+                assertFalse(connection.isClosed());
+            }
+            List<StubDriver.StubConnection> connections = driver.getConnections();
+            assertEquals(3, connections.size());
+            assertTrue(connections.get(0).closed);
+            assertTrue(connections.get(1).closed);
+            assertFalse(connections.get(2).closed);
+            assertEquals(1, pool.getIdleCount());
+
+            pool.close();
+            assertTrue(connections.get(2).closed);
+            assertEquals(0, pool.getIdleCount());
+            assertThrows(SQLException.class, pool::getConnection);
+        }
+    }
+
+    /**
+     * Method that checks that a connection kept longer than the leak threshold
+     * is reported once, with the stack trace of its borrower.
+     * @throws Exception Exception that may occur while borrowing or waiting - not of interest.
+     */
+    @Test
+    void reportLeaks() throws Exception {
+        Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+        List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record){
+                if(record.getLevel() == Level.WARNING){
+                    records.add(record);
+                }
+            }
+
+            @Override
+            public void flush(){}
+
+            @Override
+            public void close(){}
+        };
+        logger.addHandler(handler);
+        try(StubDriver driver = new StubDriver();
+            ConnectionPool pool = new ConnectionPool(driver.getUrl(), 0, 3, 1000, 200)){
+            Connection leaked = pool.getConnection();
+            Thread.sleep(300);
+            pool.getConnection().close();
+            pool.getConnection().close();
+
+            assertEquals(1, records.size());
+            assertTrue(records.get(0).getMessage().endsWith(" ms ago has not been closed"));
+            assertEquals("Connection borrowed here", records.get(0).getThrown().getMessage());
+            leaked.close();
+        }finally{
+            logger.removeHandler(handler);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing reading and recording of operations in the database.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class DatabaseManagerTest {
+
+    /**
+     * Method reading the whole history page by page, following cursor
+     * of the last row of every page.
+     * @param manager Manager of the database.
+     * @param limit Size of a page.
+     * @return Rows of all pages as "file:operation" strings.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    private static List<String> readHistory(DatabaseManager manager, int limit) throws IOException {
+        List<String> rows = new ArrayList<>();
+        long[] cursor = new long[2];
+        int read;
+        do {
+            read = manager.readOperationsHistory(cursor[0], cursor[1], limit, row -> {
+                cursor[0] = row.getLong("FileID");
+                cursor[1] = row.getLong("OperationID");
+                rows.add(row.getString("FileName") + ':' + row.getString("OperationName"));
+            });
+            assertTrue(read <= limit);
+        } while(read == limit);
+        return rows;
+    }
+
+    /**
+     * Method that checks that paging through history gives every operation
+     * once, grouped by files, whatever the size of a page, and that pages are
+     * read from index on operations of files without sorting.
+     * @throws Exception Exception that may occur while accessing the database - not of interest.
+     */
+    @Test
+    void pageThroughHistory() throws Exception {
+        try(MemoryDatabase database = new MemoryDatabase()){
+            DatabaseManager manager = new DatabaseManager();
+            manager.setupDriver(database.getUrl(), null);
+            manager.setupConnection(1, 1);
+            try {
+                manager.createDatabase();
+                long a = manager.findOrCreateFile("a.html");
+                long b = manager.findOrCreateFile("b.html");
+                manager.findOrCreateFile("empty.html");
+                long c = manager.findOrCreateFile("c.html");
+                manager.recordOperation(b, "first");
+                manager.recordOperation(a, "second");
+                manager.recordOperation(c, "third");
+                manager.recordOperation(a, "fourth");
+                manager.recordOperation(b, "fifth");
+                manager.recordOperation(a, "sixth");
+
+                List<String> expected = List.of("a.html:second", "a.html:fourth", "a.html:sixth",
+                        "b.html:first", "b.html:fifth", "c.html:third");
+                for(int limit = 1; limit <= 7; limit++){
+                    assertEquals(expected, readHistory(manager, limit), "limit " + limit);
+                }
+
+                try(Connection connection = manager.getConnectionPool().getConnection();
+                    Statement stmt = connection.createStatement()){
+                    stmt.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)");
+                }
+                assertEquals(2, manager.readOperationsHistory(a, 0, 2, row -> {}));
+                String plan;
+                try(Connection connection = manager.getConnectionPool().getConnection();
+                    Statement stmt = connection.createStatement();
+                    ResultSet resultSet = stmt.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")){
+                    assertTrue(resultSet.next());
+                    plan = resultSet.getString(1);
+                }
+                assertTrue(plan.contains("Index Scan ResultSet for OPERATIONS using index OPERATIONSFILEINDEX"), plan);
+                assertFalse(plan.contains("Sort ResultSet"), plan);
+                assertFalse(plan.contains("Table Scan ResultSet"), plan);
+                assertFalse(plan.contains("Hash"), plan);
+            }catch(SQLException | IOException | AssertionError exception){
+                manager.close();
+                throw exception;
+            }
+            manager.close();
+        }
+    }
+}
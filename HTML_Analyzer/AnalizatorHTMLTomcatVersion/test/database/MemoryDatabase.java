@@ -0,0 +1,70 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class creating databases of the embedded engine kept in memory,
+ * a new one for every test, dropped when the test is finished.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+final class MemoryDatabase implements AutoCloseable {
+
+    /**
+     * Counter giving every database its own name.
+     */
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    /**
+     * SQL state reported when a database has been dropped.
+     */
+    private static final String DATABASE_DROPPED = "08006";
+
+    /**
+     * Constructor creating the database.
+     * @throws SQLException if the database cannot be created.
+     */
+    MemoryDatabase() throws SQLException {
+        this.url = "jdbc:derby:memory:test" + databases.incrementAndGet();
+        DriverManager.getConnection(url + ";create=true").close();
+    }
+
+    /**
+     * JDBC url of the database.
+     */
+    private final String url;
+
+    /**
+     * Getter for JDBC url of the database.
+     * @return Url without attributes.
+     */
+    String getUrl(){return this.url;}
+
+    /**
+     * Method opening a connection to the database.
+     * @return New connection.
+     * @throws SQLException if the connection cannot be opened.
+     */
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(url);
+    }
+
+    /**
+     * Method dropping the database.
+     * @throws SQLException if the database cannot be dropped.
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            DriverManager.getConnection(url + ";drop=true").close();
+        }catch(SQLException exception){
+            if(!DATABASE_DROPPED.equals(exception.getSQLState())){
+                throw exception;
+            }
+        }
+    }
+}
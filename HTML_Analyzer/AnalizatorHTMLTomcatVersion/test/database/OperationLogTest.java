@@ -0,0 +1,255 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing recording of operations in the background.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class OperationLogTest {
+
+    /**
+     * Class of manager remembering batches given to it instead of writing them.
+     */
+    private static class RecordingManager extends DatabaseManager {
+
+        /**
+         * Operations of batches, in order of writing.
+         */
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * Names of threads writing the batches, in order of writing.
+         */
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * Number of records of every batch reported as not written.
+         */
+        private volatile int failures = 0;
+
+        /**
+         * Method remembering a batch.
+         * @param records Operations to be written.
+         * @return Number of records reported as written.
+         */
+        @Override
+        public int recordOperations(List<OperationLog.Record> records){
+            List<String> operations = new ArrayList<>();
+            for(OperationLog.Record record : records){
+                operations.add(record.getFilename() + ':' + record.getOperation());
+            }
+            threads.add(Thread.currentThread().getName());
+            batches.add(operations);
+            return records.size() - Math.min(failures, records.size());
+        }
+    }
+
+    /**
+     * Method waiting until a condition holds.
+     * @param condition Awaited condition.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while(!condition.getAsBoolean()){
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Method that checks that a batch is written as soon as it is full,
+     * without waiting for the delay.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @Test
+    void flushFullBatch() throws InterruptedException {
+        RecordingManager manager = new RecordingManager();
+        try(OperationLog log = new OperationLog(manager, 10, 3, 60_000)){
+            long start = System.nanoTime();
+            log.record("a.html", "first");
+            log.record("b.html", "second");
+            log.record("a.html", "third");
+            await(() -> log.getFlushCount() == 1);
+            assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            assertEquals(List.of(List.of("a.html:first", "b.html:second", "a.html:third")), manager.batches);
+            assertEquals(0, log.getQueueDepth());
+        }
+    }
+
+    /**
+     * Method that checks that a batch which is not full is written
+     * once its first record has waited for the delay.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @Test
+    void flushAfterDelay() throws InterruptedException {
+        RecordingManager manager = new RecordingManager();
+        try(OperationLog log = new OperationLog(manager, 10, 100, 200)){
+            long start = System.nanoTime();
+            log.record("a.html", "first");
+            log.record("b.html", "second");
+            await(() -> log.getFlushCount() == 1);
+            assertTrue(System.nanoTime() - start >= 190_000_000L);
+            assertEquals(List.of(List.of("a.html:first", "b.html:second")), manager.batches);
+        }
+    }
+
+    /**
+     * Method that checks that a record given when the queue is full is
+     * written by the calling thread, while the writer thread is busy.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @Test
+    void writeOverflowByCaller() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingManager manager = new RecordingManager() {
+            @Override
+            public int recordOperations(List<OperationLog.Record> records){
+                if(Thread.currentThread().getName().equals("operation-log-writer") && writing.getCount() > 0){
+                    writing.countDown();
+                    try {
+                        release.await();
+                    }catch(InterruptedException exception){
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.recordOperations(records);
+            }
+        };
+        try(OperationLog log = new OperationLog(manager, 1, 1, 60_000)){
+            log.record("a.html", "first");
+            writing.await();
+            log.record("a.html", "second");
+            assertEquals(1, log.getQueueDepth());
+            log.record("a.html", "third");
+
+            assertEquals(1, log.getOverflows());
+            assertEquals(List.of(List.of("a.html:third")), manager.batches);
+            assertEquals(List.of(Thread.currentThread().getName()), manager.threads);
+            release.countDown();
+            await(() -> log.getRecordsWritten() == 3);
+            assertEquals(List.of(List.of("a.html:third"), List.of("a.html:first"), List.of("a.html:second")),
+                    manager.batches);
+        }
+    }
+
+    /**
+     * Method that checks that closing the log writes records still waiting
+     * at once, without waiting for the delay, and that records given later
+     * are written by calling threads.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @Test
+    void writeQueueOnClose() throws InterruptedException {
+        RecordingManager manager = new RecordingManager();
+        OperationLog log = new OperationLog(manager, 10, 100, 60_000);
+        for(int i = 0; i < 5; i++){
+            log.record("a.html", "op" + i);
+        }
+        await(() -> log.getQueueDepth() == 0);
+        Thread.sleep(50);
+        long start = System.nanoTime();
+        log.close();
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertEquals(5, log.getRecordsWritten());
+        assertEquals(0, log.getQueueDepth());
+        assertEquals(0, log.getOverflows());
+
+        log.record("b.html", "late");
+        assertEquals(6, log.getRecordsWritten());
+        assertEquals(1, log.getOverflows());
+        assertEquals(List.of("b.html:late"), manager.batches.get(manager.batches.size() - 1));
+    }
+
+    /**
+     * Method that checks statistics of written batches.
+     * @throws InterruptedException Exception that may occur while waiting - not of interest.
+     */
+    @Test
+    void countFlushes() throws InterruptedException {
+        RecordingManager manager = new RecordingManager() {
+            @Override
+            public int recordOperations(List<OperationLog.Record> records){
+                try {
+                    Thread.sleep(records.size() * 10L);
+                }catch(InterruptedException exception){
+                    Thread.currentThread().interrupt();
+                }
+                return super.recordOperations(records);
+            }
+        };
+        manager.failures = 1;
+        try(OperationLog log = new OperationLog(manager, 10, 2, 60_000)){
+            assertEquals(0, log.getAverageFlushMillis());
+            log.record("a.html", "first");
+            log.record("a.html", "second");
+            await(() -> log.getFlushCount() == 1);
+            log.record("a.html", "third");
+            log.record("a.html", "fourth");
+            await(() -> log.getFlushCount() == 2);
+
+            assertEquals(2, log.getRecordsWritten());
+            assertEquals(2, log.getRecordsFailed());
+            assertEquals(0, log.getOverflows());
+            assertTrue(log.getLastFlushMillis() >= 20);
+            assertTrue(log.getMaxFlushMillis() >= log.getLastFlushMillis());
+            assertTrue(log.getAverageFlushMillis() >= 20);
+            assertTrue(log.getAverageFlushMillis() <= log.getMaxFlushMillis());
+            assertTrue(log.toString().contains("written=2, failed=2, overflows=0, flushes=2"));
+        }
+    }
+
+    /**
+     * Method that checks that records of a batch rejected by the database
+     * are written one by one, so that only the invalid record is lost.
+     * @throws Exception Exception that may occur while accessing the database - not of interest.
+     */
+    @Test
+    void writeRecordsOfFailedBatch() throws Exception {
+        try(MemoryDatabase database = new MemoryDatabase()){
+            DatabaseManager manager = new DatabaseManager();
+            manager.setupDriver(database.getUrl(), null);
+            manager.setupConnection(1, 2);
+            manager.createDatabase();
+            String tooLong = String.join("", Collections.nCopies(300, "x"));
+            try(OperationLog log = new OperationLog(manager, 10, 3, 60_000)){
+                log.record("a.html", "first");
+                log.record("b.html", tooLong);
+                log.record("a.html", "third");
+                await(() -> log.getFlushCount() == 1);
+                assertEquals(2, log.getRecordsWritten());
+                assertEquals(1, log.getRecordsFailed());
+            }
+            List<String> operations = new ArrayList<>();
+            try(Connection connection = database.connect(); Statement stmt = connection.createStatement();
+                ResultSet resultSet = stmt.executeQuery("SELECT f.Name, o.Name FROM Operations o " +
+                        "JOIN Files f ON f.ID = o.FileID ORDER BY o.ID")){
+                while(resultSet.next()){
+                    operations.add(resultSet.getString(1) + ':' + resultSet.getString(2));
+                }
+            }catch(SQLException exception){
+                manager.close();
+                throw exception;
+            }
+            manager.close();
+            assertEquals(List.of("a.html:first", "a.html:third"), operations);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing bringing database schema up to date.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class SchemaMigrationTest {
+
+    /**
+     * Method reading rows of a query as strings with columns separated with ':'.
+     * @param connection Connection to the database.
+     * @param query Text of the query.
+     * @return Rows of the query.
+     * @throws SQLException Exception that may occur while reading - not of interest.
+     */
+    private static List<String> query(Connection connection, String query) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try(Statement stmt = connection.createStatement(); ResultSet resultSet = stmt.executeQuery(query)){
+            int columns = resultSet.getMetaData().getColumnCount();
+            while(resultSet.next()){
+                StringBuilder row = new StringBuilder();
+                for(int i = 1; i <= columns; i++){
+                    row.append(i > 1 ? ":" : "").append(resultSet.getString(i));
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Method that checks migration of a new database and that
+     * migrating it again applies nothing.
+     * @throws SQLException Exception that may occur while migrating - not of interest.
+     */
+    @Test
+    void migrateNewDatabase() throws SQLException {
+        try(MemoryDatabase database = new MemoryDatabase(); Connection connection = database.connect()){
+            assertEquals(SchemaMigration.getLatestVersion(), SchemaMigration.migrate(connection));
+            assertEquals(SchemaMigration.getLatestVersion(), SchemaMigration.migrate(connection));
+            assertEquals(List.of(String.valueOf(SchemaMigration.getLatestVersion())),
+                    query(connection, "SELECT COUNT(*) FROM SchemaVersion"));
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    /**
+     * Method that checks migration of a database whose tables were created
+     * before file names were unique, with files recorded more than once.
+     * Operations of such files are moved to the first of them.
+     * @throws SQLException Exception that may occur while migrating - not of interest.
+     */
+    @Test
+    void mergeDuplicateFiles() throws SQLException {
+        try(MemoryDatabase database = new MemoryDatabase(); Connection connection = database.connect();
+            Statement stmt = connection.createStatement()){
+            stmt.execute("CREATE TABLE Files (ID int NOT NULL GENERATED ALWAYS AS IDENTITY, " +
+                    "Name varchar(255), PRIMARY KEY (ID))");
+            stmt.execute("CREATE TABLE Operations (ID int NOT NULL GENERATED ALWAYS AS IDENTITY, " +
+                    "Name varchar(255), FileID int, PRIMARY KEY (ID))");
+            stmt.execute("INSERT INTO Files (Name) VALUES ('a.html'), ('b.html'), ('a.html'), (NULL), (NULL), ('a.html')");
+            stmt.execute("INSERT INTO Operations (Name, FileID) VALUES " +
+                    "('first', 1), ('second', 3), ('third', 6), ('fourth', 2), ('fifth', 5), ('sixth', 4)");
+
+            assertEquals(SchemaMigration.getLatestVersion(), SchemaMigration.migrate(connection));
+            assertEquals(List.of("1:a.html", "2:b.html", "4:null"), query(connection, "SELECT ID, Name FROM Files ORDER BY ID"));
+            assertEquals(List.of("first:1", "second:1", "third:1", "fourth:2", "fifth:4", "sixth:4"),
+                    query(connection, "SELECT Name, FileID FROM Operations ORDER BY ID"));
+            SQLException duplicate = assertThrows(SQLException.class,
+                    () -> stmt.execute("INSERT INTO Files (Name) VALUES ('b.html')"));
+            assertEquals("23505", duplicate.getSQLState());
+        }
+    }
+}
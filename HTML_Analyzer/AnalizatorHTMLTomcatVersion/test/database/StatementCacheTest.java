@@ -0,0 +1,135 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing caching of prepared statements of a connection.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class StatementCacheTest {
+
+    /**
+     * Method that checks that a statement is prepared once for every text
+     * and kind on every connection, also when the connection is lent by the pool.
+     * @throws SQLException Exception that may occur while preparing - not of interest.
+     */
+    @Test
+    void prepareOncePerConnection() throws SQLException {
+        try(StubDriver driver = new StubDriver()){
+            AtomicLong prepared = new AtomicLong();
+            AtomicLong reused = new AtomicLong();
+            Connection first = driver.connect(driver.getUrl(), null);
+            Connection second = driver.connect(driver.getUrl(), null);
+            StatementCache firstCache = new StatementCache(first, 4, prepared, reused);
+            StatementCache secondCache = new StatementCache(second, 4, prepared, reused);
+            for(int i = 0; i < 3; i++){
+                firstCache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS, first).close();
+                secondCache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS, second).close();
+            }
+            firstCache.prepare("SELECT 1", Statement.RETURN_GENERATED_KEYS, first).close();
+
+            List<StubDriver.StubConnection> connections = driver.getConnections();
+            assertEquals(2, connections.get(0).statements.size());
+            assertEquals(1, connections.get(1).statements.size());
+            assertEquals(3, prepared.get());
+            assertEquals(4, reused.get());
+            assertEquals(2, firstCache.size());
+
+            try(ConnectionPool pool = new ConnectionPool(driver.getUrl(), 1, 1, 1000, 60000)){
+                for(int i = 0; i < 3; i++){
+                    try(Connection connection = pool.getConnection();
+                        PreparedStatement statement = connection.prepareStatement("SELECT 2")){
+                        assertSame(connection, statement.getConnection());
+                    }
+                }
+                assertEquals(1, driver.getConnections().get(2).statements.size());
+                assertEquals(1, pool.getStatementsPrepared());
+                assertEquals(2, pool.getStatementsReused());
+            }
+        }
+    }
+
+    /**
+     * Method that checks that closing a handle clears parameters and batch
+     * of the statement instead of closing it, and that a statement still in use
+     * is not shared.
+     * @throws SQLException Exception that may occur while preparing - not of interest.
+     */
+    @Test
+    void clearStatementOnClose() throws SQLException {
+        try(StubDriver driver = new StubDriver()){
+            Connection connection = driver.connect(driver.getUrl(), null);
+            StatementCache cache = new StatementCache(connection, 4, new AtomicLong(), new AtomicLong());
+            PreparedStatement handle = cache.prepare("INSERT", Statement.NO_GENERATED_KEYS, connection);
+            handle.setInt(1, 5);
+            handle.addBatch();
+            handle.setString(2, "text");
+            StubDriver.StubStatement statement = driver.getConnections().get(0).statements.get(0);
+            assertEquals(List.of(Map.of(1, 5)), statement.batch);
+
+            PreparedStatement separate = cache.prepare("INSERT", Statement.NO_GENERATED_KEYS, connection);
+            assertEquals(2, driver.getConnections().get(0).statements.size());
+            separate.close();
+
+            handle.close();
+            assertTrue(handle.isClosed());
+            assertFalse(statement.closed);
+            assertTrue(statement.parameters.isEmpty());
+            assertTrue(statement.batch.isEmpty());
+            assertThrows(SQLException.class, () -> handle.setInt(1, 6));
+
+            PreparedStatement again = cache.prepare("INSERT", Statement.NO_GENERATED_KEYS, connection);
+            assertFalse(again.isClosed());
+            again.setInt(1, 7);
+            assertEquals(Map.of(1, 7), statement.parameters);
+            again.close();
+
+            cache.close();
+            assertTrue(statement.closed);
+            assertEquals(0, cache.size());
+        }
+    }
+
+    /**
+     * Method that checks that the least recently used statement is closed
+     * when the cache grows over its capacity.
+     * @throws SQLException Exception that may occur while preparing - not of interest.
+     */
+    @Test
+    void evictLeastRecentlyUsed() throws SQLException {
+        try(StubDriver driver = new StubDriver()){
+            Connection connection = driver.connect(driver.getUrl(), null);
+            AtomicLong prepared = new AtomicLong();
+            StatementCache cache = new StatementCache(connection, 2, prepared, new AtomicLong());
+            cache.prepare("A", Statement.NO_GENERATED_KEYS, connection).close();
+            cache.prepare("B", Statement.NO_GENERATED_KEYS, connection).close();
+            cache.prepare("A", Statement.NO_GENERATED_KEYS, connection).close();
+            cache.prepare("C", Statement.NO_GENERATED_KEYS, connection).close();
+
+            List<StubDriver.StubStatement> statements = driver.getConnections().get(0).statements;
+            assertEquals(3, statements.size());
+            assertFalse(statements.get(0).closed);
+            assertTrue(statements.get(1).closed);
+            assertFalse(statements.get(2).closed);
+            assertEquals(2, cache.size());
+
+            cache.prepare("B", Statement.NO_GENERATED_KEYS, connection).close();
+            assertEquals(4, prepared.get());
+            assertTrue(statements.get(0).closed);
+            assertFalse(statements.get(2).closed);
+            assertFalse(statements.get(3).closed);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Class of JDBC driver registered for a single test, whose connections
+ * and statements only record calls made on them, so that classes managing
+ * connections may be tested without a database.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+final class StubDriver implements Driver, AutoCloseable {
+
+    /**
+     * Counter giving every driver its own url.
+     */
+    private static final AtomicInteger drivers = new AtomicInteger();
+
+    /**
+     * Constructor registering the driver.
+     * @throws SQLException if the driver cannot be registered.
+     */
+    StubDriver() throws SQLException {
+        this.url = "jdbc:stub:test" + drivers.incrementAndGet();
+        DriverManager.registerDriver(this);
+    }
+
+    /**
+     * Url of connections opened by the driver.
+     */
+    private final String url;
+
+    /**
+     * Getter for url of connections opened by the driver.
+     * @return JDBC url.
+     */
+    String getUrl(){return this.url;}
+
+    /**
+     * Connections opened by the driver, in order of opening.
+     */
+    private final List<StubConnection> connections = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Getter for connections opened by the driver.
+     * @return Copy of list of connections, in order of opening.
+     */
+    List<StubConnection> getConnections(){
+        synchronized(connections){
+            return new ArrayList<>(connections);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info){
+        if(!acceptsURL(url)){
+            return null;
+        }
+        StubConnection connection = new StubConnection();
+        connections.add(connection);
+        return connection.proxy;
+    }
+
+    @Override
+    public boolean acceptsURL(String url){return this.url.equals(url);}
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info){return new DriverPropertyInfo[0];}
+
+    @Override
+    public int getMajorVersion(){return 1;}
+
+    @Override
+    public int getMinorVersion(){return 0;}
+
+    @Override
+    public boolean jdbcCompliant(){return false;}
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Method deregistering the driver.
+     * @throws SQLException if the driver cannot be deregistered.
+     */
+    @Override
+    public void close() throws SQLException {
+        DriverManager.deregisterDriver(this);
+    }
+
+    /**
+     * Method returning the value for methods without a recorded result.
+     * @param method Called method.
+     * @return Default value of return type of the method.
+     */
+    private static Object defaultValue(Method method){
+        Class<?> type = method.getReturnType();
+        if(type == boolean.class){
+            return false;
+        }
+        if(type == int.class){
+            return 0;
+        }
+        if(type == long.class){
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * Class of connection recording calls made on it.
+     */
+    static final class StubConnection implements InvocationHandler {
+
+        /**
+         * Connection given to the caller.
+         */
+        private final Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, this);
+
+        /**
+         * Flag cleared to make validation of the connection fail.
+         */
+        volatile boolean valid = true;
+
+        /**
+         * Flag set when the connection has been closed.
+         */
+        volatile boolean closed = false;
+
+        /**
+         * Auto-commit mode of the connection.
+         */
+        volatile boolean autoCommit = true;
+
+        /**
+         * Number of rollbacks.
+         */
+        volatile int rollbacks = 0;
+
+        /**
+         * Statements prepared on the connection, in order of preparing.
+         */
+        final List<StubStatement> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            switch(method.getName()){
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return valid && !closed;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rollbacks++;
+                    return null;
+                case "prepareStatement":
+                    if(closed){
+                        throw new SQLException("Connection is closed");
+                    }
+                    StubStatement statement = new StubStatement((String) args[0], this.proxy);
+                    statements.add(statement);
+                    return statement.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StubConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return defaultValue(method);
+            }
+        }
+    }
+
+    /**
+     * Class of prepared statement recording parameters and batches set on it.
+     */
+    static final class StubStatement implements InvocationHandler {
+
+        /**
+         * Constructor.
+         * @param sql Text of the statement.
+         * @param connection Connection the statement was prepared on.
+         */
+        private StubStatement(String sql, Connection connection){
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        /**
+         * Statement given to the caller.
+         */
+        private final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+
+        /**
+         * Text of the statement.
+         */
+        final String sql;
+
+        /**
+         * Connection the statement was prepared on.
+         */
+        private final Connection connection;
+
+        /**
+         * Values of parameters by their indexes.
+         */
+        final Map<Integer, Object> parameters = new HashMap<>();
+
+        /**
+         * Parameters of commands added to the batch.
+         */
+        final List<Map<Integer, Object>> batch = new ArrayList<>();
+
+        /**
+         * Flag set when the statement has been closed.
+         */
+        volatile boolean closed = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            String name = method.getName();
+            if(!name.equals("close") && !name.equals("isClosed") && closed){
+                throw new SQLException("Statement is closed");
+            }
+            switch(name){
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "clearParameters":
+                    parameters.clear();
+                    return null;
+                case "addBatch":
+                    batch.add(new HashMap<>(parameters));
+                    return null;
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "executeBatch":
+                    int[] counts = new int[batch.size()];
+                    batch.clear();
+                    return counts;
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StubStatement[" + sql + "]";
+                default:
+                    if(name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer){
+                        parameters.put((Integer) args[0], args[1]);
+                        return null;
+                    }
+                    return defaultValue(method);
+            }
+        }
+    }
+}
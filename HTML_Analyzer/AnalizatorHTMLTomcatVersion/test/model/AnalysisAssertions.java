@@ -0,0 +1,44 @@
+package model;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class of assertions comparing results of analyzers with the sequential analyzer.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+final class AnalysisAssertions {
+
+    /**
+     * Private constructor - class contains only static methods.
+     */
+    private AnalysisAssertions(){}
+
+    /**
+     * Method checking that result of analysis is the same as of the sequential analyzer:
+     * numbers of errors, their lines and types, lines with error information
+     * and corrected lines.
+     * @param lines Lines of the document.
+     * @param result Tested result.
+     */
+    static void assertSameAsSequential(List<String> lines, DocumentAnalysis result){
+        DocumentAnalysis expected = Analyzer.analyze(lines);
+
+        assertEquals(expected.getNoMatchingTagErrors(), result.getNoMatchingTagErrors());
+        assertEquals(expected.getNoMatchingBracketErrors(), result.getNoMatchingBracketErrors());
+        assertEquals(expected.getNoLowercaseTagErrors(), result.getNoLowercaseTagErrors());
+        assertEquals(expected.getErrorCount(), result.getErrorCount());
+        for(int i = 0; i < expected.getErrorCount(); i++){
+            assertEquals(expected.getErrorLine(i), result.getErrorLine(i));
+            assertEquals(expected.getErrorType(i), result.getErrorType(i));
+        }
+        assertEquals(expected.streamLinesWithErrorInfo().collect(Collectors.toList()),
+                result.streamLinesWithErrorInfo().collect(Collectors.toList()));
+        assertEquals(expected.streamCorrectedLines().collect(Collectors.toList()),
+                result.streamCorrectedLines().collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing caching results of analyses.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class AnalysisCacheTest {
+
+    /**
+     * Method creating key of a document.
+     * @param document Contents of the document.
+     * @return Key of the document.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    private ContentKey keyOf(String document) throws IOException {
+        return ContentKey.of(StandardCharsets.UTF_8,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test that checks whether equal contents get equal keys and different contents different ones.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void createKeys() throws IOException {
+        assertEquals(keyOf("<a><b></a>"), keyOf("<a><b></a>"));
+        assertNotEquals(keyOf("<a><b></a>"), keyOf("<a><b></a> "));
+        assertNotEquals(keyOf("<a><b></a>"), keyOf("<a><c></a>"));
+        assertNotEquals(keyOf(""), ContentKey.of(StandardCharsets.ISO_8859_1, new ByteArrayInputStream(new byte[0])));
+        assertEquals(10, keyOf("<a><b></a>").getLength());
+        assertEquals(32, keyOf("<a><b></a>").getDigest().length);
+    }
+
+    /**
+     * Test that checks whether a cached result renders the same views for the same lines.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void reuseResult() throws IOException {
+        List<String> lines = Arrays.asList("<A>", "<b>", "</a>");
+        DocumentAnalysis analysis = Analyzer.analyze(lines);
+        AnalysisCache cache = new AnalysisCache(1 << 20);
+        assertNull(cache.get(keyOf("<A>\n<b>\n</a>")));
+        cache.put(keyOf("<A>\n<b>\n</a>"), analysis.detach());
+
+        DocumentAnalysis cached = cache.get(keyOf("<A>\n<b>\n</a>"));
+        assertTrue(cached.getSource().isEmpty());
+        assertNull(cached.attach(Arrays.asList("<A>", "<b>")));
+        assertNull(cached.attach(Arrays.asList("<A>", "<b", "</a>")));
+        DocumentAnalysis attached = cached.attach(lines);
+        assertEquals(analysis.getNoMatchingTagErrors(), attached.getNoMatchingTagErrors());
+        assertEquals(analysis.streamCorrectedLines().collect(Collectors.toList()),
+                attached.streamCorrectedLines().collect(Collectors.toList()));
+        assertEquals(analysis.streamLinesWithErrorInfo().collect(Collectors.toList()),
+                attached.streamLinesWithErrorInfo().collect(Collectors.toList()));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Test that checks whether least recently used results are evicted
+     * when their total size exceeds the limit.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @Test
+    void evictLeastRecentlyUsed() throws IOException {
+        DocumentAnalysis analysis = Analyzer.analyze(Arrays.asList("<a>", "<b>")).detach();
+        AnalysisCache cache = new AnalysisCache(2 * analysis.estimateSize());
+        cache.put(keyOf("first"), analysis);
+        cache.put(keyOf("second"), analysis);
+        assertNotNull(cache.get(keyOf("first")));
+        cache.put(keyOf("third"), analysis);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(keyOf("second")));
+        assertNotNull(cache.get(keyOf("first")));
+        assertNotNull(cache.get(keyOf("third")));
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+    }
+}
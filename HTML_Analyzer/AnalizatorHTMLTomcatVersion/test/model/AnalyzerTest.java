@@ -10,6 +10,9 @@ import org.junit.runners.Parameterized;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -113,4 +116,110 @@ class AnalyzerTest {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Method that checks whether deeply nested documents are analyzed
+     * without running out of call stack.
+     * @param depth Number of nested tags.
+     */
+    @ParameterizedTest
+    @ValueSource(ints={10000, 100000})
+    void checkTagPairDeeplyNested(int depth) {
+        Analyzer testAnalyzer = new Analyzer();
+        ArrayList<String> testInputDocument = new ArrayList<>();
+        for(int i = 0; i < depth; i++){
+            testInputDocument.add("<div>");
+        }
+        for(int i = 0; i < depth - 1; i++){
+            testInputDocument.add("</div>");
+        }
+        testAnalyzer.setAnalyzedLines(testInputDocument);
+        testAnalyzer.checkTagPair("", false);
+
+        assertEquals(1, testAnalyzer.getNoMatchingTagErrors());
+        assertEquals(0, testAnalyzer.getNoMatchingBracketErrors());
+        assertEquals(0, testAnalyzer.getNoLowercaseTagErrors());
+    }
+
+    /**
+     * Method that checks error counts for documents with misplaced tags.
+     * @param document Lines of the document separated with '|'.
+     * @param noEndingTagErrors Expected number of missing ending tags.
+     * @param noEndingBracketErrors Expected number of missing ending brackets.
+     * @param noLowercaseTagErrors Expected number of tags not in lowercase.
+     */
+    @ParameterizedTest
+    @CsvSource({"<a><b></a>,1,0,0", "<div><p>x</b></p></div>,0,0,0", "<DIV>x</DIV>,0,0,2",
+            "<ul><li>one<li>two</ul>,2,0,0", "<p|<q>|</q>,1,1,0", "<br><img src=x/><p>,1,0,0"})
+    void checkTagPairErrorCounts(String document, int noEndingTagErrors,
+                                 int noEndingBracketErrors, int noLowercaseTagErrors) {
+        Analyzer testAnalyzer = new Analyzer();
+        testAnalyzer.setAnalyzedLines(new ArrayList<>(Arrays.asList(document.split("\\|"))));
+        testAnalyzer.checkTagPair("", false);
+
+        assertEquals(noEndingTagErrors, testAnalyzer.getNoMatchingTagErrors());
+        assertEquals(noEndingBracketErrors, testAnalyzer.getNoMatchingBracketErrors());
+        assertEquals(noLowercaseTagErrors, testAnalyzer.getNoLowercaseTagErrors());
+    }
+
+    /**
+     * Method that checks whether all corrections of a line are applied.
+     * @param document Line of the document.
+     * @param corrected Expected corrected line.
+     */
+    @ParameterizedTest
+    @CsvSource({"<DIV>x</DIV>,<div>x</div>", "<a><B><i></b></A>,<a><b><i></i></b></a>",
+            "<ul><li>one<li>two</ul>,<ul><li>one<li>two</li></li></ul>"})
+    void checkTagPairCorrections(String document, String corrected) {
+        Analyzer testAnalyzer = new Analyzer();
+        testAnalyzer.setAnalyzedLines(new ArrayList<>(Arrays.asList(document)));
+        testAnalyzer.checkTagPair("", false);
+
+        assertEquals(Arrays.asList(corrected), testAnalyzer.getCorrectedLines());
+    }
+
+    /**
+     * Method that checks whether documents analyzed concurrently
+     * get the same results as when analyzed one by one.
+     * @param document Lines of the document separated with '|'.
+     */
+    @ParameterizedTest
+    @ValueSource(strings={"<a><b></a>", "<DIV>x</DIV>", "<p|<q>|</q>", "<ul><li>one<li>two</ul>"})
+    void analyzeConcurrently(String document) {
+        List<String> lines = Arrays.asList(document.split("\\|"));
+        DocumentAnalysis expected = Analyzer.analyze(lines);
+        List<DocumentAnalysis> results = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> Analyzer.analyze(lines))
+                .collect(Collectors.toList());
+
+        for(DocumentAnalysis result : results){
+            assertEquals(expected.getNoMatchingTagErrors(), result.getNoMatchingTagErrors());
+            assertEquals(expected.getNoMatchingBracketErrors(), result.getNoMatchingBracketErrors());
+            assertEquals(expected.getNoLowercaseTagErrors(), result.getNoLowercaseTagErrors());
+            assertEquals(expected.streamLinesWithErrorInfo().collect(Collectors.toList()),
+                    result.streamLinesWithErrorInfo().collect(Collectors.toList()));
+            assertEquals(expected.streamCorrectedLines().collect(Collectors.toList()),
+                    result.streamCorrectedLines().collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Method that checks whether a document analyzed while its lines are
+     * read gets the same results as a document read before the analysis.
+     * @param document Lines of the document separated with '|'.
+     */
+    @ParameterizedTest
+    @ValueSource(strings={"<a><b></a>", "<DIV>x</DIV>", "<p|<q>|</q>", "<ul>|<li>one<li>two|</ul>|<b"})
+    void analyzeWhileReading(String document) {
+        List<String> lines = Arrays.asList(document.split("\\|"));
+        DocumentAnalysis expected = Analyzer.analyze(lines);
+        DocumentAnalysis result = Analyzer.analyze(lines.iterator());
+
+        assertEquals(lines, result.getSource());
+        assertEquals(expected.getErrorCount(), result.getErrorCount());
+        assertEquals(expected.streamLinesWithErrorInfo().collect(Collectors.toList()),
+                result.streamLinesWithErrorInfo().collect(Collectors.toList()));
+        assertEquals(expected.streamCorrectedLines().collect(Collectors.toList()),
+                result.streamCorrectedLines().collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,55 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing applying corrections to documents.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class EditListTest {
+
+    /**
+     * Test that checks whether several edits of the same line are all applied.
+     */
+    @Test
+    void applyManyEditsInLine() {
+        EditList edits = new EditList();
+        edits.replace(0, 1, 4, "div");
+        edits.insert(0, 7, ">");
+        edits.insert(0, 7, "</p>");
+        edits.replace(0, 9, 12, "div");
+        List<String> corrected = edits.apply(Arrays.asList("<DIV><p</DIV>", "<b>"));
+        assertEquals(Arrays.asList("<div><p></p></div>", "<b>"), corrected);
+    }
+
+    /**
+     * Test that checks whether edits added out of order are applied in order of positions.
+     */
+    @Test
+    void applyUnorderedEdits() {
+        EditList edits = new EditList();
+        edits.insert(1, 0, "</a>");
+        edits.insert(0, 2, "-");
+        edits.append("</html>");
+        List<String> corrected = edits.apply(Arrays.asList("ab", "cd"));
+        assertEquals(Arrays.asList("ab-", "</a>cd", "</html>"), corrected);
+        assertEquals(3, edits.size());
+    }
+
+    /**
+     * Test that checks whether lines without edits are left untouched.
+     */
+    @Test
+    void applyNoEdits() {
+        List<String> lines = new ArrayList<>(Arrays.asList("<a>", "</a>"));
+        assertEquals(lines, new EditList().apply(lines));
+    }
+}
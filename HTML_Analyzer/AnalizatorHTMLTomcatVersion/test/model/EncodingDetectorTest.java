@@ -0,0 +1,59 @@
+package model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing detection of encoding of uploaded documents.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class EncodingDetectorTest {
+
+    /**
+     * Test that checks which of declared encodings is chosen.
+     * @param contentType Content type of the document.
+     * @param document Beginning of the document.
+     * @param expected Name of expected encoding.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "text/html; charset=ISO-8859-2|<html>|ISO-8859-2",
+            "text/html; charset=\"windows-1250\"|<html>|windows-1250",
+            "text/html|<meta charset=\"iso-8859-2\">|ISO-8859-2",
+            "|<META http-equiv=Content-Type content='text/html; charset=windows-1250'>|windows-1250",
+            "text/html; charset=unknown|<html>|UTF-8",
+            "|<p>no declaration</p>|UTF-8"})
+    void detectDeclared(String contentType, String document, String expected) throws IOException {
+        InputStream stream = new BufferedInputStream(
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals(Charset.forName(expected), EncodingDetector.detect(contentType, stream));
+        assertEquals('<', stream.read());
+    }
+
+    /**
+     * Test that checks whether byte order mark takes precedence and is skipped.
+     * @param charsetName Name of encoding of the document.
+     * @throws IOException Exception that may occur while reading - not of interest.
+     */
+    @ParameterizedTest
+    @CsvSource({"UTF-8", "UTF-16BE", "UTF-16LE"})
+    void detectByteOrderMark(String charsetName) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        InputStream stream = new BufferedInputStream(
+                new ByteArrayInputStream("\uFEFF<a>".getBytes(charset)));
+        assertEquals(charset, EncodingDetector.detect("text/html; charset=ISO-8859-2", stream));
+        assertEquals("<a>", new String(stream.readAllBytes(), charset));
+    }
+}
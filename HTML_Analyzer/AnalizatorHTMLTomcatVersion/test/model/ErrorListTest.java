@@ -0,0 +1,44 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing rendering documents with error notifications.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class ErrorListTest {
+
+    /**
+     * Test that checks whether every error adds its marks to its line.
+     */
+    @Test
+    void renderMarks() {
+        ErrorList errors = new ErrorList();
+        errors.add(0, ErrorType.NO_LOWERCASE_TAG);
+        errors.add(2, ErrorType.NO_ENDING_BRACKET);
+        errors.add(2, ErrorType.NO_ENDING_TAG);
+        assertEquals(3, errors.size());
+        assertEquals(ErrorType.NO_ENDING_BRACKET, errors.getType(1));
+        assertEquals(Arrays.asList("<A> *", "text", "<b * * *"),
+                errors.render(Arrays.asList("<A>", "text", "<b")).collect(Collectors.toList()));
+    }
+
+    /**
+     * Test that checks whether a cleared list renders the document unchanged.
+     */
+    @Test
+    void renderNoErrors() {
+        ErrorList errors = new ErrorList();
+        errors.add(0, ErrorType.NO_ENDING_TAG);
+        errors.clear();
+        assertEquals(Arrays.asList("<a>", "</a>"),
+                errors.render(Arrays.asList("<a>", "</a>")).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,189 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static model.AnalysisAssertions.assertSameAsSequential;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing analysis of documents changed after previous analysis.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class IncrementalAnalyzerTest {
+
+    /**
+     * Method creating a document of nested sections.
+     * @param sections Number of sections.
+     * @return Lines of the document.
+     */
+    private static ArrayList<String> createDocument(int sections){
+        ArrayList<String> lines = new ArrayList<>();
+        lines.add("<html>");
+        lines.add("<body>");
+        for(int i = 0; i < sections; i++){
+            lines.add("<div class='section'>");
+            lines.add("<p>Paragraph " + i + "</p>");
+            lines.add(i % 7 == 0 ? "<B>bold</B>" : "<b>bold</b>");
+            lines.add("</div>");
+        }
+        lines.add("</body>");
+        lines.add("</html>");
+        return lines;
+    }
+
+    /**
+     * Method that checks analysis of a document after a single change.
+     * @param line Index of changed line.
+     * @param removed Number of removed lines.
+     * @param inserted Inserted lines separated with '|', or empty.
+     */
+    @ParameterizedTest
+    @CsvSource(value={"0,1,<HTML>", "3,0,<p>new paragraph</p>", "3,0,<p>unclosed paragraph", "101,1,''",
+            "150,4,''", "150,0,<!-- comment", "150,0,<!--|-->", "200,0,</body>", "300,1,<div", "400,0,<span>|</span>",
+            "405,2,</div>|<div>", "811,0,<p|class='x'>", "812,1,''", "811,3,''"}, emptyValue = "")
+    void reanalyzeAfterChange(int line, int removed, String inserted){
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(Long.MAX_VALUE, 10);
+        ArrayList<String> lines = createDocument(203);
+        assertSameAsSequential(lines, analyzer.analyze("index.html", lines));
+
+        ArrayList<String> changed = new ArrayList<>(lines);
+        for(int i = 0; i < removed; i++){
+            changed.remove(line);
+        }
+        if(!inserted.isEmpty()){
+            changed.addAll(line, List.of(inserted.split("\\|")));
+        }
+        assertSameAsSequential(changed, analyzer.analyze("index.html", changed));
+        assertEquals(1, analyzer.getFullAnalyses());
+        assertEquals(1, analyzer.getIncrementalAnalyses());
+    }
+
+    /**
+     * Method that checks analysis of a document after many random changes,
+     * each analyzed against the previous version.
+     * @param seed Seed of the random changes.
+     */
+    @ParameterizedTest
+    @ValueSource(ints={1, 2, 3, 4, 5})
+    void reanalyzeAfterRandomChanges(int seed){
+        String[] fragments = {"<a>", "</a>", "<DIV>", "</div>", "<p", "text", "<br>", "<!--", "-->", "</b>", "<b>"};
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(Long.MAX_VALUE, 5);
+        Random random = new Random(seed);
+        ArrayList<String> lines = createDocument(50);
+        for(int change = 0; change < 50; change++){
+            lines = new ArrayList<>(lines);
+            int line = random.nextInt(lines.size());
+            if(random.nextBoolean() && lines.size() > 1){
+                lines.remove(line);
+            }else{
+                lines.add(line, fragments[random.nextInt(fragments.length)]);
+            }
+            assertSameAsSequential(lines, analyzer.analyze("random.html", lines));
+        }
+    }
+
+    /**
+     * Method that checks analysis of a document after changes which shift
+     * checkpoints of the previous version onto the first analyzed line.
+     */
+    @Test
+    void reanalyzeAfterChangesShiftingCheckpoints(){
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(Long.MAX_VALUE, 1);
+        for(String document : new String[]{"x|<p", "<p", "<p|x", "x"}){
+            List<String> lines = List.of(document.split("\\|"));
+            assertSameAsSequential(lines, analyzer.analyze("index.html", lines));
+        }
+    }
+
+    /**
+     * Method that checks analysis of small documents after many random edits,
+     * each analyzed against the previous version, with checkpoints at most lines.
+     * @param checkpointInterval Smallest number of lines between checkpoints.
+     */
+    @ParameterizedTest
+    @ValueSource(ints={1, 2, 3, 4, 5})
+    void reanalyzeSmallDocumentsAfterRandomEdits(int checkpointInterval){
+        String[] fragments = {"<a>", "</a>", "<DIV>", "</div>", "<p", "x", "<br>", "<!--", "-->", "<p>", "</p>",
+                "class='y'>", "<span", "</span>", "<!-- c -->", "<!DOCTYPE html>", ""};
+        for(int seed = 0; seed < 200; seed++){
+            IncrementalAnalyzer analyzer = new IncrementalAnalyzer(Long.MAX_VALUE, checkpointInterval);
+            Random random = new Random(seed);
+            List<String> lines = new ArrayList<>();
+            for(int edit = 0; edit < 40; edit++){
+                lines = new ArrayList<>(lines);
+                int operation = random.nextInt(3);
+                if(operation == 0 && !lines.isEmpty()){
+                    lines.remove(random.nextInt(lines.size()));
+                }else if(operation == 1 && !lines.isEmpty()){
+                    lines.set(random.nextInt(lines.size()), fragments[random.nextInt(fragments.length)]);
+                }else{
+                    lines.add(random.nextInt(lines.size() + 1), fragments[random.nextInt(fragments.length)]);
+                }
+                if(!lines.isEmpty()){
+                    assertSameAsSequential(lines, analyzer.analyze("random.html", lines));
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that checks that a change of a single line of a large document
+     * analyzes only lines around the change.
+     */
+    @Test
+    void reanalyzeSingleLine(){
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(Long.MAX_VALUE);
+        ArrayList<String> lines = createDocument(12500);
+        analyzer.analyze("large.html", lines);
+        long analyzedLines = analyzer.getAnalyzedLines();
+
+        ArrayList<String> changed = new ArrayList<>(lines);
+        changed.set(25003, "<P>Changed paragraph</P>");
+        assertSameAsSequential(changed, analyzer.analyze("large.html", changed));
+        assertEquals(lines.size(), analyzedLines);
+        assertTrue(analyzer.getAnalyzedLines() - analyzedLines <= 2 * IncrementalAnalyzer.CHECKPOINT_INTERVAL + 4);
+    }
+
+    /**
+     * Method that checks analysis of documents given as lines being read,
+     * first without and then with previous version.
+     */
+    @Test
+    void reanalyzeLinesBeingRead(){
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(Long.MAX_VALUE, 10);
+        ArrayList<String> lines = createDocument(100);
+        assertSameAsSequential(lines, analyzer.analyze("index.html", lines.iterator()));
+
+        ArrayList<String> changed = new ArrayList<>(lines);
+        changed.set(201, "<P>Changed paragraph");
+        assertSameAsSequential(changed, analyzer.analyze("index.html", changed.iterator()));
+        assertEquals(1, analyzer.getFullAnalyses());
+        assertEquals(1, analyzer.getIncrementalAnalyses());
+        assertTrue(analyzer.getAnalyzedLines() < lines.size() + changed.size());
+    }
+
+    /**
+     * Method that checks that states of documents are evicted when
+     * they exceed the limit of their total size.
+     */
+    @Test
+    void evictStates(){
+        ArrayList<String> lines = createDocument(100);
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(100);
+        analyzer.analyze("index.html", lines);
+        analyzer.analyze("index.html", lines);
+
+        assertEquals(0, analyzer.size());
+        assertEquals(0, analyzer.getBytes());
+        assertEquals(2, analyzer.getFullAnalyses());
+    }
+}
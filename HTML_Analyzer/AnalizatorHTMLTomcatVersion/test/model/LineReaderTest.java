@@ -0,0 +1,65 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing reading lines from a stream of characters.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class LineReaderTest {
+
+    /**
+     * Method for reading all lines of a text.
+     * @param text Read text.
+     * @return List of lines.
+     */
+    private List<String> read(String text){
+        List<String> lines = new ArrayList<>();
+        LineReader reader = new LineReader(new StringReader(text));
+        while(reader.hasNext()){
+            lines.add(reader.next());
+        }
+        return lines;
+    }
+
+    /**
+     * Test that checks whether lines keep their newline characters
+     * and the rest after the last newline is the last line.
+     * @param text Read text.
+     */
+    @ParameterizedTest
+    @ValueSource(strings={"", "<a>", "<a>\n</a>", "<a>\n</a>\n", "\r\n\n<b>\r\n"})
+    void readLines(String text) {
+        List<String> lines = read(text);
+        assertEquals(text, String.join("", lines));
+        assertEquals(text.chars().filter(character -> character == '\n').count() + 1, lines.size());
+        for(int i = 0; i < lines.size() - 1; i++){
+            assertTrue(lines.get(i).endsWith("\n"));
+        }
+    }
+
+    /**
+     * Test that checks whether lines longer than the read buffer are read whole.
+     */
+    @Test
+    void readLongLines() {
+        StringBuilder line = new StringBuilder();
+        for(int i = 0; i < 20000; i++){
+            line.append((char) ('a' + i % 26));
+        }
+        List<String> lines = read(line + "\n" + line + line);
+        assertEquals(2, lines.size());
+        assertEquals(line + "\n", lines.get(0));
+        assertEquals(40000, lines.get(1).length());
+    }
+}
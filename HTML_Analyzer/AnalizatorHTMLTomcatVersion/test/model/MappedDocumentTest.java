@@ -0,0 +1,85 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing reading files mapped into memory.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class MappedDocumentTest {
+
+    /**
+     * Test that checks whether lines are split the same way as by Scanner.
+     * @param contents Contents of read file.
+     * @param directory Directory for the test file.
+     * @throws IOException Exception that indicates error during writing to the test file.
+     */
+    @ParameterizedTest
+    @ValueSource(strings={"", "<a>", "<a>\n</a>\n", "<a>\r\n\r\n</a>", "<a>\r</a>\n\n",
+            "<p>za\u017c\u00f3\u0142\u0107</p>\n<p>g\u0119\u015bl\u0105</p>", "<b>\u2028</b>\u0085"})
+    void readLines(String contents, @TempDir File directory) throws IOException {
+        File file = new File(directory, "document.html");
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+
+        List<String> expected = new ArrayList<>();
+        try(Scanner scanner = new Scanner(file, StandardCharsets.UTF_8.name())){
+            while(scanner.hasNextLine()){
+                expected.add(scanner.nextLine());
+            }
+        }
+        MappedDocument document = MappedDocument.read(file, StandardCharsets.UTF_8);
+        List<String> actual = new ArrayList<>();
+        for(CharSequence line : document){
+            actual.add(line.toString());
+        }
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Test that checks whether a line terminator split between
+     * chunks of scanned bytes ends a single line.
+     * @param directory Directory for the test file.
+     * @throws IOException Exception that indicates error during writing to the test file.
+     */
+    @Test
+    void readTerminatorBetweenChunks(@TempDir File directory) throws IOException {
+        File file = new File(directory, "document.html");
+        StringBuilder line = new StringBuilder();
+        for(int i = 0; i < 8191; i++){
+            line.append('a');
+        }
+        Files.write(file.toPath(), (line + "\r\n<b>").getBytes(StandardCharsets.US_ASCII));
+
+        MappedDocument document = MappedDocument.read(file, StandardCharsets.US_ASCII);
+        assertEquals(2, document.size());
+        assertEquals(line.toString(), document.get(0).toString());
+        assertEquals("<b>", document.get(1).toString());
+    }
+
+    /**
+     * Test that checks whether a missing file is reported as not found.
+     * @param directory Directory without the test file.
+     */
+    @Test
+    void readMissingFile(@TempDir File directory) {
+        assertThrows(FileNotFoundException.class,
+                () -> MappedDocument.read(new File(directory, "missing.html"), Charset.defaultCharset()));
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static model.AnalysisAssertions.assertSameAsSequential;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing analysis of a document split into chunks.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class ParallelAnalyzerTest {
+
+    /**
+     * Pool analyzing chunks of tested documents.
+     */
+    private static ForkJoinPool pool;
+
+    /**
+     * Method creating the pool.
+     */
+    @BeforeAll
+    static void createPool(){
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Method shutting the pool down.
+     */
+    @AfterAll
+    static void shutdownPool(){
+        pool.shutdown();
+    }
+
+    /**
+     * Method that checks documents whose tags are opened and closed
+     * in different chunks, with and without errors.
+     * @param document Lines of the document separated with '|'.
+     */
+    @ParameterizedTest
+    @ValueSource(strings={"<html>|<body>|<p>x</p>|</body>|</html>",
+            "<div>|<p>|<b>x|</div>|</p>",
+            "<div>|<p>x</b>|</p>|</div>",
+            "<a>|<b>|</c>|</a>|<DIV>|</div>",
+            "<ul>|<li>one|<li>two|</ul>|<br>|<img src=x>",
+            "<p|<q>|</q>|<r class='x'|title='y'|</r>",
+            "<div>|<!-- comment|<p>|<b>|-->|</div>",
+            "<div>|<!-- comment|<p>|-->|<b>|</div>|<!--|<x>",
+            "<x>|<y>|</x>|</y>|</x>|<z>",
+            "<!DOCTYPE html>|<HTML>|<Body>|</BODY>|</html>"})
+    void analyzeInChunks(String document){
+        List<String> lines = Arrays.asList(document.split("\\|"));
+        assertSameAsSequential(lines, ParallelAnalyzer.analyze(lines, pool, 1));
+    }
+
+    /**
+     * Method that checks documents built of random tags and text,
+     * so that chunks end in every possible state.
+     * @param seed Seed of the random document.
+     */
+    @ParameterizedTest
+    @ValueSource(ints={1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+    void analyzeRandomDocuments(int seed){
+        String[] fragments = {"<a>", "</a>", "<b>", "</b>", "<DIV>", "</div>", "<p", "text", "<br>",
+                "<!--", "-->", "<span/>", "</i>", "<i class='x'", ">", "<"};
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>();
+        for(int i = 0; i < 400; i++){
+            StringBuilder line = new StringBuilder();
+            int count = random.nextInt(4);
+            for(int j = 0; j < count; j++){
+                line.append(fragments[random.nextInt(fragments.length)]);
+            }
+            lines.add(line.toString());
+        }
+        assertSameAsSequential(lines, ParallelAnalyzer.analyze(lines, pool, 1));
+    }
+
+    /**
+     * Method that checks that documents too small to be split
+     * are analyzed by the sequential analyzer.
+     * @param minChunkLines Smallest number of lines of a chunk.
+     */
+    @ParameterizedTest
+    @ValueSource(ints={1, 100})
+    void analyzeSmallDocument(int minChunkLines){
+        List<String> lines = Arrays.asList("<a>", "<B>", "</a>");
+        DocumentAnalysis result = ParallelAnalyzer.analyze(lines, pool, minChunkLines);
+
+        assertEquals(1, result.getNoMatchingTagErrors());
+        assertEquals(1, result.getNoLowercaseTagErrors());
+    }
+}
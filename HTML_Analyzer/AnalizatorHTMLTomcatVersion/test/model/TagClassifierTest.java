@@ -0,0 +1,60 @@
+package model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing tag classification.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class TagClassifierTest {
+
+    /**
+     * Test that checks whether opening tags are classified the same way
+     * as by the regular expression used before.
+     * @param tag Checked string.
+     */
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings={"<tag>", "<a>", "<ab>", "<1234>", "<>", "<Tag>", "<tag", "</tag>",
+            "<div class=\"x\">", "<ta\ng>", "<ta g>", "<a>>"})
+    void isOpeningTag(String tag) {
+        boolean expected = tag != null && Pattern.compile("<[a-z].+>").matcher(tag).matches();
+        assertEquals(expected, TagClassifier.isOpeningTag(tag));
+    }
+
+    /**
+     * Test that checks whether ending tags are classified the same way
+     * as by the regular expression used before.
+     * @param endingTag Checked string.
+     */
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings={"</tag>", "</a>", "</ab>", "<1234>", "</>", "</Tag>", "</tag", "<tag>",
+            "</div >", "</ta\rg>"})
+    void isEndingTag(String endingTag) {
+        boolean expected = endingTag != null && Pattern.compile("</[a-z].+>").matcher(endingTag).matches();
+        assertEquals(expected, TagClassifier.isEndingTag(endingTag));
+    }
+
+    /**
+     * Test that checks recognition of uppercase letters in tag names.
+     * @param tag Checked tag.
+     */
+    @ParameterizedTest
+    @ValueSource(strings={"<Tag>", "<tAg>", "<TAG>", "</tAG>"})
+    void isLowercase(String tag) {
+        int nameBegin = tag.charAt(1) == '/' ? 2 : 1;
+        int nameEnd = TagClassifier.findNameEnd(tag, nameBegin);
+        assertEquals(tag.length() - 1, nameEnd);
+        assertFalse(TagClassifier.isLowercase(tag, nameBegin, nameEnd));
+        assertTrue(TagClassifier.isLowercase(tag.toLowerCase(), nameBegin, nameEnd));
+    }
+}
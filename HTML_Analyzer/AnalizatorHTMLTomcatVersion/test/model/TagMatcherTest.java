@@ -0,0 +1,65 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing rules of matching tags applied token by token.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class TagMatcherTest {
+
+    /**
+     * Method matching tags of a document, returning found events as strings
+     * "type:line:second:third", with names of tags instead of their ids.
+     * @param document Lines of the document separated with '|'.
+     * @param speculative Flag set when tags opened before the document are not known.
+     * @return Found events.
+     */
+    private static List<String> match(String document, boolean speculative){
+        List<String> lines = List.of(document.split("\\|"));
+        TagNameTable tagNames = new TagNameTable();
+        List<String> events = new ArrayList<>();
+        TagMatcher matcher = new TagMatcher(tagNames, new TagStack(), (type, line, second, third) ->
+                events.add(type + ":" + line + ":" + second + ":"
+                        + (type == ErrorRecorder.NO_ENDING_TAG || type >= TagMatcher.RESIDUAL
+                        ? tagNames.getName(third) : String.valueOf(third))), speculative);
+        Tokenizer tokenizer = new Tokenizer(lines, tagNames);
+        Token.Type type;
+        while((type = tokenizer.advance()) != null){
+            matcher.match(type, tokenizer, 0);
+        }
+        matcher.closeAll(lines.size());
+        return events;
+    }
+
+    /**
+     * Method that checks events found in documents.
+     * @param document Lines of the document separated with '|'.
+     * @param expected Expected events separated with spaces, or empty.
+     */
+    @ParameterizedTest
+    @CsvSource(value={"<p>text</p>,''", "<div><p></div>,0:0:8:p", "<p>|<br>,0:2:0:p", "<B>bold</b>,1:0:1:2",
+            "<p class='x',2:0:12:0 0:1:0:p", "</span><p></p>,''", "<!DOCTYPE html>|<IMG src=x>,1:1:1:4"}, emptyValue = "")
+    void matchTags(String document, String expected){
+        assertEquals(expected.isEmpty() ? List.of() : List.of(expected.split(" ")), match(document, false));
+    }
+
+    /**
+     * Method that checks residual closes found by speculative matching.
+     */
+    @Test
+    void matchSpeculatively(){
+        assertEquals(List.of("3:0:0:div"), match("</div>", true));
+        assertEquals(List.of("0:0:9:p", "0:0:9:span", "4:0:9:div", "3:0:15:span"), match("<span><p></div></span>", true));
+        assertEquals(List.of(), match("</div>", false));
+    }
+}
@@ -0,0 +1,120 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class for testing splitting documents into tokens.
+ * @author Piotr Gazda
+ * @version 1.0
+ * @since 6.0
+ */
+class TokenizerTest {
+
+    /**
+     * Method for reading all tokens of a document.
+     * @param lines Document lines.
+     * @return List of tokens.
+     */
+    private List<Token> tokenize(String... lines){
+        List<Token> tokens = new ArrayList<>();
+        Tokenizer tokenizer = new Tokenizer(Arrays.asList(lines));
+        while(tokenizer.advance() != null){
+            tokens.add(tokenizer.getToken());
+        }
+        return tokens;
+    }
+
+    /**
+     * Test that checks whether a single tag is recognized with its type and name.
+     * @param tag Tokenized tag.
+     * @param type Expected token type.
+     * @param name Expected tag name.
+     * @param lowercase Expected lowercase flag.
+     */
+    @ParameterizedTest
+    @CsvSource({"<tag>,OPENING_TAG,tag,true", "</tag>,ENDING_TAG,tag,true",
+            "<Tag attr=x>,OPENING_TAG,tag,false", "<h1>,OPENING_TAG,h1,true",
+            "<!DOCTYPE html>,DECLARATION,,true", "<!-- <tag> -->,DECLARATION,,true"})
+    void readTag(String tag, Token.Type type, String name, boolean lowercase) {
+        List<Token> tokens = tokenize(tag);
+        assertEquals(1, tokens.size());
+        assertEquals(type, tokens.get(0).getType());
+        assertEquals(name, tokens.get(0).getName());
+        assertEquals(lowercase, tokens.get(0).isLowercase());
+        assertTrue(tokens.get(0).isTerminated());
+        assertEquals(tag.length(), tokens.get(0).getEndColumn());
+    }
+
+    /**
+     * Test that checks whether brackets not followed by a tag name are treated as text.
+     * @param text Tokenized text.
+     */
+    @ParameterizedTest
+    @CsvSource({"a < b", "1 <2", "</>", "<"})
+    void readText(String text) {
+        List<Token> tokens = tokenize(text);
+        assertEquals(1, tokens.size());
+        assertEquals(Token.Type.TEXT, tokens.get(0).getType());
+    }
+
+    /**
+     * Test that checks positions of a tag spanning several lines.
+     */
+    @Test
+    void readMultilineTag() {
+        List<Token> tokens = tokenize("text <div", "class='x'", "/> more");
+        assertEquals(Token.Type.TEXT, tokens.get(0).getType());
+        Token tag = tokens.get(1);
+        assertEquals(Token.Type.OPENING_TAG, tag.getType());
+        assertEquals(0, tag.getLine());
+        assertEquals(5, tag.getColumn());
+        assertEquals(2, tag.getEndLine());
+        assertEquals(2, tag.getEndColumn());
+        assertTrue(tag.isSelfClosing());
+        assertEquals(Token.Type.TEXT, tokens.get(2).getType());
+    }
+
+    /**
+     * Test that checks whether a tag interrupted by another bracket is unterminated
+     * and ends right before the interrupting bracket.
+     */
+    @Test
+    void readUnterminatedTag() {
+        List<Token> tokens = tokenize("<first", "</second>");
+        assertEquals(2, tokens.size());
+        assertFalse(tokens.get(0).isTerminated());
+        assertEquals(1, tokens.get(0).getEndLine());
+        assertEquals(0, tokens.get(0).getEndColumn());
+        assertEquals(Token.Type.ENDING_TAG, tokens.get(1).getType());
+        assertTrue(tokens.get(1).isTerminated());
+    }
+
+    /**
+     * Test that checks whether tag names differing only in letter case
+     * are given the same id.
+     */
+    @Test
+    void internTagNames() {
+        TagNameTable tagNames = new TagNameTable();
+        Tokenizer tokenizer = new Tokenizer(Arrays.asList("<div><DIV></Div><span>"), tagNames);
+        int[] ids = new int[4];
+        for(int i = 0; i < ids.length; i++){
+            tokenizer.advance();
+            ids[i] = tokenizer.getNameId();
+        }
+        assertEquals(ids[0], ids[1]);
+        assertEquals(ids[0], ids[2]);
+        assertNotEquals(ids[0], ids[3]);
+        assertEquals("div", tagNames.getName(ids[1]));
+        assertEquals(2, tagNames.size());
+        assertNull(tokenizer.advance());
+    }
+}